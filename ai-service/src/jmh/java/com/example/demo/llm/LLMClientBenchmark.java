@@ -0,0 +1,72 @@
+package com.example.demo.llm;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares per-call overhead of the two LLMClient implementations against a local {@link FakeOpenAIServer}
+ * with zero simulated latency, so the time measured is the client's own.
+ *
+ * Run with {@code ./mvnw -Pjmh test-compile exec:exec -Djmh.args="LLMClientBenchmark -prof gc"};
+ * gc.alloc.rate.norm is the bytes allocated per call. The fake server runs in the same JVM, so its share
+ * is included (identical for both clients).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LLMClientBenchmark {
+
+    private static final String PROMPT = "Explain recursion to a first-year student in two sentences.";
+
+    @Param({ "spring-ai", "http" })
+    public String client;
+
+    private FakeOpenAIServer server;
+    private LLMClient llmClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = new FakeOpenAIServer().start();
+        llmClient = "http".equals(client)
+                ? new OpenAIHttpClientImpl(new ObjectMapper(), "test-key", server.baseUrl(),
+                        "gpt-3.5-turbo", 0.7, 5_000, 60_000)
+                : springAiClient(server.baseUrl());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public String chat() {
+        return llmClient.chat(PROMPT);
+    }
+
+    private static LLMClient springAiClient(String baseUrl) {
+        OpenAIClientImpl springAi = new OpenAIClientImpl(new OpenAiChatModel(new OpenAiApi(baseUrl, "test-key")));
+        ReflectionTestUtils.setField(springAi, "apiKey", "test-key");
+        return springAi;
+    }
+}
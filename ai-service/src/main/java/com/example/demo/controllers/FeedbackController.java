@@ -8,11 +8,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.demo.dto.request.AIFeedbackRequest;
 import com.example.demo.dto.response.AIGenerationResponseDTO;
 import com.example.demo.dto.response.FeedbackResponseDTO;
+import com.example.demo.dto.response.WeaknessSummaryDTO;
 import com.example.demo.dto.ResponseObject;
 import com.example.demo.mapper.FeedbackResponseMapper;
 import com.example.demo.services.feedback.ITestFeedbackService;
@@ -101,4 +103,26 @@ public class FeedbackController {
                         responseMapper.toResponseDTO(record))))
                 .orElse(ResponseEntity.ok(ResponseObject.error(404, "Feedback not found")));
     }
+
+    /**
+     * Get the most common weaknesses of a course.
+     *
+     * @param courseId the course's unique identifier
+     * @param limit    maximum number of weaknesses to return
+     * @return weaknesses ordered by number of occurrences
+     */
+    @GetMapping("/course/{courseId}/weaknesses")
+    @Operation(summary = "Get common weaknesses",
+               description = "Aggregates the weaknesses identified in all feedback records of a course")
+    public ResponseEntity<ResponseObject<List<WeaknessSummaryDTO>>> commonWeaknesses(
+            @Parameter(description = "Course's unique identifier")
+            @PathVariable String courseId,
+            @Parameter(description = "Maximum number of weaknesses to return", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Received request for common weaknesses of course: {}", courseId);
+
+        var weaknesses = feedbackService.getCommonWeaknesses(courseId, limit);
+
+        return ResponseEntity.ok(ResponseObject.success("Common weaknesses retrieved successfully", weaknesses));
+    }
 }
@@ -16,5 +16,10 @@ public class MaterialContentResponseDTO {
     private String fileName;
     private String pages;
     private String content;
+
+    /**
+     * Pages actually returned ("from-to") when only part of the material was requested.
+     */
+    private String pageRange;
 }
 
@@ -0,0 +1,26 @@
+package com.example.demo.dto.material;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change notification published by the course service on its content event stream.
+ * aggregateType is CHAPTER, MATERIAL or CONTENT (the uploaded file of a chapter);
+ * changeType is CREATED, UPDATED or DELETED; position is the stream position (SSE event id).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentChangeEventDTO {
+    private Long id;
+    private Long position;
+    private String aggregateType;
+    private String aggregateId;
+    private String courseId;
+    private String chapterId;
+    private String changeType;
+    private String occurredAt;
+}
@@ -0,0 +1,25 @@
+package com.example.demo.dto.material;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing from the course service.
+ * Pass nextCursor back as the cursor parameter to fetch the following page; it is null on the last page.
+ *
+ * @param <T> the type of the listed items
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private Integer size;
+    private String nextCursor;
+    private boolean hasMore;
+}
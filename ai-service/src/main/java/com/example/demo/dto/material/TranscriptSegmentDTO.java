@@ -0,0 +1,22 @@
+package com.example.demo.dto.material;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One cue of a video transcript returned by the course service.
+ * Times are milliseconds from the start of the video; rank is only set on segments matching a keyword query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TranscriptSegmentDTO {
+    private Integer seq;
+    private Long startMs;
+    private Long endMs;
+    private String text;
+    private Double rank;
+}
@@ -1,6 +1,8 @@
 package com.example.demo.dto.request;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +22,18 @@ public class AIExplainRequest {
 
     @NotNull(message = "Student question text is required")
     private String studentQuestion;
+
+    /**
+     * Optional page range of the material the question is about, e.g. "3-5".
+     * When omitted the whole material content is fetched.
+     */
+    @Pattern(regexp = "\\s*\\d+\\s*(-\\s*\\d*\\s*)?", message = "Pages must look like 3 or 3-5")
+    private String pages;
+
+    /**
+     * Optional position in seconds of a video material the question is about.
+     * When set, the transcript around this moment is added to the prompt instead of the whole transcript.
+     */
+    @PositiveOrZero(message = "Video timestamp must not be negative")
+    private Double videoTimestamp;
 }
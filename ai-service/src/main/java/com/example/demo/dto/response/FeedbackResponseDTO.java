@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * Response DTO for feedback record.
  * Used by FeedbackController to return feedback history and assessment feedback.
@@ -25,5 +27,13 @@ public class FeedbackResponseDTO {
     
     private String feedbackText;
     
+    private String summary;
+    
+    private List<String> strengths;
+    
+    private List<String> weaknesses;
+    
+    private List<String> recommendedTopics;
+    
     private String createdAt;
 }
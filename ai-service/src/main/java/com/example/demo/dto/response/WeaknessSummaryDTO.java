@@ -0,0 +1,23 @@
+package com.example.demo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for a weakness aggregated over all feedback records of a course.
+ * Used by FeedbackController to return the most common weaknesses of a course.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WeaknessSummaryDTO {
+
+    private String weakness;
+
+    private Long occurrences;
+
+    private Long studentCount;
+}
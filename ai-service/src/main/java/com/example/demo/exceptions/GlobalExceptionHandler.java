@@ -3,6 +3,7 @@ package com.example.demo.exceptions;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -63,6 +64,18 @@ public class GlobalExceptionHandler {
                 .body(ResponseObject.error(HttpStatus.SERVICE_UNAVAILABLE.value(), "AI service is currently unavailable"));
     }
 
+    /**
+     * Handle token quota exceptions.
+     */
+    @ExceptionHandler(QuotaExceededException.class)
+    public ResponseEntity<ResponseObject<Void>> handleQuotaExceededException(QuotaExceededException ex) {
+        log.warn("Token quota exceeded: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ResponseObject.error(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage()));
+    }
+
     /**
      * Handle all other exceptions.
      */
@@ -0,0 +1,18 @@
+package com.example.demo.exceptions;
+
+/**
+ * Exception thrown when a student or course has used up its LLM token quota.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public QuotaExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
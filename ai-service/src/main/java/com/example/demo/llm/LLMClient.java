@@ -28,4 +28,15 @@ public interface LLMClient {
     default String chat(String systemMessage, String prompt) {
         return chat(systemMessage + "\n\n" + prompt);
     }
+
+    /**
+     * Send a chat prompt and get the response together with its token usage.
+     * Implementations that cannot read usage from the provider fall back to an estimate.
+     *
+     * @param prompt the input prompt to send
+     * @return the LLM's response and token usage
+     */
+    default LLMResult chatWithUsage(String prompt) {
+        return LLMResult.estimated(prompt, chat(prompt));
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.demo.llm;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response of an LLM call together with the token usage reported for it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LLMResult {
+
+    /**
+     * Rough characters-per-token ratio used when the provider does not report usage.
+     */
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private String content;
+    private OpenAIModels.Usage usage;
+
+    /**
+     * Build a result whose usage is estimated from the prompt and response length.
+     * Used for mock responses and providers that do not report token usage.
+     */
+    public static LLMResult estimated(String prompt, String content) {
+        int promptTokens = estimateTokens(prompt);
+        int completionTokens = estimateTokens(content);
+        return new LLMResult(content,
+                new OpenAIModels.Usage(promptTokens, completionTokens, promptTokens + completionTokens));
+    }
+
+    private static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
@@ -3,9 +3,12 @@ package com.example.demo.llm;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import lombok.extern.slf4j.Slf4j;
@@ -15,8 +18,10 @@ import java.util.List;
 /**
  * OpenAI implementation of LLMClient using Spring AI.
  * Follows Single Responsibility Principle - only handles OpenAI API communication.
+ * Default implementation; set {@code llm.client=http} to use {@link OpenAIHttpClientImpl} instead.
  */
 @Component
+@ConditionalOnProperty(name = "llm.client", havingValue = "spring-ai", matchIfMissing = true)
 @Slf4j
 public class OpenAIClientImpl implements LLMClient {
 
@@ -31,23 +36,33 @@ public class OpenAIClientImpl implements LLMClient {
 
     @Override
     public String chat(String prompt) {
+        return chatWithUsage(prompt).getContent();
+    }
+
+    @Override
+    public LLMResult chatWithUsage(String prompt) {
         log.info("Sending prompt to OpenAI via Spring AI");
         log.debug("Prompt length: {} characters", prompt.length());
 
         if (apiKey == null || apiKey.isEmpty()) {
             log.warn("OpenAI API key not configured. Returning mock response.");
-            return generateMockResponse(prompt);
+            return LLMResult.estimated(prompt, generateMockResponse(prompt));
         }
 
         try {
-            String response = chatClient.prompt()
+            ChatResponse chatResponse = chatClient.prompt()
                     .user(prompt)
                     .call()
-                    .content();
+                    .chatResponse();
+
+            String response = chatResponse != null && chatResponse.getResult() != null
+                    ? chatResponse.getResult().getOutput().getContent()
+                    : null;
 
             log.info("Received response from OpenAI, length: {} characters",
                     response != null ? response.length() : 0);
-            return response != null ? response : "No response generated.";
+            String content = response != null ? response : "No response generated.";
+            return toResult(prompt, content, chatResponse);
 
         } catch (Exception e) {
             log.error("Error calling OpenAI API: {}", e.getMessage(), e);
@@ -84,30 +99,39 @@ public class OpenAIClientImpl implements LLMClient {
         }
     }
 
+    /**
+     * Convert the usage reported by Spring AI, estimating it when the provider returned none.
+     */
+    private LLMResult toResult(String prompt, String content, ChatResponse chatResponse) {
+        Usage usage = chatResponse != null && chatResponse.getMetadata() != null
+                ? chatResponse.getMetadata().getUsage()
+                : null;
+        if (usage == null || usage.getTotalTokens() == null || usage.getTotalTokens() == 0) {
+            return LLMResult.estimated(prompt, content);
+        }
+        return new LLMResult(content, new OpenAIModels.Usage(
+                toInt(usage.getPromptTokens()),
+                toInt(usage.getGenerationTokens()),
+                toInt(usage.getTotalTokens())));
+    }
+
+    private static Integer toInt(Long tokens) {
+        return tokens != null ? Math.toIntExact(tokens) : 0;
+    }
+
     /**
      * Generate a mock response for development/testing purposes when API key is not configured.
      */
     private String generateMockResponse(String prompt) {
         if (prompt.toLowerCase().contains("feedback")) {
             return """
-                    ## Feedback on Your Submission
-                    
-                    ### Overall Performance
-                    Good effort on this assessment! You've demonstrated understanding of the core concepts.
-                    
-                    ### Strengths
-                    - Clear understanding of basic concepts
-                    - Good problem-solving approach
-                    
-                    ### Areas for Improvement
-                    - Review the detailed explanations for questions you missed
-                    - Practice similar problems to reinforce learning
-                    
-                    ### Study Recommendations
-                    - Review Chapter 5: Core Concepts
-                    - Complete Practice Set B for additional practice
-                    
-                    Keep up the good work! You're making progress.
+                    {
+                      "summary": "Good effort on this assessment! You've demonstrated understanding of the core concepts.",
+                      "strengths": ["Basic concepts", "Problem-solving approach"],
+                      "weaknesses": ["Missed question explanations", "Practice consistency"],
+                      "recommendedTopics": ["Chapter 5: Core Concepts", "Practice Set B"],
+                      "feedback": "## Feedback on Your Submission\\n\\n### Overall Performance\\nGood effort on this assessment! You've demonstrated understanding of the core concepts.\\n\\n### Strengths\\n- Clear understanding of basic concepts\\n- Good problem-solving approach\\n\\n### Areas for Improvement\\n- Review the detailed explanations for questions you missed\\n- Practice similar problems to reinforce learning\\n\\n### Study Recommendations\\n- Review Chapter 5: Core Concepts\\n- Complete Practice Set B for additional practice\\n\\nKeep up the good work! You're making progress."
+                    }
                     """;
         }
         return "I've processed your request. Please let me know if you need any clarification.";
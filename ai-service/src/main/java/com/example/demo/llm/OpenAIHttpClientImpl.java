@@ -0,0 +1,249 @@
+package com.example.demo.llm;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.exceptions.AIServiceException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * OpenAI implementation of LLMClient talking to the Chat Completion API directly.
+ * Uses a single shared JDK HttpClient (HTTP/2 with connection reuse, gzip) and parses
+ * responses incrementally with the Jackson streaming parser into {@link OpenAIModels} DTOs.
+ *
+ * Enabled with {@code llm.client=http}; the Spring AI based {@link OpenAIClientImpl} is the default.
+ */
+@Component
+@ConditionalOnProperty(name = "llm.client", havingValue = "http")
+@Slf4j
+public class OpenAIHttpClientImpl implements LLMClient {
+
+    private static final String COMPLETIONS_PATH = "/v1/chat/completions";
+
+    private static final int MAX_ERROR_BODY_LENGTH = 500;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI completionsUri;
+    private final String apiKey;
+    private final String model;
+    private final Double temperature;
+    private final Duration requestTimeout;
+
+    public OpenAIHttpClientImpl(ObjectMapper objectMapper,
+                                @Value("${spring.ai.openai.api-key:}") String apiKey,
+                                @Value("${llm.http.base-url:https://api.openai.com}") String baseUrl,
+                                @Value("${spring.ai.openai.chat.options.model:gpt-3.5-turbo}") String model,
+                                @Value("${spring.ai.openai.chat.options.temperature:0.7}") Double temperature,
+                                @Value("${llm.http.connect-timeout:5000}") long connectTimeoutMillis,
+                                @Value("${llm.http.request-timeout:60000}") long requestTimeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.temperature = temperature;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.completionsUri = URI.create(stripTrailingSlash(baseUrl) + COMPLETIONS_PATH);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+    }
+
+    @Override
+    public String chat(String prompt) {
+        return chatWithUsage(prompt).getContent();
+    }
+
+    @Override
+    public LLMResult chatWithUsage(String prompt) {
+        log.info("Sending prompt to OpenAI via HttpClient");
+        log.debug("Prompt length: {} characters", prompt.length());
+        OpenAIModels.ChatCompletionResponse completion = complete(List.of(OpenAIModels.Message.user(prompt)));
+        String content = contentOf(completion);
+        return completion.getUsage() != null
+                ? new LLMResult(content, completion.getUsage())
+                : LLMResult.estimated(prompt, content);
+    }
+
+    @Override
+    public String chat(String systemMessage, String userPrompt) {
+        log.info("Sending prompt with system message to OpenAI via HttpClient");
+        return contentOf(complete(List.of(
+                OpenAIModels.Message.system(systemMessage),
+                OpenAIModels.Message.user(userPrompt))));
+    }
+
+    /**
+     * Send a chat completion request and parse the full response, including token usage.
+     *
+     * @param messages the conversation to send
+     * @return the parsed chat completion response
+     */
+    public OpenAIModels.ChatCompletionResponse complete(List<OpenAIModels.Message> messages) {
+        OpenAIModels.ChatCompletionRequest body = OpenAIModels.ChatCompletionRequest.builder()
+                .model(model)
+                .messages(messages)
+                .temperature(temperature)
+                .build();
+
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(completionsUri)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .header("Accept-Encoding", "gzip")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (apiKey != null && !apiKey.isEmpty()) {
+                request.header("Authorization", "Bearer " + apiKey);
+            }
+
+            HttpResponse<InputStream> response = httpClient.send(request.build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+
+            try (InputStream in = decode(response)) {
+                if (response.statusCode() / 100 != 2) {
+                    String error = new String(in.readNBytes(MAX_ERROR_BODY_LENGTH), StandardCharsets.UTF_8);
+                    throw new AIServiceException("OpenAI returned HTTP " + response.statusCode() + ": " + error);
+                }
+                OpenAIModels.ChatCompletionResponse completion = parse(in);
+                OpenAIModels.Usage usage = completion.getUsage();
+                if (usage != null) {
+                    log.info("Received response from OpenAI, tokens: prompt={}, completion={}, total={}",
+                            usage.getPromptTokens(), usage.getCompletionTokens(), usage.getTotalTokens());
+                }
+                return completion;
+            }
+        } catch (AIServiceException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIServiceException("Interrupted while calling OpenAI", e);
+        } catch (Exception e) {
+            log.error("Error calling OpenAI API: {}", e.getMessage(), e);
+            throw new AIServiceException("Failed to get response from OpenAI: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parse a chat completion response token by token, skipping fields we do not use.
+     */
+    OpenAIModels.ChatCompletionResponse parse(InputStream in) throws IOException {
+        OpenAIModels.ChatCompletionResponse completion = new OpenAIModels.ChatCompletionResponse();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object from OpenAI");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> completion.setId(parser.getValueAsString());
+                    case "object" -> completion.setObject(parser.getValueAsString());
+                    case "created" -> completion.setCreated(parser.getValueAsLong());
+                    case "model" -> completion.setModel(parser.getValueAsString());
+                    case "choices" -> completion.setChoices(parseChoices(parser));
+                    case "usage" -> completion.setUsage(parseUsage(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return completion;
+    }
+
+    private List<OpenAIModels.Choice> parseChoices(JsonParser parser) throws IOException {
+        List<OpenAIModels.Choice> choices = new ArrayList<>(1);
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return choices;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            OpenAIModels.Choice choice = new OpenAIModels.Choice();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "index" -> choice.setIndex(parser.getValueAsInt());
+                    case "finish_reason" -> choice.setFinishReason(parser.getValueAsString());
+                    case "message" -> choice.setMessage(parseMessage(parser));
+                    default -> parser.skipChildren();
+                }
+            }
+            choices.add(choice);
+        }
+        return choices;
+    }
+
+    private OpenAIModels.Message parseMessage(JsonParser parser) throws IOException {
+        OpenAIModels.Message message = new OpenAIModels.Message();
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return message;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "role" -> message.setRole(parser.getValueAsString());
+                case "content" -> message.setContent(parser.getValueAsString());
+                default -> parser.skipChildren();
+            }
+        }
+        return message;
+    }
+
+    private OpenAIModels.Usage parseUsage(JsonParser parser) throws IOException {
+        OpenAIModels.Usage usage = new OpenAIModels.Usage();
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "prompt_tokens" -> usage.setPromptTokens(parser.getValueAsInt());
+                case "completion_tokens" -> usage.setCompletionTokens(parser.getValueAsInt());
+                case "total_tokens" -> usage.setTotalTokens(parser.getValueAsInt());
+                default -> parser.skipChildren();
+            }
+        }
+        return usage;
+    }
+
+    private InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        return "gzip".equalsIgnoreCase(encoding) ? new GZIPInputStream(response.body()) : response.body();
+    }
+
+    private String contentOf(OpenAIModels.ChatCompletionResponse completion) {
+        if (completion.getChoices() == null || completion.getChoices().isEmpty()
+                || completion.getChoices().get(0).getMessage() == null
+                || completion.getChoices().get(0).getMessage().getContent() == null) {
+            return "No response generated.";
+        }
+        String content = completion.getChoices().get(0).getMessage().getContent();
+        log.info("Received response from OpenAI, length: {} characters", content.length());
+        return content;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -51,6 +51,12 @@ public class FeedbackResponseMapper {
                 .courseId(record.getCourseId())
                 .assessmentId(record.getAssessmentId())
                 .feedbackText(record.getFeedbackText())
+                .summary(record.getSummary())
+                .strengths(record.getStrengths() != null ? List.copyOf(record.getStrengths()) : List.of())
+                .weaknesses(record.getWeaknesses() != null ? List.copyOf(record.getWeaknesses()) : List.of())
+                .recommendedTopics(record.getRecommendedNextTopics() != null
+                        ? List.copyOf(record.getRecommendedNextTopics())
+                        : List.of())
                 .createdAt(record.getCreatedAt() != null 
                         ? record.getCreatedAt().format(DATE_FORMATTER) 
                         : null)
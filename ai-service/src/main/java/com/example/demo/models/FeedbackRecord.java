@@ -1,6 +1,7 @@
 package com.example.demo.models;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.CollectionTable;
@@ -10,6 +11,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
@@ -20,9 +22,14 @@ import lombok.NoArgsConstructor;
 
 /**
  * Entity representing a feedback record for a student's assessment.
+ * Strengths, weaknesses and recommended topics are stored in their own indexed
+ * tables so they can be aggregated in SQL without re-parsing the feedback text.
  */
 @Entity
-@Table(name = "feedback_records")
+@Table(name = "feedback_records", indexes = {
+        @Index(name = "idx_feedback_records_student", columnList = "student_id"),
+        @Index(name = "idx_feedback_records_course", columnList = "course_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,20 +52,32 @@ public class FeedbackRecord {
     @Column(name = "feedback_text", columnDefinition = "TEXT")
     private String feedbackText;
 
-//    @ElementCollection
-//    @CollectionTable(name = "feedback_strengths", joinColumns = @JoinColumn(name = "feedback_id"))
-//    @Column(name = "strength")
-//    private List<String> strengths;
-//
-//    @ElementCollection
-//    @CollectionTable(name = "feedback_weaknesses", joinColumns = @JoinColumn(name = "feedback_id"))
-//    @Column(name = "weakness")
-//    private List<String> weaknesses;
-//
-//    @ElementCollection
-//    @CollectionTable(name = "feedback_recommended_topics", joinColumns = @JoinColumn(name = "feedback_id"))
-//    @Column(name = "topic")
-//    private List<String> recommendedNextTopics;
+    @Column(name = "summary", columnDefinition = "TEXT")
+    private String summary;
+
+    @ElementCollection
+    @CollectionTable(name = "feedback_strengths",
+            joinColumns = @JoinColumn(name = "feedback_id"),
+            indexes = @Index(name = "idx_feedback_strengths_strength", columnList = "strength"))
+    @Column(name = "strength")
+    @Builder.Default
+    private List<String> strengths = new ArrayList<>();
+
+    @ElementCollection
+    @CollectionTable(name = "feedback_weaknesses",
+            joinColumns = @JoinColumn(name = "feedback_id"),
+            indexes = @Index(name = "idx_feedback_weaknesses_weakness", columnList = "weakness"))
+    @Column(name = "weakness")
+    @Builder.Default
+    private List<String> weaknesses = new ArrayList<>();
+
+    @ElementCollection
+    @CollectionTable(name = "feedback_recommended_topics",
+            joinColumns = @JoinColumn(name = "feedback_id"),
+            indexes = @Index(name = "idx_feedback_recommended_topics_topic", columnList = "topic"))
+    @Column(name = "topic")
+    @Builder.Default
+    private List<String> recommendedNextTopics = new ArrayList<>();
 
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
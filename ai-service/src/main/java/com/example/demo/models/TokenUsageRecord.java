@@ -0,0 +1,66 @@
+package com.example.demo.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity storing LLM token usage aggregated in memory and flushed periodically.
+ * Each row is the delta accumulated for one student/course/task on one day since the previous flush.
+ */
+@Entity
+@Table(name = "llm_token_usage", indexes = {
+        @Index(name = "idx_llm_token_usage_student_date", columnList = "student_id, usage_date"),
+        @Index(name = "idx_llm_token_usage_course_date", columnList = "course_id, usage_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenUsageRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id")
+    private String studentId;
+
+    @Column(name = "course_id")
+    private String courseId;
+
+    @Column(name = "task_type", nullable = false)
+    private String taskType;
+
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    @Column(name = "prompt_tokens", nullable = false)
+    private long promptTokens;
+
+    @Column(name = "completion_tokens", nullable = false)
+    private long completionTokens;
+
+    @Column(name = "request_count", nullable = false)
+    private long requestCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
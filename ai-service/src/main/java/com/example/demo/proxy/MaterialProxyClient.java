@@ -1,14 +1,20 @@
 package com.example.demo.proxy;
 
 import com.example.demo.dto.material.ChapterDTO;
+import com.example.demo.dto.material.CursorPageDTO;
 import com.example.demo.dto.material.MaterialApiResponse;
 import com.example.demo.dto.material.MaterialDTO;
+import com.example.demo.dto.material.TranscriptSegmentDTO;
 import com.example.demo.dto.ChapterContentResponseDTO;
 import com.example.demo.dto.MaterialContentResponseDTO;
 import com.example.demo.dto.ResponseObject;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
@@ -26,48 +32,84 @@ import java.util.List;
 public interface MaterialProxyClient {
 
     /**
-     * Fetch list of chapters for a specific course.
+     * Fetch one page of chapters for a specific course, ordered by orderIndex.
      *
      * @param courseId the course identifier
-     * @return API response containing list of chapters
+     * @param cursor   nextCursor of the previous page, or null for the first page
+     * @param size     page size (the course service caps it at 100)
+     * @return API response containing one page of chapters
      */
     @GetMapping("/course/{courseId}/chapters")
-    MaterialApiResponse<List<ChapterDTO>> getChaptersByCourse(
-            @PathVariable("courseId") String courseId
+    MaterialApiResponse<CursorPageDTO<ChapterDTO>> getChaptersByCourse(
+            @PathVariable("courseId") String courseId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam("size") int size
     );
 
     /**
-     * Fetch list of materials for a specific chapter.
+     * Fetch one page of materials for a specific chapter.
+     * The course service lists summaries (without lesson bodies) by default;
+     * callers that build prompts from the content pass view "full".
      *
      * @param chapterId the chapter identifier
-     * @return API response containing list of materials
+     * @param view      "summary" or "full"
+     * @param cursor    nextCursor of the previous page, or null for the first page
+     * @param size      page size (the course service caps it at 100)
+     * @return API response containing one page of materials
      */
     @GetMapping("/chapters/{chapterId}/materials")
-    MaterialApiResponse<List<MaterialDTO>> getMaterialsByChapter(
-            @PathVariable("chapterId") String chapterId
+    MaterialApiResponse<CursorPageDTO<MaterialDTO>> getMaterialsByChapter(
+            @PathVariable("chapterId") String chapterId,
+            @RequestParam("view") String view,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam("size") int size
     );
 
      /* Fetch content/materials for a specific chapter.
      *
      * @param courseId  the course identifier
      * @param chapterId the chapter identifier
+     * @param view      "summary" or "full"
      * @return ResponseObject containing ChapterContentResponseDTO with list of materials
      */
     @GetMapping("/course/{courseId}/chapters/{chapterId}/materials")
     ResponseObject<ChapterContentResponseDTO> getChapterContent(
             @PathVariable("courseId") String courseId,
-            @PathVariable("chapterId") String chapterId
+            @PathVariable("chapterId") String chapterId,
+            @RequestParam("view") String view
     );
 
     /**
-     * Fetch material content by material ID.
+     * Fetch material content by material ID, optionally restricted to a page range.
+     * Sends If-None-Match when a previously fetched copy exists; an unchanged material
+     * is answered with 304 Not Modified, which Feign surfaces as a FeignException with status 304.
      *
-     * @param materialId the material identifier
-     * @return ResponseObject containing MaterialContentResponseDTO
+     * @param materialId  the material identifier
+     * @param pages       page range "from-to" to fetch, or null for the whole material
+     * @param ifNoneMatch ETag of the locally cached copy, or null to always fetch
+     * @return response entity (with ETag header) containing MaterialContentResponseDTO
      */
     @GetMapping("/materials/{materialId}/content")
-    ResponseObject<MaterialContentResponseDTO> getMaterialContent(
-            @PathVariable("materialId") Long materialId
+    ResponseEntity<ResponseObject<MaterialContentResponseDTO>> getMaterialContent(
+            @PathVariable("materialId") Long materialId,
+            @RequestParam(value = "pages", required = false) String pages,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    );
+
+    /**
+     * Fetch the transcript segments of a video material around a timestamp,
+     * instead of the whole transcript.
+     *
+     * @param materialId    the material identifier
+     * @param atSeconds     timestamp in seconds from the start of the video
+     * @param windowSeconds seconds of transcript to include before and after the timestamp
+     * @return ResponseObject containing the segments in time order
+     */
+    @GetMapping("/materials/{materialId}/transcript")
+    ResponseObject<List<TranscriptSegmentDTO>> getTranscriptSegments(
+            @PathVariable("materialId") Long materialId,
+            @RequestParam("at") double atSeconds,
+            @RequestParam("window") double windowSeconds
     );
 }
 
@@ -3,9 +3,13 @@ package com.example.demo.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.demo.dto.response.WeaknessSummaryDTO;
 import com.example.demo.models.FeedbackRecord;
 
 /**
@@ -40,4 +44,20 @@ public interface FeedbackHistoryRepository extends JpaRepository<FeedbackRecord,
      * @return list of feedback records
      */
     List<FeedbackRecord> findByCourseId(String courseId);
+
+    /**
+     * Aggregate the most common weaknesses of a course in a single query.
+     *
+     * @param courseId the course's unique identifier
+     * @param pageable limits the number of weaknesses returned
+     * @return weaknesses ordered by number of occurrences, most common first
+     */
+    @Query("""
+            SELECT new com.example.demo.dto.response.WeaknessSummaryDTO(w, COUNT(f.id), COUNT(DISTINCT f.studentId))
+            FROM FeedbackRecord f JOIN f.weaknesses w
+            WHERE f.courseId = :courseId
+            GROUP BY w
+            ORDER BY COUNT(f.id) DESC, w ASC
+            """)
+    List<WeaknessSummaryDTO> findCommonWeaknessesByCourseId(@Param("courseId") String courseId, Pageable pageable);
 }
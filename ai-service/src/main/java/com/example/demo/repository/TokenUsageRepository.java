@@ -0,0 +1,31 @@
+package com.example.demo.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.models.TokenUsageRecord;
+
+/**
+ * Repository interface for TokenUsageRecord entity.
+ */
+@Repository
+public interface TokenUsageRepository extends JpaRepository<TokenUsageRecord, Long> {
+
+    /**
+     * Total tokens (prompt + completion) used by a student on a given day.
+     */
+    @Query("SELECT COALESCE(SUM(u.promptTokens + u.completionTokens), 0) FROM TokenUsageRecord u "
+            + "WHERE u.studentId = :studentId AND u.usageDate = :usageDate")
+    long sumTokensByStudentIdAndDate(@Param("studentId") String studentId, @Param("usageDate") LocalDate usageDate);
+
+    /**
+     * Total tokens (prompt + completion) used within a course on a given day.
+     */
+    @Query("SELECT COALESCE(SUM(u.promptTokens + u.completionTokens), 0) FROM TokenUsageRecord u "
+            + "WHERE u.courseId = :courseId AND u.usageDate = :usageDate")
+    long sumTokensByCourseIdAndDate(@Param("courseId") String courseId, @Param("usageDate") LocalDate usageDate);
+}
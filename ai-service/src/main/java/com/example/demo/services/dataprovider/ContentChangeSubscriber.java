@@ -0,0 +1,179 @@
+package com.example.demo.services.dataprovider;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.material.ContentChangeEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Subscribes to the Server-Sent Events stream of content changes of the course service
+ * and evicts the affected entries of CourseMaterialsCache.
+ * Follows Single Responsibility Principle - only keeps the subscription alive and dispatches events.
+ *
+ * Runs on one daemon thread that reconnects with exponential backoff, sending the id of the last
+ * received event (Last-Event-ID) so the course service replays what was missed. The cache is only
+ * enabled while connected; it is cleared when the service answers that it could not replay ("reset").
+ */
+@Component
+@Slf4j
+public class ContentChangeSubscriber {
+
+    private static final String CHANGE_EVENT = "content-change";
+    private static final String CONNECTED_EVENT = "connected";
+    private static final String RESUMED = "resumed";
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final CourseMaterialsCache cache;
+    private final ObjectMapper objectMapper;
+    private final URI streamUri;
+    private final boolean enabled;
+    private final HttpClient httpClient;
+
+    private volatile boolean running;
+    // Id (stream position) of the last event received, null before the first connect
+    private volatile String lastEventId;
+    private Thread thread;
+
+    public ContentChangeSubscriber(CourseMaterialsCache cache,
+                                   ObjectMapper objectMapper,
+                                   @Value("${proxy.material-service.url}") String materialServiceUrl,
+                                   @Value("${proxy.material-service.events.enabled:true}") boolean enabled) {
+        this.cache = cache;
+        this.objectMapper = objectMapper;
+        this.streamUri = URI.create(materialServiceUrl.replaceAll("/+$", "") + "/events/content");
+        this.enabled = enabled;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "content-change-subscriber");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        cache.deactivate();
+    }
+
+    private void run() {
+        long backoff = 1_000;
+        while (running) {
+            try {
+                if (consume()) {
+                    backoff = 1_000;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Content event stream {} failed: {}", streamUri, e.getMessage());
+            }
+            cache.suspend();
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+        }
+        cache.deactivate();
+    }
+
+    /**
+     * Read the stream until it ends. Returns whether a connection was established.
+     */
+    private boolean consume() throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(streamUri)
+                .header("Accept", "text/event-stream")
+                .GET();
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        HttpRequest request = builder.build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        try (Stream<String> lines = response.body()) {
+            if (response.statusCode() != 200) {
+                log.warn("Content event stream {} answered {}", streamUri, response.statusCode());
+                return false;
+            }
+            log.info("Subscribed to content events at {} (last event id {})", streamUri, lastEventId);
+
+            String event = null;
+            String id = null;
+            StringBuilder data = new StringBuilder();
+            Iterator<String> iterator = lines.iterator();
+            while (running && iterator.hasNext()) {
+                String line = iterator.next();
+                if (line.isEmpty()) {
+                    // Blank line terminates one event
+                    if (CHANGE_EVENT.equals(event) && data.length() > 0) {
+                        dispatch(data.toString());
+                    } else if (CONNECTED_EVENT.equals(event)) {
+                        // Sent after the replayed events, which have already been applied
+                        if (RESUMED.equals(data.toString())) {
+                            cache.resume();
+                        } else {
+                            cache.activate();
+                        }
+                    }
+                    if (id != null) {
+                        lastEventId = id;
+                    }
+                    event = null;
+                    id = null;
+                    data.setLength(0);
+                } else if (line.startsWith("event:")) {
+                    event = line.substring(6).trim();
+                } else if (line.startsWith("id:")) {
+                    id = line.substring(3).trim();
+                } else if (line.startsWith("data:")) {
+                    if (data.length() > 0) {
+                        data.append('\n');
+                    }
+                    data.append(line.substring(5).stripLeading());
+                }
+            }
+            log.info("Content event stream {} closed", streamUri);
+            return true;
+        }
+    }
+
+    private void dispatch(String json) {
+        try {
+            ContentChangeEventDTO change = objectMapper.readValue(json, ContentChangeEventDTO.class);
+            log.debug("Content change {} {} {}", change.getChangeType(), change.getAggregateType(), change.getAggregateId());
+            cache.apply(change);
+        } catch (Exception e) {
+            // An event we cannot read might have invalidated anything
+            log.warn("Unreadable content change event, clearing course materials cache: {}", e.getMessage());
+            cache.activate();
+        }
+    }
+}
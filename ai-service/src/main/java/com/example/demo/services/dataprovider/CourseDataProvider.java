@@ -55,10 +55,21 @@ public interface CourseDataProvider {
             List<com.example.demo.dto.material.ChapterDTO> chapters);
 
     /**
-     * Fetch material content by material ID.
+     * Fetch material content by material ID, optionally only the given pages
+     * so large documents are not transferred in full.
      *
      * @param materialId the material identifier
+     * @param pages      page range "from-to", or null for the whole material
      * @return material content or null if not found
      */
-    MaterialContentResponseDTO getMaterialContent(Long materialId);
+    MaterialContentResponseDTO getMaterialContent(Long materialId, String pages);
+
+    /**
+     * Fetch the transcript segments of a video material around a timestamp.
+     *
+     * @param materialId the material identifier
+     * @param atSeconds  timestamp in seconds from the start of the video
+     * @return segments in time order, or an empty list if the material has no timed transcript
+     */
+    List<com.example.demo.dto.material.TranscriptSegmentDTO> getTranscriptSegments(Long materialId, double atSeconds);
 }
@@ -0,0 +1,125 @@
+package com.example.demo.services.dataprovider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.material.ChapterDTO;
+import com.example.demo.dto.material.ContentChangeEventDTO;
+import com.example.demo.dto.material.MaterialDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local copy of the chapter listing of each course and the material listing of each chapter.
+ * Follows Single Responsibility Principle - only keeps listings and drops them on change events.
+ *
+ * There is no TTL: entries are evicted precisely by the content events of the course service,
+ * so the cache is only active while ContentChangeSubscriber is connected to the event stream.
+ * While disconnected every call goes straight to the course service; entries are kept and reused
+ * only if the reconnect replays the events missed meanwhile.
+ */
+@Component
+@Slf4j
+public class CourseMaterialsCache {
+
+    private final Map<String, List<ChapterDTO>> chaptersByCourse = new ConcurrentHashMap<>();
+    private final Map<String, List<MaterialDTO>> materialsByChapter = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction; a load that started before an eviction is not stored
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean active;
+
+    public List<ChapterDTO> chapters(String courseId, Supplier<List<ChapterDTO>> loader) {
+        return load(chaptersByCourse, courseId, loader);
+    }
+
+    public List<MaterialDTO> materials(String chapterId, Supplier<List<MaterialDTO>> loader) {
+        return load(materialsByChapter, chapterId, loader);
+    }
+
+    private <T> List<T> load(Map<String, List<T>> entries, String key, Supplier<List<T>> loader) {
+        if (!active || key == null) {
+            return loader.get();
+        }
+        List<T> cached = entries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        List<T> loaded = List.copyOf(loader.get());
+        if (active && generation.get() == loadedAt) {
+            entries.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Evict the listings affected by a change event.
+     */
+    public void apply(ContentChangeEventDTO event) {
+        generation.incrementAndGet();
+        String type = event.getAggregateType();
+        if ("CHAPTER".equals(type)) {
+            evict(chaptersByCourse, event.getCourseId());
+            evict(materialsByChapter, event.getChapterId());
+        } else if ("MATERIAL".equals(type)) {
+            evict(materialsByChapter, event.getChapterId());
+        }
+        // CONTENT: the uploaded file changed, listings are unaffected and file content is revalidated by ETag
+    }
+
+    // An event without the key cannot be matched to one entry (and ConcurrentHashMap rejects null keys): drop them all
+    private static void evict(Map<String, ?> entries, String key) {
+        if (key != null) {
+            entries.remove(key);
+        } else {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Called when the event stream is (re)connected without a complete replay of missed events:
+     * everything cached before is considered stale.
+     */
+    public void activate() {
+        clear();
+        active = true;
+        log.info("Course materials cache active");
+    }
+
+    /**
+     * Called when the event stream is reconnected and the missed events were replayed (and applied)
+     * before this call: the kept entries are current again.
+     */
+    public void resume() {
+        active = true;
+        log.info("Course materials cache resumed after replay");
+    }
+
+    /**
+     * Called when the event stream drops: entries are kept for a resume but not served meanwhile.
+     */
+    public void suspend() {
+        generation.incrementAndGet();
+        active = false;
+    }
+
+    public void deactivate() {
+        if (active) {
+            log.info("Course materials cache disabled until the content event stream reconnects");
+        }
+        active = false;
+        clear();
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        chaptersByCourse.clear();
+        materialsByChapter.clear();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.services.dataprovider;
 
+import com.example.demo.dto.response.WeaknessSummaryDTO;
 import com.example.demo.models.FeedbackRecord;
+import com.example.demo.services.feedback.StructuredFeedback;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,10 +20,10 @@ public interface FeedbackDataProvider {
      * @param studentId    the student identifier
      * @param courseId     the course identifier
      * @param assessmentId the assessment identifier
-     * @param feedbackText the generated feedback text
+     * @param feedback     the generated feedback with its structured fields
      * @return the saved feedback record or null if save failed
      */
-    FeedbackRecord saveFeedback(String studentId, String courseId, String assessmentId, String feedbackText);
+    FeedbackRecord saveFeedback(String studentId, String courseId, String assessmentId, StructuredFeedback feedback);
 
     /**
      * Get feedback history for a student.
@@ -39,4 +41,13 @@ public interface FeedbackDataProvider {
      * @return the feedback record if found
      */
     Optional<FeedbackRecord> getFeedbackByAssessment(String studentId, String assessmentId);
+
+    /**
+     * Get the most common weaknesses recorded for a course.
+     *
+     * @param courseId the course identifier
+     * @param limit    maximum number of weaknesses to return
+     * @return weaknesses ordered by number of occurrences
+     */
+    List<WeaknessSummaryDTO> getCommonWeaknesses(String courseId, int limit);
 }
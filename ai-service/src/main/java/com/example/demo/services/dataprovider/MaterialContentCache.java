@@ -0,0 +1,70 @@
+package com.example.demo.services.dataprovider;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.MaterialContentResponseDTO;
+
+/**
+ * Local copy of material content fetched from course-service, keyed by material ID and page range.
+ * Follows Single Responsibility Principle - only keeps content and its ETag for revalidation.
+ *
+ * Entries are never trusted blindly: the ETag is sent back as If-None-Match, and the copy is only
+ * served when course-service answers 304 Not Modified. The cache is LRU bounded by the total
+ * content size (UTF-16 estimate) so a few very large materials cannot grow the heap without limit.
+ */
+@Component
+public class MaterialContentCache {
+
+    private final long maxBytes;
+
+    // access-order = true => LRU; every access goes through synchronized
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    public MaterialContentCache(@Value("${proxy.material-service.content-cache-max-bytes:33554432}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Find the local copy for the material and page range.
+     *
+     * @return the cached entry, or null when nothing is cached
+     */
+    public synchronized Entry get(Long materialId, String pages) {
+        return entries.get(key(materialId, pages));
+    }
+
+    /**
+     * Remember content returned with the given ETag, replacing any previous copy.
+     */
+    public void put(Long materialId, String pages, String etag, MaterialContentResponseDTO content) {
+        long size = 2L * (content.getContent() != null ? content.getContent().length() : 0) + 256;
+        if (etag == null || size > maxBytes) {
+            return;
+        }
+        synchronized (this) {
+            Entry previous = entries.put(key(materialId, pages), new Entry(etag, content, size));
+            if (previous != null) {
+                bytes -= previous.size();
+            }
+            bytes += size;
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    private static String key(Long materialId, String pages) {
+        return materialId + ":" + (pages != null ? pages : "");
+    }
+
+    public record Entry(String etag, MaterialContentResponseDTO content, long size) {
+    }
+}
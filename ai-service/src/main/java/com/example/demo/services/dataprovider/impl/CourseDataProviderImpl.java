@@ -1,17 +1,26 @@
 package com.example.demo.services.dataprovider.impl;
 
 import com.example.demo.dto.*;
+import com.example.demo.dto.material.CursorPageDTO;
 import com.example.demo.dto.material.MaterialApiResponse;
 import com.example.demo.proxy.MaterialProxyClient;
 import com.example.demo.proxy.TestProxyClient;
 import com.example.demo.services.dataprovider.CourseDataProvider;
+import com.example.demo.services.dataprovider.CourseMaterialsCache;
+import com.example.demo.services.dataprovider.MaterialContentCache;
 
+import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
 
 /**
  * Implementation of CourseDataProvider.
@@ -24,9 +33,19 @@ import java.util.List;
 public class CourseDataProviderImpl implements CourseDataProvider {
 
     private static final String DEFAULT_COURSE_NAME = "Not specified";
+    // Prompts are built from lesson bodies, which the course service omits from default (summary) listings
+    private static final String FULL_VIEW = "full";
 
     private final TestProxyClient testProxyClient;
     private final MaterialProxyClient materialProxyClient;
+    private final MaterialContentCache materialContentCache;
+    private final CourseMaterialsCache courseMaterialsCache;
+
+    @Value("${proxy.material-service.page-size:50}")
+    private int pageSize;
+
+    @Value("${proxy.material-service.transcript-window-seconds:45}")
+    private double transcriptWindowSeconds;
 
     @Override
     public String getCourseName(String courseId) {
@@ -60,12 +79,11 @@ public class CourseDataProviderImpl implements CourseDataProvider {
     @Override
     public List<com.example.demo.dto.material.ChapterDTO> getMaterialChapters(String courseId) {
         try {
-            MaterialApiResponse<List<com.example.demo.dto.material.ChapterDTO>> response = 
-                    materialProxyClient.getChaptersByCourse(courseId);
-            if (response != null && response.getData() != null) {
-                log.info("Fetched {} material chapters for course: {}", response.getData().size(), courseId);
-                return response.getData();
-            }
+            // Failed fetches throw before reaching the cache, so only complete listings are kept
+            List<com.example.demo.dto.material.ChapterDTO> chapters = courseMaterialsCache.chapters(courseId,
+                    () -> fetchAllPages((cursor, size) -> materialProxyClient.getChaptersByCourse(courseId, cursor, size)));
+            log.info("Fetched {} material chapters for course: {}", chapters.size(), courseId);
+            return chapters;
         } catch (Exception e) {
             log.warn("Failed to fetch material chapters for course: {}. Error: {}", courseId, e.getMessage());
         }
@@ -84,7 +102,7 @@ public class CourseDataProviderImpl implements CourseDataProvider {
                 try {
                     String chapterId = String.valueOf(chapter.getOrderIndex());
                     ResponseObject<ChapterContentResponseDTO> contentResponse =
-                            materialProxyClient.getChapterContent(courseId, chapterId);
+                            materialProxyClient.getChapterContent(courseId, chapterId, FULL_VIEW);
 
                     if (contentResponse != null && contentResponse.getData() != null
                             && contentResponse.getData().getData() != null) {
@@ -116,12 +134,10 @@ public class CourseDataProviderImpl implements CourseDataProvider {
                     continue;
                 }
 
-                MaterialApiResponse<List<com.example.demo.dto.material.MaterialDTO>> response = 
-                        materialProxyClient.getMaterialsByChapter(chapterId);
-                if (response != null && response.getData() != null) {
-                    allMaterials.addAll(response.getData());
-                    log.debug("Fetched {} materials for chapter: {}", response.getData().size(), chapter.getTitle());
-                }
+                List<com.example.demo.dto.material.MaterialDTO> chapterMaterials = courseMaterialsCache.materials(chapterId,
+                        () -> fetchAllPages((cursor, size) -> materialProxyClient.getMaterialsByChapter(chapterId, FULL_VIEW, cursor, size)));
+                allMaterials.addAll(chapterMaterials);
+                log.debug("Fetched {} materials for chapter: {}", chapterMaterials.size(), chapter.getTitle());
             } catch (Exception e) {
                 log.warn("Error fetching materials for chapter: {}. Error: {}", chapter.getTitle(), e.getMessage());
             }
@@ -132,20 +148,71 @@ public class CourseDataProviderImpl implements CourseDataProvider {
     }
 
     @Override
-    public MaterialContentResponseDTO getMaterialContent(Long materialId) {
+    public MaterialContentResponseDTO getMaterialContent(Long materialId, String pages) {
+        MaterialContentCache.Entry cached = materialContentCache.get(materialId, pages);
         try {
-            var response = materialProxyClient.getMaterialContent(materialId);
-
-            if (response != null && response.getData() != null) {
-                MaterialContentResponseDTO content = response.getData();
-                log.info("Fetched material content: file={}, pages={}", content.getFileName(), content.getPages());
+            ResponseEntity<ResponseObject<MaterialContentResponseDTO>> response =
+                    materialProxyClient.getMaterialContent(materialId, pages, cached != null ? cached.etag() : null);
+
+            if (response != null && response.getBody() != null && response.getBody().getData() != null) {
+                MaterialContentResponseDTO content = response.getBody().getData();
+                log.info("Fetched material content: file={}, pages={}, pageRange={}",
+                        content.getFileName(), content.getPages(), content.getPageRange());
+                materialContentCache.put(materialId, pages, response.getHeaders().getETag(), content);
                 return content;
             }
 
             log.warn("No material content found for material: {}", materialId);
+        } catch (FeignException e) {
+            // Feign only decodes 2xx bodies, so 304 Not Modified arrives as an exception
+            if (e.status() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+                log.debug("Material content not modified, using local copy: material={}, pages={}", materialId, pages);
+                return cached.content();
+            }
+            log.warn("Failed to fetch material content for material: {}. Error: {}", materialId, e.getMessage());
         } catch (Exception e) {
             log.warn("Failed to fetch material content for material: {}. Error: {}", materialId, e.getMessage());
         }
         return null;
     }
+
+    @Override
+    public List<com.example.demo.dto.material.TranscriptSegmentDTO> getTranscriptSegments(Long materialId, double atSeconds) {
+        try {
+            ResponseObject<List<com.example.demo.dto.material.TranscriptSegmentDTO>> response =
+                    materialProxyClient.getTranscriptSegments(materialId, atSeconds, transcriptWindowSeconds);
+            if (response != null && response.getData() != null) {
+                log.info("Fetched {} transcript segments around {}s for material: {}",
+                        response.getData().size(), atSeconds, materialId);
+                return response.getData();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to fetch transcript segments for material: {}. Error: {}", materialId, e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Walk a keyset-paginated listing of the course service until the last page.
+     * Each request carries the nextCursor of the previous page, so large courses are fetched
+     * in bounded responses instead of one unbounded list.
+     */
+    private <T> List<T> fetchAllPages(BiFunction<String, Integer, MaterialApiResponse<CursorPageDTO<T>>> fetchPage) {
+        List<T> items = new ArrayList<>();
+        String cursor = null;
+        do {
+            MaterialApiResponse<CursorPageDTO<T>> response = fetchPage.apply(cursor, pageSize);
+            if (response == null || response.getData() == null) {
+                break;
+            }
+            CursorPageDTO<T> page = response.getData();
+            if (page.getItems() != null) {
+                items.addAll(page.getItems());
+            }
+            String next = page.getNextCursor();
+            // Guard against a server that keeps returning the same cursor
+            cursor = Objects.equals(next, cursor) ? null : next;
+        } while (cursor != null);
+        return items;
+    }
 }
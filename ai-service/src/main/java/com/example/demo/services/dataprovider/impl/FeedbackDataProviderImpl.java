@@ -1,8 +1,10 @@
 package com.example.demo.services.dataprovider.impl;
 
+import com.example.demo.dto.response.WeaknessSummaryDTO;
 import com.example.demo.models.FeedbackRecord;
 import com.example.demo.services.dataprovider.FeedbackDataProvider;
 import com.example.demo.services.feedback.ITestFeedbackHistoryService;
+import com.example.demo.services.feedback.StructuredFeedback;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,11 +27,11 @@ public class FeedbackDataProviderImpl implements FeedbackDataProvider {
     private final ITestFeedbackHistoryService feedbackHistoryService;
 
     @Override
-    public FeedbackRecord saveFeedback(String studentId, String courseId, String assessmentId, String feedbackText) {
+    public FeedbackRecord saveFeedback(String studentId, String courseId, String assessmentId, StructuredFeedback feedback) {
         try {
-            if (studentId == null || assessmentId == null || feedbackText == null) {
+            if (studentId == null || assessmentId == null || feedback == null || feedback.getFeedbackText() == null) {
                 log.warn("Cannot save feedback: missing required fields (studentId: {}, assessmentId: {}, feedbackText: {})",
-                        studentId, assessmentId, feedbackText != null ? "present" : "null");
+                        studentId, assessmentId, feedback != null && feedback.getFeedbackText() != null ? "present" : "null");
                 return null;
             }
 
@@ -37,7 +39,11 @@ public class FeedbackDataProviderImpl implements FeedbackDataProvider {
                     .studentId(studentId)
                     .courseId(courseId)
                     .assessmentId(assessmentId)
-                    .feedbackText(feedbackText)
+                    .feedbackText(feedback.getFeedbackText())
+                    .summary(feedback.getSummary())
+                    .strengths(new ArrayList<>(feedback.getStrengths()))
+                    .weaknesses(new ArrayList<>(feedback.getWeaknesses()))
+                    .recommendedNextTopics(new ArrayList<>(feedback.getRecommendedTopics()))
                     .build();
 
             FeedbackRecord savedRecord = feedbackHistoryService.save(record);
@@ -81,4 +87,19 @@ public class FeedbackDataProviderImpl implements FeedbackDataProvider {
             return Optional.empty();
         }
     }
+
+    @Override
+    public List<WeaknessSummaryDTO> getCommonWeaknesses(String courseId, int limit) {
+        try {
+            if (courseId == null || limit <= 0) {
+                return new ArrayList<>();
+            }
+            List<WeaknessSummaryDTO> weaknesses = feedbackHistoryService.getCommonWeaknesses(courseId, limit);
+            log.info("Fetched {} common weaknesses for course: {}", weaknesses.size(), courseId);
+            return weaknesses;
+        } catch (Exception e) {
+            log.warn("Failed to aggregate weaknesses for course: {}. Error: {}", courseId, e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package com.example.demo.services.feedback;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parses the JSON-structured feedback returned by the LLM.
+ * Uses the Jackson streaming parser so only the fields we persist are materialised,
+ * and falls back to plain text when the model did not return valid JSON.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FeedbackResponseParser {
+
+    /**
+     * Matches the default length of the collection table columns.
+     */
+    static final int MAX_LABEL_LENGTH = 255;
+
+    static final int MAX_LABELS = 10;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Parse the raw LLM output into a structured feedback.
+     *
+     * @param raw the raw LLM response, possibly wrapped in a markdown code fence
+     * @return the structured feedback, never null
+     */
+    public StructuredFeedback parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return StructuredFeedback.ofText(raw);
+        }
+
+        int start = raw.indexOf('{');
+        if (start < 0) {
+            log.warn("Feedback response is not JSON, storing it as plain text");
+            return StructuredFeedback.ofText(raw);
+        }
+
+        try (StringReader reader = new StringReader(raw)) {
+            reader.skip(start);
+            try (JsonParser parser = objectMapper.getFactory().createParser(reader)) {
+                StructuredFeedback feedback = readFeedback(parser);
+                if (feedback.getFeedbackText() == null || feedback.getFeedbackText().isBlank()) {
+                    feedback.setFeedbackText(feedback.getSummary() != null ? feedback.getSummary() : raw);
+                }
+                return feedback;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to parse structured feedback, storing it as plain text. Error: {}", e.getMessage());
+            return StructuredFeedback.ofText(raw);
+        }
+    }
+
+    private StructuredFeedback readFeedback(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object");
+        }
+
+        StructuredFeedback feedback = StructuredFeedback.builder().build();
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "summary" -> feedback.setSummary(readText(parser));
+                case "feedback" -> feedback.setFeedbackText(readText(parser));
+                case "strengths" -> feedback.setStrengths(readLabels(parser));
+                case "weaknesses" -> feedback.setWeaknesses(readLabels(parser));
+                case "recommendedTopics" -> feedback.setRecommendedTopics(readLabels(parser));
+                default -> parser.skipChildren();
+            }
+        }
+        // output cut off between fields (e.g. max tokens reached) ends without the closing brace
+        if (token != JsonToken.END_OBJECT) {
+            throw new IOException("Truncated JSON object");
+        }
+        return feedback;
+    }
+
+    private String readText(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private List<String> readLabels(JsonParser parser) throws IOException {
+        List<String> labels = new ArrayList<>();
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            addLabel(labels, parser.getText());
+            return labels;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return labels;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_STRING) {
+                addLabel(labels, parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return labels;
+    }
+
+    private void addLabel(List<String> labels, String value) {
+        if (value == null || labels.size() >= MAX_LABELS) {
+            return;
+        }
+        String label = value.trim();
+        if (label.isEmpty()) {
+            return;
+        }
+        labels.add(label.length() > MAX_LABEL_LENGTH ? label.substring(0, MAX_LABEL_LENGTH) : label);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demo.services.feedback;
 import java.util.List;
 import java.util.Optional;
 
+import com.example.demo.dto.response.WeaknessSummaryDTO;
 import com.example.demo.models.FeedbackRecord;
 
 /**
@@ -35,4 +36,13 @@ public interface ITestFeedbackHistoryService {
      * @return the saved feedback record
      */
     FeedbackRecord save(FeedbackRecord record);
+
+    /**
+     * Get the most common weaknesses of a course.
+     *
+     * @param courseId the course's unique identifier
+     * @param limit    maximum number of weaknesses to return
+     * @return weaknesses ordered by number of occurrences
+     */
+    List<WeaknessSummaryDTO> getCommonWeaknesses(String courseId, int limit);
 }
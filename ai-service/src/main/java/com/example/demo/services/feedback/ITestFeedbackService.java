@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import com.example.demo.dto.request.AIFeedbackRequest;
 import com.example.demo.dto.AIResponse;
+import com.example.demo.dto.response.WeaknessSummaryDTO;
 import com.example.demo.models.FeedbackRecord;
 
 /**
@@ -37,4 +38,13 @@ public interface ITestFeedbackService {
      * @return optional feedback record
      */
     Optional<FeedbackRecord> getByAssessment(String studentId, String assessmentId);
+
+    /**
+     * Get the most common weaknesses across all feedback of a course.
+     *
+     * @param courseId the course's unique identifier
+     * @param limit    maximum number of weaknesses to return
+     * @return weaknesses ordered by number of occurrences
+     */
+    List<WeaknessSummaryDTO> getCommonWeaknesses(String courseId, int limit);
 }
@@ -0,0 +1,43 @@
+package com.example.demo.services.feedback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Structured result of a feedback generation.
+ * Holds the human-readable feedback text together with the short labels
+ * the LLM extracted for strengths, weaknesses and recommended topics.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StructuredFeedback {
+
+    private String summary;
+
+    private String feedbackText;
+
+    @Builder.Default
+    private List<String> strengths = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> weaknesses = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> recommendedTopics = new ArrayList<>();
+
+    /**
+     * Factory method for feedback that could not be parsed into structured fields.
+     */
+    public static StructuredFeedback ofText(String feedbackText) {
+        return StructuredFeedback.builder()
+                .feedbackText(feedbackText)
+                .build();
+    }
+}
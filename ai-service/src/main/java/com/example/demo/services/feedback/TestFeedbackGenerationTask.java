@@ -8,11 +8,16 @@ import com.example.demo.dto.AIResponse;
 import com.example.demo.dto.TestResponseDTO;
 import com.example.demo.dto.request.AIFeedbackRequest;
 import com.example.demo.llm.LLMClient;
+import com.example.demo.llm.LLMResult;
 import com.example.demo.services.dataprovider.FeedbackDataProvider;
 import com.example.demo.services.dataprovider.TestDataProvider;
 import com.example.demo.services.prompt.context.FeedbackPromptContext;
 import com.example.demo.services.prompt.impl.TestFeedbackBuildPrompt;
 import com.example.demo.services.task.AITask;
+import com.example.demo.services.task.TaskMetrics;
+import com.example.demo.services.task.TaskStage;
+import com.example.demo.services.task.TaskTrace;
+import com.example.demo.services.usage.TokenUsageService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,60 +38,78 @@ public class TestFeedbackGenerationTask implements AITask<AIFeedbackRequest> {
 
     private final LLMClient llmClient;
     private final TestFeedbackBuildPrompt buildPrompt;
+    private final FeedbackResponseParser responseParser;
 
     // DataProviders for SOLID compliance - separate data access concerns
     private final TestDataProvider testDataProvider;
     private final FeedbackDataProvider feedbackDataProvider;
 
+    private final TaskMetrics taskMetrics;
+    private final TokenUsageService tokenUsageService;
+
     @Override
     public AIResponse execute(AIFeedbackRequest request) {
         log.info("Executing feedback generation task for student: {}, assessment: {}",
                 request.getStudentId(), request.getAssessmentId());
 
-        // Delegate test context fetching to TestDataProvider (SRP compliance)
-        TestResponseDTO testContext = testDataProvider.getTestContextForStudent(
-                request.getCourseId(),
-                request.getAssessmentId(),
-                request.getStudentId()
-        );
-
-        if (testContext != null) {
-            log.info("Fetched test context: {} - {}", testContext.getTitle(), testContext.getDescription());
+        String studentId = request.getStudentId();
+        String courseId = request.getCourseId();
+
+        tokenUsageService.checkQuota(studentId, courseId);
+
+        try (TaskTrace trace = taskMetrics.start(TASK_TYPE, buildPrompt.getPromptType())) {
+            // Delegate test context fetching to TestDataProvider (SRP compliance)
+            TestResponseDTO testContext = trace.time(TaskStage.REMOTE_FETCH,
+                    () -> testDataProvider.getTestContextForStudent(
+                            request.getCourseId(),
+                            request.getAssessmentId(),
+                            request.getStudentId()
+                    ));
+
+            if (testContext != null) {
+                log.info("Fetched test context: {} - {}", testContext.getTitle(), testContext.getDescription());
+            }
+
+            // Build context with test data
+            FeedbackPromptContext context = FeedbackPromptContext.builder()
+                    .request(request)
+                    .testContext(testContext)
+                    .build();
+
+            String prompt = trace.time(TaskStage.PROMPT_BUILD, () -> buildPrompt.buildPrompt(context));
+            trace.recordPromptSize(prompt);
+            log.debug("Generated prompt type: {}", buildPrompt.getPromptType());
+
+            // Generate feedback using LLM and split the JSON answer into its structured fields
+            LLMResult llmResult = trace.time(TaskStage.LLM, () -> llmClient.chatWithUsage(prompt));
+            tokenUsageService.record(studentId, courseId, TASK_TYPE, llmResult.getUsage());
+            String result = llmResult.getContent();
+            StructuredFeedback feedback = responseParser.parse(result);
+
+            // Delegate saving to FeedbackDataProvider (SRP compliance)
+            trace.time(TaskStage.PERSIST, () -> feedbackDataProvider.saveFeedback(
+                    request.getStudentId(),
+                    request.getCourseId(),
+                    request.getAssessmentId(),
+                    feedback
+            ));
+
+            return AIResponse.builder()
+                    .result(feedback.getFeedbackText())
+                    .metadata(Map.of(
+                            "taskType", TASK_TYPE,
+                            "promptType", buildPrompt.getPromptType().getValue(),
+                            "studentId", request.getStudentId() != null ? request.getStudentId() : "unknown",
+                            "assessmentId", request.getAssessmentId() != null ? request.getAssessmentId() : "unknown",
+                            "courseId", request.getCourseId() != null ? request.getCourseId() : "unknown",
+                            "testTitle", testContext != null && testContext.getTitle() != null ? testContext.getTitle() : "unknown",
+                            "strengths", feedback.getStrengths(),
+                            "weaknesses", feedback.getWeaknesses(),
+                            "recommendedTopics", feedback.getRecommendedTopics(),
+                            "stages", trace.complete()
+                    ))
+                    .build();
         }
-
-        // Build context with test data
-        FeedbackPromptContext context = FeedbackPromptContext.builder()
-                .request(request)
-                .testContext(testContext)
-                .build();
-
-        String prompt = buildPrompt.buildPrompt(context);
-        log.debug("Generated prompt type: {}", buildPrompt.getPromptType());
-
-        // Generate feedback using LLM
-        String result = llmClient.chat(prompt);
-
-        AIResponse response = AIResponse.builder()
-                .result(result)
-                .metadata(Map.of(
-                        "taskType", TASK_TYPE,
-                        "promptType", buildPrompt.getPromptType().getValue(),
-                        "studentId", request.getStudentId() != null ? request.getStudentId() : "unknown",
-                        "assessmentId", request.getAssessmentId() != null ? request.getAssessmentId() : "unknown",
-                        "courseId", request.getCourseId() != null ? request.getCourseId() : "unknown",
-                        "testTitle", testContext != null ? testContext.getTitle() : "unknown"
-                ))
-                .build();
-
-        // Delegate saving to FeedbackDataProvider (SRP compliance)
-        feedbackDataProvider.saveFeedback(
-                request.getStudentId(),
-                request.getCourseId(),
-                request.getAssessmentId(),
-                response.getResult()
-        );
-
-        return response;
     }
 
     @Override
@@ -3,8 +3,10 @@ package com.example.demo.services.feedback;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import com.example.demo.dto.response.WeaknessSummaryDTO;
 import com.example.demo.models.FeedbackRecord;
 import com.example.demo.repository.FeedbackHistoryRepository;
 
@@ -39,4 +41,10 @@ public class TestFeedbackHistoryServiceImpl implements ITestFeedbackHistoryServi
         log.debug("Saving feedback record for student: {}", record.getStudentId());
         return feedbackHistoryRepository.save(record);
     }
+
+    @Override
+    public List<WeaknessSummaryDTO> getCommonWeaknesses(String courseId, int limit) {
+        log.debug("Aggregating common weaknesses for course: {}", courseId);
+        return feedbackHistoryRepository.findCommonWeaknessesByCourseId(courseId, PageRequest.of(0, limit));
+    }
 }
@@ -8,6 +8,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.dto.AIResponse;
 import com.example.demo.dto.request.AIFeedbackRequest;
+import com.example.demo.dto.response.WeaknessSummaryDTO;
 import com.example.demo.models.FeedbackRecord;
 import com.example.demo.services.dataprovider.FeedbackDataProvider;
 import com.example.demo.services.task.AITask;
@@ -58,4 +59,11 @@ public class TestFeedbackServiceImpl implements ITestFeedbackService {
         // Delegate to FeedbackDataProvider (SRP compliance)
         return feedbackDataProvider.getFeedbackByAssessment(studentId, assessmentId);
     }
+
+    @Override
+    public List<WeaknessSummaryDTO> getCommonWeaknesses(String courseId, int limit) {
+        log.info("Retrieving common weaknesses for course: {}", courseId);
+        // Aggregated in the database (SRP compliance)
+        return feedbackDataProvider.getCommonWeaknesses(courseId, limit);
+    }
 }
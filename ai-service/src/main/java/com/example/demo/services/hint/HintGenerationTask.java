@@ -6,12 +6,17 @@ import java.util.Map;
 import com.example.demo.dto.*;
 import com.example.demo.dto.request.AIHintRequest;
 import com.example.demo.llm.LLMClient;
+import com.example.demo.llm.LLMResult;
 import com.example.demo.services.dataprovider.CourseDataProvider;
 import com.example.demo.services.dataprovider.HintDataProvider;
 import com.example.demo.services.dataprovider.TestDataProvider;
 import com.example.demo.services.prompt.context.HintPromptContext;
 import com.example.demo.services.prompt.impl.HintGenerationBuildPrompt;
 import com.example.demo.services.task.AITask;
+import com.example.demo.services.task.TaskMetrics;
+import com.example.demo.services.task.TaskStage;
+import com.example.demo.services.task.TaskTrace;
+import com.example.demo.services.usage.TokenUsageService;
 import org.springframework.stereotype.Component;
 
 import lombok.RequiredArgsConstructor;
@@ -39,60 +44,79 @@ public class HintGenerationTask implements AITask<AIHintRequest> {
     private final TestDataProvider testDataProvider;
     private final CourseDataProvider courseDataProvider;
 
+    private final TaskMetrics taskMetrics;
+    private final TokenUsageService tokenUsageService;
+
     @Override
     public AIResponse execute(AIHintRequest request) {
         log.info("Executing hint generation task for student: {}, course: {}, assessment: {}, question: {}",
                 request.getStudentId(), request.getCourseId(), request.getAssessmentId(), request.getQuestionId());
 
-        // Delegate data fetching to DataProviders (SRP compliance)
-        List<String> previousHints = hintDataProvider.getPreviousHintTexts(request.getStudentId(), request.getQuestionId());
-
-        // Fetch test context from TestDataProvider
-        TestResponseDTO testContext = testDataProvider.getTestContext(request.getCourseId(), request.getAssessmentId());
-
-        // Find the specific question (returns Optional, use orElse for null fallback)
-        QuestionDTO targetQuestion = testDataProvider.findQuestion(testContext, request.getQuestionId()).orElse(null);
-
-        // Fetch subject (course name) from CourseDataProvider
-        String subject = courseDataProvider.getCourseName(request.getCourseId());
-
-        // Fetch course materials from CourseDataProvider
-        List<MaterialDTO> materials = courseDataProvider.getCourseMaterials(request.getCourseId());
-
-        // Build context with all fields
-        HintPromptContext context = HintPromptContext.builder()
-                .request(request)
-                .testContext(testContext)
-                .targetQuestion(targetQuestion)
-                .subject(subject)
-                .previousHints(previousHints)
-                .materials(materials)
-                .build();
-
-        String prompt = buildPrompt.buildPrompt(context);
-        log.debug("Generated prompt type: {}", buildPrompt.getPromptType());
-
-        // Generate hint using LLM
-        String result = llmClient.chat(prompt);
-
-        // Save hint to database (SRP compliance)
-        if (result != null) {
-            hintDataProvider.saveHint(request.getStudentId(), request.getQuestionId(), result);
+        String studentId = request.getStudentId() != null ? request.getStudentId().toString() : null;
+        String courseId = request.getCourseId();
+
+        tokenUsageService.checkQuota(studentId, courseId);
+
+        try (TaskTrace trace = taskMetrics.start(TASK_TYPE, buildPrompt.getPromptType())) {
+            // Delegate data fetching to DataProviders (SRP compliance)
+            List<String> previousHints = trace.time(TaskStage.HISTORY_LOAD,
+                    () -> hintDataProvider.getPreviousHintTexts(request.getStudentId(), request.getQuestionId()));
+
+            // Fetch test context from TestDataProvider
+            TestResponseDTO testContext = trace.time(TaskStage.REMOTE_FETCH,
+                    () -> testDataProvider.getTestContext(request.getCourseId(), request.getAssessmentId()));
+
+            // Find the specific question (returns Optional, use orElse for null fallback)
+            QuestionDTO targetQuestion = testDataProvider.findQuestion(testContext, request.getQuestionId()).orElse(null);
+
+            // Fetch subject (course name) from CourseDataProvider
+            String subject = trace.time(TaskStage.REMOTE_FETCH,
+                    () -> courseDataProvider.getCourseName(request.getCourseId()));
+
+            // Fetch course materials from CourseDataProvider
+            List<MaterialDTO> materials = trace.time(TaskStage.REMOTE_FETCH,
+                    () -> courseDataProvider.getCourseMaterials(request.getCourseId()));
+
+            // Build context with all fields
+            HintPromptContext context = HintPromptContext.builder()
+                    .request(request)
+                    .testContext(testContext)
+                    .targetQuestion(targetQuestion)
+                    .subject(subject)
+                    .previousHints(previousHints)
+                    .materials(materials)
+                    .build();
+
+            String prompt = trace.time(TaskStage.PROMPT_BUILD, () -> buildPrompt.buildPrompt(context));
+            trace.recordPromptSize(prompt);
+            log.debug("Generated prompt type: {}", buildPrompt.getPromptType());
+
+            // Generate hint using LLM
+            LLMResult llmResult = trace.time(TaskStage.LLM, () -> llmClient.chatWithUsage(prompt));
+            tokenUsageService.record(studentId, courseId, TASK_TYPE, llmResult.getUsage());
+            String result = llmResult.getContent();
+
+            // Save hint to database (SRP compliance)
+            if (result != null) {
+                trace.time(TaskStage.PERSIST,
+                        () -> hintDataProvider.saveHint(request.getStudentId(), request.getQuestionId(), result));
+            }
+
+            return AIResponse.builder()
+                    .result(result)
+                    .metadata(Map.of(
+                            "taskType", TASK_TYPE,
+                            "promptType", buildPrompt.getPromptType().getValue(),
+                            "studentId", request.getStudentId() != null ? request.getStudentId().toString() : "unknown",
+                            "courseId", request.getCourseId() != null ? request.getCourseId() : "unknown",
+                            "assessmentId", request.getAssessmentId() != null ? request.getAssessmentId() : "unknown",
+                            "questionId", request.getQuestionId() != null ? request.getQuestionId().toString() : "unknown",
+                            "previousHintsCount", previousHints.size(),
+                            "materialsCount", materials.size(),
+                            "stages", trace.complete()
+                    ))
+                    .build();
         }
-
-        return AIResponse.builder()
-                .result(result)
-                .metadata(Map.of(
-                        "taskType", TASK_TYPE,
-                        "promptType", buildPrompt.getPromptType().getValue(),
-                        "studentId", request.getStudentId() != null ? request.getStudentId().toString() : "unknown",
-                        "courseId", request.getCourseId() != null ? request.getCourseId() : "unknown",
-                        "assessmentId", request.getAssessmentId() != null ? request.getAssessmentId() : "unknown",
-                        "questionId", request.getQuestionId() != null ? request.getQuestionId().toString() : "unknown",
-                        "previousHintsCount", previousHints.size(),
-                        "materialsCount", materials.size()
-                ))
-                .build();
     }
 
     @Override
@@ -5,14 +5,20 @@ import java.util.Map;
 
 import com.example.demo.dto.AIResponse;
 import com.example.demo.dto.MaterialContentResponseDTO;
+import com.example.demo.dto.material.TranscriptSegmentDTO;
 import com.example.demo.dto.request.AIExplainRequest;
 import com.example.demo.llm.LLMClient;
+import com.example.demo.llm.LLMResult;
 import com.example.demo.models.AIExplanation;
 import com.example.demo.services.dataprovider.CourseDataProvider;
 import com.example.demo.services.dataprovider.ExplanationDataProvider;
 import com.example.demo.services.prompt.context.MaterialExplanationPromptContext;
 import com.example.demo.services.prompt.impl.MaterialExplanationBuildPrompt;
 import com.example.demo.services.task.AITask;
+import com.example.demo.services.task.TaskMetrics;
+import com.example.demo.services.task.TaskStage;
+import com.example.demo.services.task.TaskTrace;
+import com.example.demo.services.usage.TokenUsageService;
 import org.springframework.stereotype.Component;
 
 import lombok.RequiredArgsConstructor;
@@ -39,64 +45,110 @@ public class MaterialExplanationTask implements AITask<AIExplainRequest> {
     private final ExplanationDataProvider explanationDataProvider;
     private final CourseDataProvider courseDataProvider;
 
+    private final TaskMetrics taskMetrics;
+    private final TokenUsageService tokenUsageService;
+
     @Override
     public AIResponse execute(AIExplainRequest request) {
         log.info("Executing material explanation task for student: {}, material: {}",
                 request.getStudentId(), request.getMaterialId());
 
-        // Delegate data fetching to ExplanationDataProvider (SRP compliance)
-        List<AIExplanation> previousExplanations = explanationDataProvider.getPreviousExplanations(
-                request.getStudentId(),
-                request.getMaterialId()
-        );
-
-        List<String> previousQuestions = explanationDataProvider.extractQuestions(previousExplanations);
-        List<String> previousAnswers = explanationDataProvider.extractAnswers(previousExplanations);
-
-        log.info("Using {} previous explanations for context", previousQuestions.size());
-
-        // Delegate material content fetching to CourseDataProvider (SRP compliance)
-        MaterialContentResponseDTO materialContent = courseDataProvider.getMaterialContent(request.getMaterialId());
-
-        // Build context with all required data
-        MaterialExplanationPromptContext context = MaterialExplanationPromptContext.builder()
-                .studentQuestion(request.getStudentQuestion())
-                .materialContent(materialContent != null ? materialContent.getContent() : null)
-                .fileName(materialContent != null ? materialContent.getFileName() : null)
-                .pages(materialContent != null ? materialContent.getPages() : null)
-                .previousQuestions(previousQuestions)
-                .previousExplanations(previousAnswers)
-                .build();
-
-        // Generate prompt and get LLM response
-        String prompt = buildPrompt.buildPrompt(context);
-        log.debug("Generated prompt type: {}", buildPrompt.getPromptType());
-
-        String result = llmClient.chat(prompt);
-
-        AIResponse response = AIResponse.builder()
-                .result(result)
-                .metadata(Map.of(
-                        "taskType", TASK_TYPE,
-                        "promptType", buildPrompt.getPromptType().getValue(),
-                        "studentId", request.getStudentId() != null ? request.getStudentId().toString() : "unknown",
-                        "materialId", request.getMaterialId() != null ? request.getMaterialId().toString() : "unknown",
-                        "previousQuestionsCount", previousQuestions.size(),
-                        "materialFileName", materialContent != null ? materialContent.getFileName() : "not available"
-                ))
-                .build();
-
-        // Delegate saving to ExplanationDataProvider (SRP compliance)
-        if (result != null) {
-            explanationDataProvider.saveExplanation(
-                    request.getStudentId(),
-                    request.getMaterialId(),
-                    request.getStudentQuestion(),
-                    result
-            );
+        String studentId = request.getStudentId() != null ? request.getStudentId().toString() : null;
+
+        // Explanation requests carry no course, so only the student quota applies
+        tokenUsageService.checkQuota(studentId, null);
+
+        try (TaskTrace trace = taskMetrics.start(TASK_TYPE, buildPrompt.getPromptType())) {
+            // Delegate data fetching to ExplanationDataProvider (SRP compliance)
+            List<AIExplanation> previousExplanations = trace.time(TaskStage.HISTORY_LOAD,
+                    () -> explanationDataProvider.getPreviousExplanations(
+                            request.getStudentId(),
+                            request.getMaterialId()
+                    ));
+
+            List<String> previousQuestions = explanationDataProvider.extractQuestions(previousExplanations);
+            List<String> previousAnswers = explanationDataProvider.extractAnswers(previousExplanations);
+
+            log.info("Using {} previous explanations for context", previousQuestions.size());
+
+            // Delegate material content fetching to CourseDataProvider (SRP compliance)
+            MaterialContentResponseDTO materialContent = trace.time(TaskStage.REMOTE_FETCH,
+                    () -> courseDataProvider.getMaterialContent(request.getMaterialId(), request.getPages()));
+
+            // Only a few seconds of transcript around the moment in the video the question is about
+            List<TranscriptSegmentDTO> transcript = request.getVideoTimestamp() == null ? List.of()
+                    : trace.time(TaskStage.REMOTE_FETCH,
+                            () -> courseDataProvider.getTranscriptSegments(request.getMaterialId(), request.getVideoTimestamp()));
+
+            // Build context with all required data
+            MaterialExplanationPromptContext context = MaterialExplanationPromptContext.builder()
+                    .studentQuestion(request.getStudentQuestion())
+                    .materialContent(materialContent != null ? materialContent.getContent() : null)
+                    .fileName(materialContent != null ? materialContent.getFileName() : null)
+                    .pages(materialContent != null ? describePages(materialContent) : null)
+                    .transcriptExcerpt(transcript.stream().map(MaterialExplanationTask::describeSegment).toList())
+                    .videoTimestamp(request.getVideoTimestamp() != null
+                            ? formatTime(Math.round(request.getVideoTimestamp() * 1000)) : null)
+                    .previousQuestions(previousQuestions)
+                    .previousExplanations(previousAnswers)
+                    .build();
+
+            // Generate prompt and get LLM response
+            String prompt = trace.time(TaskStage.PROMPT_BUILD, () -> buildPrompt.buildPrompt(context));
+            trace.recordPromptSize(prompt);
+            log.debug("Generated prompt type: {}", buildPrompt.getPromptType());
+
+            LLMResult llmResult = trace.time(TaskStage.LLM, () -> llmClient.chatWithUsage(prompt));
+            tokenUsageService.record(studentId, null, TASK_TYPE, llmResult.getUsage());
+            String result = llmResult.getContent();
+
+            // Delegate saving to ExplanationDataProvider (SRP compliance)
+            if (result != null) {
+                trace.time(TaskStage.PERSIST, () -> explanationDataProvider.saveExplanation(
+                        request.getStudentId(),
+                        request.getMaterialId(),
+                        request.getStudentQuestion(),
+                        result
+                ));
+            }
+
+            return AIResponse.builder()
+                    .result(result)
+                    .metadata(Map.of(
+                            "taskType", TASK_TYPE,
+                            "promptType", buildPrompt.getPromptType().getValue(),
+                            "studentId", request.getStudentId() != null ? request.getStudentId().toString() : "unknown",
+                            "materialId", request.getMaterialId() != null ? request.getMaterialId().toString() : "unknown",
+                            "previousQuestionsCount", previousQuestions.size(),
+                            "materialFileName", materialContent != null ? materialContent.getFileName() : "not available",
+                            "stages", trace.complete()
+                    ))
+                    .build();
+        }
+    }
+
+    /**
+     * "3-5 of 40" when only part of the material was fetched, otherwise the page count.
+     */
+    private String describePages(MaterialContentResponseDTO materialContent) {
+        if (materialContent.getPageRange() != null && !materialContent.getPageRange().isEmpty()) {
+            return materialContent.getPageRange() + " of " + materialContent.getPages();
         }
+        return materialContent.getPages();
+    }
+
+    /**
+     * "[01:05-01:09] text" for one transcript segment.
+     */
+    private static String describeSegment(TranscriptSegmentDTO segment) {
+        return "[" + formatTime(segment.getStartMs()) + "-" + formatTime(segment.getEndMs()) + "] " + segment.getText();
+    }
 
-        return response;
+    private static String formatTime(Long millis) {
+        long seconds = millis != null ? millis / 1000 : 0;
+        return seconds >= 3600
+                ? String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60)
+                : String.format("%02d:%02d", seconds / 60, seconds % 60);
     }
 
     @Override
@@ -8,11 +8,16 @@ import com.example.demo.dto.material.MaterialDTO;
 import com.example.demo.dto.request.AIMaterialRequest;
 import com.example.demo.dto.AIResponse;
 import com.example.demo.llm.LLMClient;
+import com.example.demo.llm.LLMResult;
 import com.example.demo.services.dataprovider.CourseDataProvider;
 import com.example.demo.services.dataprovider.RecommendationDataProvider;
 import com.example.demo.services.prompt.context.MaterialRecommendationPromptContext;
 import com.example.demo.services.prompt.impl.MaterialRecommendationBuildPrompt;
 import com.example.demo.services.task.AITask;
+import com.example.demo.services.task.TaskMetrics;
+import com.example.demo.services.task.TaskStage;
+import com.example.demo.services.task.TaskTrace;
+import com.example.demo.services.usage.TokenUsageService;
 import org.springframework.stereotype.Component;
 
 import lombok.RequiredArgsConstructor;
@@ -39,47 +44,62 @@ public class MaterialRecommendationTask implements AITask<AIMaterialRequest> {
     private final CourseDataProvider courseDataProvider;
     private final RecommendationDataProvider recommendationDataProvider;
 
+    private final TaskMetrics taskMetrics;
+    private final TokenUsageService tokenUsageService;
+
     @Override
     public AIResponse execute(AIMaterialRequest request) {
         log.info("Executing material recommendation task for student: {}, course: {}",
                 request.getStudentId(), request.getCourseId());
 
-        // Delegate data fetching to CourseDataProvider (SRP compliance)
-        List<ChapterDTO> chapters = courseDataProvider.getMaterialChapters(request.getCourseId());
-        log.info("Fetched {} chapters for course: {}", chapters.size(), request.getCourseId());
-
-        List<MaterialDTO> allMaterials = courseDataProvider.getMaterialsForChapters(chapters);
-        log.info("Fetched {} total materials from {} chapters", allMaterials.size(), chapters.size());
-
-        // Build context with all required data
-        MaterialRecommendationPromptContext context = MaterialRecommendationPromptContext.builder()
-                .request(request)
-                .chapters(chapters)
-                .materials(allMaterials)
-                .build();
-
-        String prompt = buildPrompt.buildPrompt(context);
-        log.debug("Generated prompt type: {}", buildPrompt.getPromptType());
-
-        // Generate recommendation using LLM
-        String result = llmClient.chat(prompt);
-
-        AIResponse response = AIResponse.builder()
-                .result(result)
-                .metadata(Map.of(
-                        "taskType", TASK_TYPE,
-                        "promptType", buildPrompt.getPromptType().getValue(),
-                        "studentId", request.getStudentId() != null ? request.getStudentId() : "unknown",
-                        "courseId", request.getCourseId() != null ? request.getCourseId() : "unknown",
-                        "chaptersCount", chapters.size(),
-                        "materialsCount", allMaterials.size()
-                ))
-                .build();
-
-        // Delegate saving to RecommendationDataProvider (SRP compliance)
-        recommendationDataProvider.saveRecommendation(request, response);
-
-        return response;
+        String studentId = request.getStudentId();
+        String courseId = request.getCourseId();
+
+        tokenUsageService.checkQuota(studentId, courseId);
+
+        try (TaskTrace trace = taskMetrics.start(TASK_TYPE, buildPrompt.getPromptType())) {
+            // Delegate data fetching to CourseDataProvider (SRP compliance)
+            List<ChapterDTO> chapters = trace.time(TaskStage.REMOTE_FETCH,
+                    () -> courseDataProvider.getMaterialChapters(request.getCourseId()));
+            log.info("Fetched {} chapters for course: {}", chapters.size(), request.getCourseId());
+
+            List<MaterialDTO> allMaterials = trace.time(TaskStage.REMOTE_FETCH,
+                    () -> courseDataProvider.getMaterialsForChapters(chapters));
+            log.info("Fetched {} total materials from {} chapters", allMaterials.size(), chapters.size());
+
+            // Build context with all required data
+            MaterialRecommendationPromptContext context = MaterialRecommendationPromptContext.builder()
+                    .request(request)
+                    .chapters(chapters)
+                    .materials(allMaterials)
+                    .build();
+
+            String prompt = trace.time(TaskStage.PROMPT_BUILD, () -> buildPrompt.buildPrompt(context));
+            trace.recordPromptSize(prompt);
+            log.debug("Generated prompt type: {}", buildPrompt.getPromptType());
+
+            // Generate recommendation using LLM
+            LLMResult llmResult = trace.time(TaskStage.LLM, () -> llmClient.chatWithUsage(prompt));
+            tokenUsageService.record(studentId, courseId, TASK_TYPE, llmResult.getUsage());
+            String result = llmResult.getContent();
+
+            AIResponse response = AIResponse.builder().result(result).build();
+
+            // Delegate saving to RecommendationDataProvider (SRP compliance)
+            trace.time(TaskStage.PERSIST, () -> recommendationDataProvider.saveRecommendation(request, response));
+
+            response.setMetadata(Map.of(
+                    "taskType", TASK_TYPE,
+                    "promptType", buildPrompt.getPromptType().getValue(),
+                    "studentId", request.getStudentId() != null ? request.getStudentId() : "unknown",
+                    "courseId", request.getCourseId() != null ? request.getCourseId() : "unknown",
+                    "chaptersCount", chapters.size(),
+                    "materialsCount", allMaterials.size(),
+                    "stages", trace.complete()
+            ));
+
+            return response;
+        }
     }
 
     @Override
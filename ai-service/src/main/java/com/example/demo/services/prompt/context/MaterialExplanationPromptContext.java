@@ -24,6 +24,11 @@ public class MaterialExplanationPromptContext {
 
     private String pages;
 
+    // Timed transcript lines around the video position of the question, e.g. "[01:05-01:09] text"
+    private List<String> transcriptExcerpt;
+
+    private String videoTimestamp;
+
     private List<String> previousQuestions;
 
     private List<String> previousExplanations;
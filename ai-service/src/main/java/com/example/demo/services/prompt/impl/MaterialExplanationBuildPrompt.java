@@ -36,6 +36,15 @@ public class MaterialExplanationBuildPrompt implements BuildPrompt<MaterialExpla
             materialContentText.append("\n");
         }
 
+        // Build video transcript section (only the segments around the moment the question is about)
+        if (context.getTranscriptExcerpt() != null && !context.getTranscriptExcerpt().isEmpty()) {
+            materialContentText.append(String.format("\n🎬 VIDEO TRANSCRIPT AROUND %s:\n",
+                    context.getVideoTimestamp() != null ? context.getVideoTimestamp() : "THE QUESTION"));
+            for (String line : context.getTranscriptExcerpt()) {
+                materialContentText.append(line).append("\n");
+            }
+        }
+
         // Build previous Q&A section
         StringBuilder previousQAText = new StringBuilder();
         if (context.getPreviousQuestions() != null && !context.getPreviousQuestions().isEmpty() &&
@@ -64,7 +73,7 @@ public class MaterialExplanationBuildPrompt implements BuildPrompt<MaterialExpla
                 %s
 
                 REQUIREMENTS:
-                - Base your explanation on the MATERIAL CONTENT above
+                - Base your explanation on the MATERIAL CONTENT (and VIDEO TRANSCRIPT, if any) above
                 - Explain in a clear way, appropriate for the student's level
                 - If there are previous questions, don't repeat old explanations but provide new perspectives
                 - You can provide illustrative examples to help the student understand better
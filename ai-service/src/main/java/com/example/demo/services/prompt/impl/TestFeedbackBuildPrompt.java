@@ -69,7 +69,19 @@ public class TestFeedbackBuildPrompt implements BuildPrompt<FeedbackPromptContex
         prompt.append("4. **Detailed Explanations**: For each incorrect answer, explain the correct concept\n");
         prompt.append("5. **Study Recommendations**: Suggest specific topics or resources for improvement\n");
         prompt.append("6. **Encouragement**: Provide constructive and encouraging feedback\n\n");
-        prompt.append("Format your response in a clear, structured manner that helps the student learn.\n");
+
+        // Structured output so strengths/weaknesses/topics can be stored and aggregated
+        prompt.append("=== OUTPUT FORMAT ===\n");
+        prompt.append("Respond with a single JSON object and nothing else, using exactly these fields:\n");
+        prompt.append("{\n");
+        prompt.append("  \"summary\": \"one or two sentences about the overall performance\",\n");
+        prompt.append("  \"strengths\": [\"short topic label\", ...],\n");
+        prompt.append("  \"weaknesses\": [\"short topic label\", ...],\n");
+        prompt.append("  \"recommendedTopics\": [\"short topic label\", ...],\n");
+        prompt.append("  \"feedback\": \"the full feedback for the student, formatted in markdown\"\n");
+        prompt.append("}\n");
+        prompt.append("Use short, reusable topic labels (2-5 words, e.g. \"Recursion base cases\") for strengths, weaknesses and recommendedTopics, at most 10 each.\n");
+        prompt.append("The feedback field must be clear and structured in a manner that helps the student learn.\n");
 
         return prompt.toString();
     }
@@ -0,0 +1,35 @@
+package com.example.demo.services.task;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.services.prompt.PromptType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Entry point for per-stage instrumentation of AI tasks.
+ * Follows Single Responsibility Principle - only creates traces bound to the meter registry.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskMetrics {
+
+    public static final String STAGE_TIMER = "ai.task.stage";
+    public static final String TASK_TIMER = "ai.task.duration";
+    public static final String PROMPT_SIZE = "ai.task.prompt.size";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Start tracing one execution of a task. Call {@link TaskTrace#complete()} when the task succeeds;
+     * a trace closed without it is recorded with outcome {@code error}.
+     *
+     * @param taskType   the task type identifier
+     * @param promptType the prompt type used by the task
+     * @return a new trace
+     */
+    public TaskTrace start(String taskType, PromptType promptType) {
+        return new TaskTrace(meterRegistry, taskType, promptType.getValue());
+    }
+}
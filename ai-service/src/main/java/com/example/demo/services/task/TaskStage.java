@@ -0,0 +1,29 @@
+package com.example.demo.services.task;
+
+/**
+ * Enum defining the stages an AI task goes through.
+ * Used as the {@code stage} tag of task metrics and as keys of the per-request stage breakdown.
+ */
+public enum TaskStage {
+    HISTORY_LOAD("history_load", "historyLoadMs"),
+    REMOTE_FETCH("remote_fetch", "remoteFetchMs"),
+    PROMPT_BUILD("prompt_build", "promptBuildMs"),
+    LLM("llm", "llmMs"),
+    PERSIST("persist", "persistMs");
+
+    private final String value;
+    private final String breakdownKey;
+
+    TaskStage(String value, String breakdownKey) {
+        this.value = value;
+        this.breakdownKey = breakdownKey;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getBreakdownKey() {
+        return breakdownKey;
+    }
+}
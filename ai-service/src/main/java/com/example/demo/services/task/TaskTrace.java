@@ -0,0 +1,135 @@
+package com.example.demo.services.task;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Per-request trace of an AI task.
+ * Accumulates the time spent in each {@link TaskStage} and records it to Micrometer when closed, tagged with
+ * the task outcome: {@code success} if {@link #complete()} was called, {@code error} otherwise.
+ * The stage breakdown returned in {@code AIResponse.metadata} is an immutable snapshot taken at that point,
+ * so it cannot change after the response has been handed out.
+ * Not thread-safe; a trace belongs to a single task execution.
+ */
+public class TaskTrace implements AutoCloseable {
+
+    static final String SUCCESS = "success";
+    static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final String taskType;
+    private final String promptType;
+    private final long startNanos = System.nanoTime();
+    private final Map<TaskStage, Long> stageNanos = new EnumMap<>(TaskStage.class);
+    private Integer promptChars;
+    private String outcome = ERROR;
+    private Map<String, Object> breakdown;
+
+    TaskTrace(MeterRegistry meterRegistry, String taskType, String promptType) {
+        this.meterRegistry = meterRegistry;
+        this.taskType = taskType;
+        this.promptType = promptType;
+    }
+
+    /**
+     * Run an action and account its duration to the given stage.
+     */
+    public <T> T time(TaskStage stage, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            stageNanos.merge(stage, System.nanoTime() - start, Long::sum);
+        }
+    }
+
+    /**
+     * Run an action without result and account its duration to the given stage.
+     */
+    public void time(TaskStage stage, Runnable action) {
+        time(stage, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Record the size of the prompt sent to the LLM.
+     *
+     * @param prompt the built prompt
+     */
+    public void recordPromptSize(String prompt) {
+        int chars = prompt != null ? prompt.length() : 0;
+        promptChars = chars;
+        DistributionSummary.builder(TaskMetrics.PROMPT_SIZE)
+                .baseUnit("chars")
+                .tag("task", taskType)
+                .tag("prompt", promptType)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(chars);
+    }
+
+    /**
+     * Mark the task as successful and close the trace. Call it once every stage, including persistence, is done.
+     *
+     * @return the stage breakdown, see {@link #breakdown()}
+     */
+    public Map<String, Object> complete() {
+        outcome = SUCCESS;
+        close();
+        return breakdown;
+    }
+
+    /**
+     * Stage breakdown in milliseconds, plus {@code promptChars} and {@code totalMs}, as of closing the trace.
+     *
+     * @throws IllegalStateException if the trace is still open
+     */
+    public Map<String, Object> breakdown() {
+        if (breakdown == null) {
+            throw new IllegalStateException("Task trace is still open");
+        }
+        return breakdown;
+    }
+
+    @Override
+    public void close() {
+        if (breakdown != null) {
+            return;
+        }
+        long total = System.nanoTime() - startNanos;
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        stageNanos.forEach((stage, nanos) -> {
+            timer(TaskMetrics.STAGE_TIMER, stage.getValue()).record(nanos, TimeUnit.NANOSECONDS);
+            snapshot.put(stage.getBreakdownKey(), TimeUnit.NANOSECONDS.toMillis(nanos));
+        });
+        if (promptChars != null) {
+            snapshot.put("promptChars", promptChars);
+        }
+        timer(TaskMetrics.TASK_TIMER, null).record(total, TimeUnit.NANOSECONDS);
+        snapshot.put("totalMs", TimeUnit.NANOSECONDS.toMillis(total));
+        breakdown = Collections.unmodifiableMap(snapshot);
+    }
+
+    private Timer timer(String name, String stage) {
+        Timer.Builder builder = Timer.builder(name)
+                .tag("task", taskType)
+                .tag("prompt", promptType)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram();
+        if (stage != null) {
+            builder.tag("stage", stage);
+        }
+        return builder.register(meterRegistry);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.demo.services.usage;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.exceptions.QuotaExceededException;
+import com.example.demo.llm.OpenAIModels;
+import com.example.demo.models.TokenUsageRecord;
+import com.example.demo.repository.TokenUsageRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service accounting LLM token usage and enforcing daily per-student and per-course quotas.
+ * Follows Single Responsibility Principle - only handles token usage bookkeeping.
+ *
+ * Usage is accumulated in striped {@link LongAdder} counters so concurrent requests never contend
+ * on a lock, and flushed to the llm_token_usage table on a fixed delay. Daily totals used for quota
+ * checks are seeded from the database on first use and then kept in memory, so quotas are enforced
+ * per instance between flushes.
+ */
+@Service
+@Slf4j
+public class TokenUsageService {
+
+    private final TokenUsageRepository tokenUsageRepository;
+    private final Clock clock;
+    private final long studentDailyQuota;
+    private final long courseDailyQuota;
+
+    // Deltas not yet written to the database
+    private final Map<UsageKey, UsageCounters> pending = new ConcurrentHashMap<>();
+
+    // Tokens used today, including deltas already flushed
+    private final Map<DailyKey, LongAdder> studentTotals = new ConcurrentHashMap<>();
+    private final Map<DailyKey, LongAdder> courseTotals = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenUsageService(
+            TokenUsageRepository tokenUsageRepository,
+            @Value("${ai.usage.student-daily-token-quota:0}") long studentDailyQuota,
+            @Value("${ai.usage.course-daily-token-quota:0}") long courseDailyQuota) {
+        this(tokenUsageRepository, Clock.systemDefaultZone(), studentDailyQuota, courseDailyQuota);
+    }
+
+    TokenUsageService(TokenUsageRepository tokenUsageRepository, Clock clock,
+                      long studentDailyQuota, long courseDailyQuota) {
+        this.tokenUsageRepository = tokenUsageRepository;
+        this.clock = clock;
+        this.studentDailyQuota = studentDailyQuota;
+        this.courseDailyQuota = courseDailyQuota;
+    }
+
+    /**
+     * Ensure the student and course still have tokens left today. A quota of 0 disables the check.
+     * Tasks call this before any remote fetch or LLM call, so a rejected request costs nothing.
+     *
+     * @param studentId the student's identifier, may be null
+     * @param courseId  the course identifier, may be null
+     * @throws QuotaExceededException if either quota is used up
+     */
+    public void checkQuota(String studentId, String courseId) {
+        LocalDate today = LocalDate.now(clock);
+        if (studentId != null && studentDailyQuota > 0
+                && studentTotal(today, studentId).sum() >= studentDailyQuota) {
+            throw new QuotaExceededException(
+                    "Daily token quota exceeded for student " + studentId, secondsUntilTomorrow());
+        }
+        if (courseId != null && courseDailyQuota > 0
+                && courseTotal(today, courseId).sum() >= courseDailyQuota) {
+            throw new QuotaExceededException(
+                    "Daily token quota exceeded for course " + courseId, secondsUntilTomorrow());
+        }
+    }
+
+    /**
+     * Record the tokens used by one LLM call.
+     *
+     * @param studentId the student's identifier, may be null
+     * @param courseId  the course identifier, may be null
+     * @param taskType  the task that issued the call
+     * @param usage     the usage reported by the LLM client, ignored if null
+     */
+    public void record(String studentId, String courseId, String taskType, OpenAIModels.Usage usage) {
+        if (usage == null) {
+            return;
+        }
+        long promptTokens = usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+        long completionTokens = usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0;
+        LocalDate today = LocalDate.now(clock);
+
+        UsageCounters counters = pending.computeIfAbsent(
+                new UsageKey(studentId, courseId, taskType, today), key -> new UsageCounters());
+        counters.promptTokens.add(promptTokens);
+        counters.completionTokens.add(completionTokens);
+        counters.requests.increment();
+
+        if (studentId != null) {
+            studentTotal(today, studentId).add(promptTokens + completionTokens);
+        }
+        if (courseId != null) {
+            courseTotal(today, courseId).add(promptTokens + completionTokens);
+        }
+    }
+
+    /**
+     * Write accumulated deltas to the database and drop totals of previous days.
+     */
+    @Scheduled(fixedDelayString = "${ai.usage.flush-interval:30000}")
+    public void flush() {
+        LocalDate today = LocalDate.now(clock);
+        List<TokenUsageRecord> records = new ArrayList<>();
+        pending.forEach((key, counters) -> {
+            // sumThenReset drains each cell atomically, so concurrent increments land in this or the next flush
+            long requests = counters.requests.sumThenReset();
+            long promptTokens = counters.promptTokens.sumThenReset();
+            long completionTokens = counters.completionTokens.sumThenReset();
+            if (requests == 0) {
+                // Only previous days are evicted; today's key may be in use by a concurrent record()
+                if (key.date().isBefore(today)) {
+                    pending.remove(key, counters);
+                }
+                return;
+            }
+            records.add(TokenUsageRecord.builder()
+                    .studentId(key.studentId())
+                    .courseId(key.courseId())
+                    .taskType(key.taskType())
+                    .usageDate(key.date())
+                    .promptTokens(promptTokens)
+                    .completionTokens(completionTokens)
+                    .requestCount(requests)
+                    .build());
+        });
+
+        studentTotals.keySet().removeIf(key -> key.date().isBefore(today));
+        courseTotals.keySet().removeIf(key -> key.date().isBefore(today));
+
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            tokenUsageRepository.saveAll(records);
+            log.debug("Flushed {} token usage records", records.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush token usage, keeping {} records for the next flush: {}",
+                    records.size(), e.getMessage());
+            records.forEach(this::restore);
+        }
+    }
+
+    private void restore(TokenUsageRecord record) {
+        UsageCounters counters = pending.computeIfAbsent(
+                new UsageKey(record.getStudentId(), record.getCourseId(), record.getTaskType(), record.getUsageDate()),
+                key -> new UsageCounters());
+        counters.promptTokens.add(record.getPromptTokens());
+        counters.completionTokens.add(record.getCompletionTokens());
+        counters.requests.add(record.getRequestCount());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private LongAdder studentTotal(LocalDate date, String studentId) {
+        return total(studentTotals, new DailyKey(studentId, date),
+                key -> tokenUsageRepository.sumTokensByStudentIdAndDate(key.id(), key.date()));
+    }
+
+    private LongAdder courseTotal(LocalDate date, String courseId) {
+        return total(courseTotals, new DailyKey(courseId, date),
+                key -> tokenUsageRepository.sumTokensByCourseIdAndDate(key.id(), key.date()));
+    }
+
+    /**
+     * The seed is loaded outside the map: a database query inside computeIfAbsent would hold the bin lock
+     * and block every caller whose key hashes to the same bin. Concurrent first uses may both query;
+     * putIfAbsent keeps one adder so no recorded tokens are lost.
+     */
+    private static LongAdder total(Map<DailyKey, LongAdder> totals, DailyKey key, Function<DailyKey, Long> seed) {
+        LongAdder total = totals.get(key);
+        if (total != null) {
+            return total;
+        }
+        LongAdder seeded = new LongAdder();
+        seeded.add(seed.apply(key));
+        LongAdder existing = totals.putIfAbsent(key, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    private long secondsUntilTomorrow() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        ZonedDateTime tomorrow = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        return Math.max(1, Duration.between(now, tomorrow).getSeconds());
+    }
+
+    private record UsageKey(String studentId, String courseId, String taskType, LocalDate date) {
+    }
+
+    private record DailyKey(String id, LocalDate date) {
+    }
+
+    private static final class UsageCounters {
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+    }
+}
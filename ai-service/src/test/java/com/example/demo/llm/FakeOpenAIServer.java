@@ -0,0 +1,408 @@
+package com.example.demo.llm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Local stand-in for the OpenAI Chat Completion API, for tests and load scripts.
+ *
+ * Simulates time-to-first-token, token throughput, random 500 errors, periodic 429 bursts and
+ * response-size distributions, and supports both plain and streaming ({@code "stream": true}) responses.
+ * Response content comes from fixtures: the first fixture whose name appears in the prompt
+ * (e.g. {@code feedback.json} for feedback prompts) is returned verbatim, otherwise filler text
+ * is generated with a length drawn from the configured distribution.
+ *
+ * From a load script, run the main method and point the ai-service at it with
+ * {@code LLM_CLIENT=http OPENAI_BASE_URL=http://127.0.0.1:<port>} (or {@code spring.ai.openai.base-url}).
+ * Settings are read from system properties, e.g. {@code -Dfake-llm.port=8089 -Dfake-llm.ttft-ms=400}.
+ */
+public class FakeOpenAIServer implements AutoCloseable {
+
+    private static final String FIXTURE_ROOT = "fake-llm";
+    private static final String[] BUNDLED_FIXTURES = {
+            "feedback.json", "hint.txt", "explanation.txt", "recommendation.txt"
+    };
+    private static final String[] FILLER_WORDS = {
+            "the", "student", "should", "review", "concept", "because", "each", "step", "builds",
+            "on", "previous", "example", "practice", "helps", "understanding", "of", "course", "material"
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong requestCounter = new AtomicLong();
+    private final Map<String, String> fixtures;
+    private final Config config;
+    private final Random random;
+    private final HttpServer server;
+
+    public FakeOpenAIServer() throws IOException {
+        this(Config.builder().build());
+    }
+
+    public FakeOpenAIServer(Config config) throws IOException {
+        this.config = config;
+        this.random = new Random(config.getSeed());
+        this.fixtures = loadFixtures(config.getFixtureDirectory());
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", config.getPort()), 0);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Config config = Config.fromSystemProperties();
+        FakeOpenAIServer server = new FakeOpenAIServer(config).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Fake OpenAI server listening on " + server.baseUrl() + " with " + config);
+    }
+
+    public FakeOpenAIServer start() {
+        server.start();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requestCounter.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            long requestNumber = requestCounter.getAndIncrement();
+
+            if (isRateLimited(requestNumber)) {
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(config.getRetryAfterSeconds()));
+                sendError(exchange, 429, "rate_limit_exceeded", "Rate limit reached for requests");
+                return;
+            }
+            if (random.nextDouble() < config.getErrorRate()) {
+                sendError(exchange, 500, "server_error", "The server had an error while processing your request");
+                return;
+            }
+
+            String prompt = promptOf(request);
+            String model = request.path("model").asText("gpt-3.5-turbo");
+            List<String> tokens = tokenize(contentFor(prompt));
+            int promptTokens = Math.max(1, prompt.length() / 4);
+
+            sleep(sample(config.getTimeToFirstTokenMillis(), config.getTimeToFirstTokenStdDevMillis()));
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, model, tokens, promptTokens);
+            } else {
+                sleep(generationMillis(tokens.size()));
+                respond(exchange, model, String.join("", tokens), promptTokens, tokens.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean isRateLimited(long requestNumber) {
+        return config.getRateLimitBurstEvery() > 0
+                && requestNumber % config.getRateLimitBurstEvery() >= config.getRateLimitBurstEvery() - config.getRateLimitBurstLength();
+    }
+
+    private void respond(HttpExchange exchange, String model, String content,
+                         int promptTokens, int completionTokens) throws IOException {
+        ObjectNode completion = objectMapper.createObjectNode()
+                .put("id", "chatcmpl-fake-" + requestCounter.get())
+                .put("object", "chat.completion")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+        ObjectNode choice = completion.putArray("choices").addObject().put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        completion.set("usage", usage(promptTokens, completionTokens));
+
+        byte[] body = objectMapper.writeValueAsBytes(completion);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private void stream(HttpExchange exchange, String model, List<String> tokens,
+                        int promptTokens) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+
+        OutputStream out = exchange.getResponseBody();
+        String id = "chatcmpl-fake-" + requestCounter.get();
+        long tokenMillis = generationMillis(1);
+        for (int i = 0; i < tokens.size(); i++) {
+            ObjectNode delta = objectMapper.createObjectNode();
+            if (i == 0) {
+                delta.put("role", "assistant");
+            }
+            delta.put("content", tokens.get(i));
+            writeEvent(out, chunk(id, model, delta, null));
+            if (i < tokens.size() - 1) {
+                sleep(tokenMillis);
+            }
+        }
+
+        ObjectNode last = chunk(id, model, objectMapper.createObjectNode(), "stop");
+        last.set("usage", usage(promptTokens, tokens.size()));
+        writeEvent(out, last);
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private ObjectNode chunk(String id, String model, ObjectNode delta, String finishReason) {
+        ObjectNode chunk = objectMapper.createObjectNode()
+                .put("id", id)
+                .put("object", "chat.completion.chunk")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+        ObjectNode choice = chunk.putArray("choices").addObject().put("index", 0);
+        choice.set("delta", delta);
+        choice.put("finish_reason", finishReason);
+        return chunk;
+    }
+
+    private void writeEvent(OutputStream out, ObjectNode event) throws IOException {
+        out.write("data: ".getBytes(StandardCharsets.UTF_8));
+        out.write(objectMapper.writeValueAsBytes(event));
+        out.write("\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private ObjectNode usage(int promptTokens, int completionTokens) {
+        return objectMapper.createObjectNode()
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+    }
+
+    private void sendError(HttpExchange exchange, int status, String code, String message) throws IOException {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.putObject("error")
+                .put("message", message)
+                .put("type", code)
+                .put("code", code);
+        byte[] body = objectMapper.writeValueAsBytes(error);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private String promptOf(JsonNode request) {
+        StringBuilder prompt = new StringBuilder();
+        for (JsonNode message : request.path("messages")) {
+            prompt.append(message.path("content").asText("")).append('\n');
+        }
+        return prompt.toString();
+    }
+
+    private String contentFor(String prompt) {
+        String lowerPrompt = prompt.toLowerCase();
+        for (Map.Entry<String, String> fixture : fixtures.entrySet()) {
+            if (lowerPrompt.contains(fixture.getKey())) {
+                return fixture.getValue();
+            }
+        }
+        int words = (int) Math.max(1, sample(config.getResponseTokens(), config.getResponseTokensStdDev()));
+        StringBuilder filler = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            filler.append(i == 0 ? "" : " ").append(FILLER_WORDS[random.nextInt(FILLER_WORDS.length)]);
+        }
+        return filler.append('.').toString();
+    }
+
+    /**
+     * Split content into whitespace-preserving pieces that approximate LLM tokens.
+     */
+    private static List<String> tokenize(String content) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= content.length(); i++) {
+            if (i == content.length() || Character.isWhitespace(content.charAt(i - 1))
+                    && !Character.isWhitespace(content.charAt(i))) {
+                tokens.add(content.substring(start, i));
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    private long generationMillis(int tokens) {
+        double tokensPerSecond = Math.max(1.0, sample(config.getTokensPerSecond(), config.getTokensPerSecondStdDev()));
+        return (long) (tokens * 1000.0 / tokensPerSecond);
+    }
+
+    private double sample(double mean, double stdDev) {
+        return Math.max(0.0, mean + random.nextGaussian() * stdDev);
+    }
+
+    private static void sleep(double millis) throws InterruptedException {
+        if (millis > 0) {
+            TimeUnit.MICROSECONDS.sleep((long) (millis * 1000));
+        }
+    }
+
+    /**
+     * Load fixtures keyed by their base name; a fixture directory overrides the bundled ones.
+     */
+    private static Map<String, String> loadFixtures(String fixtureDirectory) throws IOException {
+        Map<String, String> fixtures = new LinkedHashMap<>();
+        if (fixtureDirectory != null && !fixtureDirectory.isBlank()) {
+            try (Stream<Path> files = Files.list(Path.of(fixtureDirectory))) {
+                for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    fixtures.put(baseName(file.getFileName().toString()), Files.readString(file));
+                }
+            }
+            return fixtures;
+        }
+        for (String name : BUNDLED_FIXTURES) {
+            try (InputStream in = FakeOpenAIServer.class.getClassLoader().getResourceAsStream(FIXTURE_ROOT + "/" + name)) {
+                if (in == null) {
+                    throw new UncheckedIOException(new IOException("Missing bundled fixture: " + name));
+                }
+                fixtures.put(baseName(name), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return fixtures;
+    }
+
+    private static String baseName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return (dot > 0 ? fileName.substring(0, dot) : fileName).toLowerCase();
+    }
+
+    /**
+     * Behaviour of the fake server. Latencies are in milliseconds; all distributions are
+     * normal with the given mean and standard deviation, clipped at zero.
+     */
+    @Getter
+    @Builder
+    public static class Config {
+
+        @Builder.Default
+        private final int port = 0;
+
+        @Builder.Default
+        private final double timeToFirstTokenMillis = 0;
+
+        @Builder.Default
+        private final double timeToFirstTokenStdDevMillis = 0;
+
+        /**
+         * Generation speed after the first token; the default is fast enough to keep unit tests instant.
+         */
+        @Builder.Default
+        private final double tokensPerSecond = 1_000_000;
+
+        @Builder.Default
+        private final double tokensPerSecondStdDev = 0;
+
+        /**
+         * Length of generated filler responses, used when no fixture matches the prompt.
+         */
+        @Builder.Default
+        private final double responseTokens = 150;
+
+        @Builder.Default
+        private final double responseTokensStdDev = 0;
+
+        /**
+         * Probability in [0, 1] that a request fails with HTTP 500.
+         */
+        @Builder.Default
+        private final double errorRate = 0;
+
+        /**
+         * Every {@code rateLimitBurstEvery} requests, the last {@code rateLimitBurstLength} get HTTP 429.
+         */
+        @Builder.Default
+        private final int rateLimitBurstEvery = 0;
+
+        @Builder.Default
+        private final int rateLimitBurstLength = 0;
+
+        @Builder.Default
+        private final int retryAfterSeconds = 1;
+
+        private final String fixtureDirectory;
+
+        @Builder.Default
+        private final long seed = 42L;
+
+        public static Config fromSystemProperties() {
+            return Config.builder()
+                    .port(Integer.getInteger("fake-llm.port", 8089))
+                    .timeToFirstTokenMillis(doubleProperty("fake-llm.ttft-ms", 400))
+                    .timeToFirstTokenStdDevMillis(doubleProperty("fake-llm.ttft-stddev-ms", 150))
+                    .tokensPerSecond(doubleProperty("fake-llm.tokens-per-second", 50))
+                    .tokensPerSecondStdDev(doubleProperty("fake-llm.tokens-per-second-stddev", 10))
+                    .responseTokens(doubleProperty("fake-llm.response-tokens", 250))
+                    .responseTokensStdDev(doubleProperty("fake-llm.response-tokens-stddev", 100))
+                    .errorRate(doubleProperty("fake-llm.error-rate", 0.01))
+                    .rateLimitBurstEvery(Integer.getInteger("fake-llm.429-burst-every", 0))
+                    .rateLimitBurstLength(Integer.getInteger("fake-llm.429-burst-length", 0))
+                    .retryAfterSeconds(Integer.getInteger("fake-llm.retry-after-seconds", 1))
+                    .fixtureDirectory(System.getProperty("fake-llm.fixtures"))
+                    .seed(Long.getLong("fake-llm.seed", 42L))
+                    .build();
+        }
+
+        private static double doubleProperty(String name, double defaultValue) {
+            String value = System.getProperty(name);
+            return value != null ? Double.parseDouble(value) : defaultValue;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ttft=%.0f±%.0fms, tps=%.0f±%.0f, tokens=%.0f±%.0f, errorRate=%.3f, 429 burst=%d/%d",
+                    timeToFirstTokenMillis, timeToFirstTokenStdDevMillis, tokensPerSecond, tokensPerSecondStdDev,
+                    responseTokens, responseTokensStdDev, errorRate, rateLimitBurstLength, rateLimitBurstEvery);
+        }
+    }
+}
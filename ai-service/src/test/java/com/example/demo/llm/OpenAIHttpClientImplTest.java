@@ -0,0 +1,49 @@
+package com.example.demo.llm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.exceptions.AIServiceException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class OpenAIHttpClientImplTest {
+
+    private static OpenAIHttpClientImpl clientFor(FakeOpenAIServer server) {
+        return new OpenAIHttpClientImpl(new ObjectMapper(), "", server.baseUrl(),
+                "gpt-3.5-turbo", 0.7, 5_000, 10_000);
+    }
+
+    @Test
+    void parsesContentAndUsageFromFixture() throws Exception {
+        try (FakeOpenAIServer server = new FakeOpenAIServer().start()) {
+            OpenAIModels.ChatCompletionResponse response = clientFor(server)
+                    .complete(List.of(OpenAIModels.Message.user("Please give me a hint for question 3")));
+
+            assertThat(response.getChoices()).hasSize(1);
+            assertThat(response.getChoices().get(0).getMessage().getContent()).contains("Think about");
+            assertThat(response.getUsage().getCompletionTokens()).isPositive();
+            assertThat(response.getUsage().getTotalTokens())
+                    .isEqualTo(response.getUsage().getPromptTokens() + response.getUsage().getCompletionTokens());
+        }
+    }
+
+    @Test
+    void surfacesRateLimitBurstsAsServiceErrors() throws Exception {
+        FakeOpenAIServer.Config config = FakeOpenAIServer.Config.builder()
+                .rateLimitBurstEvery(2)
+                .rateLimitBurstLength(1)
+                .build();
+        try (FakeOpenAIServer server = new FakeOpenAIServer(config).start()) {
+            OpenAIHttpClientImpl client = clientFor(server);
+
+            assertThat(client.chat("first request")).isNotBlank();
+            assertThatThrownBy(() -> client.chat("second request"))
+                    .isInstanceOf(AIServiceException.class)
+                    .hasMessageContaining("429");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.example.demo.dto.response.WeaknessSummaryDTO;
+import com.example.demo.models.FeedbackRecord;
+
+/**
+ * Runs the weaknesses aggregation (constructor expression, GROUP BY over the element collection,
+ * ordering and paging) against an embedded H2 database.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class FeedbackHistoryRepositoryTest {
+
+    /**
+     * DemoApplication also enables Feign clients, which the JPA slice cannot create,
+     * so the slice is bootstrapped from the persistence packages only.
+     */
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = FeedbackRecord.class)
+    @EnableJpaRepositories(basePackageClasses = FeedbackHistoryRepository.class)
+    static class PersistenceSlice {
+    }
+
+    private static final String COURSE_ID = "course-1";
+
+    @Autowired
+    private FeedbackHistoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.saveAll(List.of(
+                feedback("student-1", COURSE_ID, "assessment-1", List.of("Recursion", "Loop invariants")),
+                feedback("student-2", COURSE_ID, "assessment-1", List.of("Recursion", "Edge case handling")),
+                feedback("student-1", COURSE_ID, "assessment-2", List.of("Recursion", "Edge case handling")),
+                feedback("student-3", COURSE_ID, "assessment-1", List.of("Loop invariants")),
+                feedback("student-4", COURSE_ID, "assessment-1", List.of()),
+                feedback("student-1", "course-2", "assessment-9", List.of("Pointers", "Pointers", "Recursion"))));
+    }
+
+    @Test
+    void weaknessesAreCountedPerOccurrenceAndPerStudent() {
+        List<WeaknessSummaryDTO> weaknesses = repository.findCommonWeaknessesByCourseId(COURSE_ID, PageRequest.of(0, 10));
+
+        assertThat(weaknesses)
+                .extracting(WeaknessSummaryDTO::getWeakness, WeaknessSummaryDTO::getOccurrences, WeaknessSummaryDTO::getStudentCount)
+                .containsExactly(
+                        tuple("Recursion", 3L, 2L),
+                        tuple("Edge case handling", 2L, 2L),
+                        tuple("Loop invariants", 2L, 2L));
+    }
+
+    @Test
+    void pageableLimitsTheMostCommonWeaknesses() {
+        List<WeaknessSummaryDTO> firstPage = repository.findCommonWeaknessesByCourseId(COURSE_ID, PageRequest.of(0, 2));
+        List<WeaknessSummaryDTO> secondPage = repository.findCommonWeaknessesByCourseId(COURSE_ID, PageRequest.of(1, 2));
+
+        assertThat(firstPage).extracting(WeaknessSummaryDTO::getWeakness)
+                .containsExactly("Recursion", "Edge case handling");
+        assertThat(secondPage).extracting(WeaknessSummaryDTO::getWeakness)
+                .containsExactly("Loop invariants");
+    }
+
+    @Test
+    void otherCoursesAreNotCounted() {
+        assertThat(repository.findCommonWeaknessesByCourseId("course-2", PageRequest.of(0, 10)))
+                .extracting(WeaknessSummaryDTO::getWeakness, WeaknessSummaryDTO::getOccurrences, WeaknessSummaryDTO::getStudentCount)
+                .containsExactly(
+                        tuple("Pointers", 2L, 1L),
+                        tuple("Recursion", 1L, 1L));
+        assertThat(repository.findCommonWeaknessesByCourseId("course-unknown", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    private static FeedbackRecord feedback(String studentId, String courseId, String assessmentId, List<String> weaknesses) {
+        return FeedbackRecord.builder()
+                .studentId(studentId)
+                .courseId(courseId)
+                .assessmentId(assessmentId)
+                .feedbackText("Feedback for " + assessmentId)
+                .weaknesses(new ArrayList<>(weaknesses))
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.services.dataprovider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.material.ChapterDTO;
+import com.example.demo.dto.material.ContentChangeEventDTO;
+import com.example.demo.dto.material.MaterialDTO;
+
+/**
+ * Change events evict exactly the listings they name; events without a course or chapter id
+ * drop every listing of that kind instead of failing.
+ */
+class CourseMaterialsCacheTest {
+
+    private CourseMaterialsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CourseMaterialsCache();
+        cache.activate();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void materialEventEvictsOnlyItsChapter() {
+        materials("chapter-1");
+        materials("chapter-2");
+
+        cache.apply(event("MATERIAL", "course-1", "chapter-1"));
+        materials("chapter-1");
+        materials("chapter-2");
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void materialEventWithoutChapterIdEvictsAllMaterialListings() {
+        materials("chapter-1");
+        materials("chapter-2");
+        chapters("course-1");
+
+        cache.apply(event("MATERIAL", "course-1", null));
+        materials("chapter-1");
+        materials("chapter-2");
+        chapters("course-1");
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void chapterEventWithoutIdsEvictsAllListings() {
+        chapters("course-1");
+        materials("chapter-1");
+
+        cache.apply(event("CHAPTER", null, null));
+        chapters("course-1");
+        materials("chapter-1");
+
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void chapterEventEvictsItsCourseAndChapter() {
+        chapters("course-1");
+        chapters("course-2");
+        materials("chapter-1");
+        materials("chapter-2");
+
+        cache.apply(event("CHAPTER", "course-1", "chapter-1"));
+        chapters("course-1");
+        chapters("course-2");
+        materials("chapter-1");
+        materials("chapter-2");
+
+        assertThat(loads).hasValue(6);
+    }
+
+    private void chapters(String courseId) {
+        cache.chapters(courseId, () -> {
+            loads.incrementAndGet();
+            return List.of(new ChapterDTO());
+        });
+    }
+
+    private void materials(String chapterId) {
+        cache.materials(chapterId, () -> {
+            loads.incrementAndGet();
+            return List.of(new MaterialDTO());
+        });
+    }
+
+    private static ContentChangeEventDTO event(String aggregateType, String courseId, String chapterId) {
+        return ContentChangeEventDTO.builder()
+                .aggregateType(aggregateType)
+                .courseId(courseId)
+                .chapterId(chapterId)
+                .changeType("UPDATED")
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.services.feedback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The streaming parser reads the structured fields of valid model output and falls back to
+ * plain text for truncated or non-JSON output instead of failing the feedback task.
+ */
+class FeedbackResponseParserTest {
+
+    private final FeedbackResponseParser parser = new FeedbackResponseParser(new ObjectMapper());
+
+    @Test
+    void validJsonInACodeFenceIsParsed() {
+        String raw = """
+                ```json
+                {
+                  "summary": "Solid attempt.",
+                  "strengths": ["Basic syntax", "  Conditional logic  "],
+                  "weaknesses": ["Loop invariants", "", 42, {"nested": "ignored"}],
+                  "recommendedTopics": "Boundary value testing",
+                  "score": {"value": 7},
+                  "feedback": "## Feedback\\nKeep going."
+                }
+                ```
+                """;
+
+        StructuredFeedback feedback = parser.parse(raw);
+
+        assertThat(feedback.getSummary()).isEqualTo("Solid attempt.");
+        assertThat(feedback.getFeedbackText()).isEqualTo("## Feedback\nKeep going.");
+        assertThat(feedback.getStrengths()).containsExactly("Basic syntax", "Conditional logic");
+        assertThat(feedback.getWeaknesses()).containsExactly("Loop invariants");
+        assertThat(feedback.getRecommendedTopics()).containsExactly("Boundary value testing");
+    }
+
+    @Test
+    void summaryIsUsedWhenFeedbackTextIsMissing() {
+        StructuredFeedback feedback = parser.parse("{\"summary\": \"Short summary\", \"weaknesses\": [\"Recursion\"]}");
+
+        assertThat(feedback.getFeedbackText()).isEqualTo("Short summary");
+        assertThat(feedback.getWeaknesses()).containsExactly("Recursion");
+    }
+
+    @Test
+    void labelsAreCappedInCountAndLength() {
+        String longLabel = "x".repeat(FeedbackResponseParser.MAX_LABEL_LENGTH + 50);
+        StringBuilder weaknesses = new StringBuilder("\"" + longLabel + "\"");
+        for (int i = 0; i < FeedbackResponseParser.MAX_LABELS + 5; i++) {
+            weaknesses.append(", \"w").append(i).append('"');
+        }
+
+        StructuredFeedback feedback = parser.parse("{\"feedback\": \"text\", \"weaknesses\": [" + weaknesses + "]}");
+
+        assertThat(feedback.getWeaknesses()).hasSize(FeedbackResponseParser.MAX_LABELS);
+        assertThat(feedback.getWeaknesses().get(0)).hasSize(FeedbackResponseParser.MAX_LABEL_LENGTH);
+    }
+
+    @Test
+    void truncatedJsonFallsBackToPlainText() {
+        String raw = "{\"summary\": \"Good work\", \"weaknesses\": [\"Recursion\", \"Loo";
+
+        StructuredFeedback feedback = parser.parse(raw);
+
+        assertThat(feedback.getFeedbackText()).isEqualTo(raw);
+        assertThat(feedback.getSummary()).isNull();
+        assertThat(feedback.getWeaknesses()).isEmpty();
+    }
+
+    @Test
+    void truncatedAfterACompleteFieldFallsBackToPlainText() {
+        String raw = "{\"feedback\": \"Nearly done\", \"strengths\": [\"Syntax\"]";
+
+        assertThat(parser.parse(raw).getFeedbackText()).isEqualTo(raw);
+        assertThat(parser.parse(raw).getStrengths()).isEmpty();
+    }
+
+    @Test
+    void nonJsonOutputIsKeptAsText() {
+        String raw = "Great job overall. Review loop invariants before the next test.";
+
+        StructuredFeedback feedback = parser.parse(raw);
+
+        assertThat(feedback.getFeedbackText()).isEqualTo(raw);
+        assertThat(feedback.getStrengths()).isEmpty();
+        assertThat(feedback.getWeaknesses()).isEmpty();
+        assertThat(feedback.getRecommendedTopics()).isEmpty();
+    }
+
+    @Test
+    void textWithBracesThatIsNotJsonIsKeptAsText() {
+        String raw = "Use a map like {key -> value} to count occurrences.";
+
+        assertThat(parser.parse(raw).getFeedbackText()).isEqualTo(raw);
+    }
+
+    @Test
+    void blankOutputIsKeptAsIs() {
+        assertThat(parser.parse("  ").getFeedbackText()).isEqualTo("  ");
+        assertThat(parser.parse(null).getFeedbackText()).isNull();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.services.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.services.prompt.PromptType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Stage timings are snapshotted when the trace closes and every timer carries the task outcome.
+ */
+class TaskTraceTest {
+
+    private SimpleMeterRegistry registry;
+    private TaskMetrics taskMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        taskMetrics = new TaskMetrics(registry);
+    }
+
+    @Test
+    void completedTraceReturnsAnImmutableSnapshotAndIsTaggedSuccess() {
+        TaskTrace trace = taskMetrics.start("HINT", PromptType.HINT_GENERATION);
+        trace.time(TaskStage.PROMPT_BUILD, () -> "prompt");
+        trace.recordPromptSize("prompt");
+        trace.time(TaskStage.PERSIST, () -> { });
+
+        Map<String, Object> stages = trace.complete();
+        trace.close();
+
+        assertThat(stages).containsKeys("promptBuildMs", "persistMs", "totalMs")
+                .containsEntry("promptChars", 6);
+        assertThatThrownBy(() -> stages.put("llmMs", 1L)).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(trace.breakdown()).isSameAs(stages);
+
+        assertThat(registry.get(TaskMetrics.TASK_TIMER).tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get(TaskMetrics.STAGE_TIMER).tags("outcome", "success", "stage", "persist")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void traceClosedByAFailureIsTaggedError() {
+        try (TaskTrace trace = taskMetrics.start("HINT", PromptType.HINT_GENERATION)) {
+            assertThatThrownBy(() -> trace.time(TaskStage.LLM, () -> {
+                throw new IllegalStateException("LLM unavailable");
+            })).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(trace::breakdown).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(registry.get(TaskMetrics.TASK_TIMER).tag("outcome", "error").timer().count()).isEqualTo(1);
+        assertThat(registry.get(TaskMetrics.STAGE_TIMER).tags("outcome", "error", "stage", "llm")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.find(TaskMetrics.TASK_TIMER).tag("outcome", "success").timer()).isNull();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.services.usage;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.exceptions.QuotaExceededException;
+import com.example.demo.llm.OpenAIModels;
+import com.example.demo.repository.TokenUsageRepository;
+
+/**
+ * Daily totals are seeded from the database once per key and then tracked in memory.
+ */
+class TokenUsageServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 19);
+
+    private TokenUsageRepository repository;
+    private TokenUsageService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenUsageRepository.class);
+        Clock clock = Clock.fixed(Instant.parse("2026-10-19T10:00:00Z"), ZoneOffset.UTC);
+        service = new TokenUsageService(repository, clock, 1_000, 0);
+    }
+
+    @Test
+    void seedIsLoadedOnceAndRecordedTokensCountTowardsTheQuota() {
+        when(repository.sumTokensByStudentIdAndDate("student-1", TODAY)).thenReturn(900L);
+
+        assertThatCode(() -> service.checkQuota("student-1", "course-1")).doesNotThrowAnyException();
+        service.record("student-1", "course-1", "HINT", usage(60, 40));
+
+        assertThatThrownBy(() -> service.checkQuota("student-1", "course-1"))
+                .isInstanceOf(QuotaExceededException.class)
+                .hasMessageContaining("student-1");
+        verify(repository, times(1)).sumTokensByStudentIdAndDate("student-1", TODAY);
+    }
+
+    @Test
+    void flushedUsageIsNotCountedTwice() {
+        when(repository.sumTokensByStudentIdAndDate("student-1", TODAY)).thenReturn(0L);
+        service.record("student-1", null, "HINT", usage(500, 0));
+
+        service.flush();
+
+        verify(repository).saveAll(any());
+        // The in-memory total already holds the flushed tokens; the seed is not reloaded
+        assertThatCode(() -> service.checkQuota("student-1", null)).doesNotThrowAnyException();
+        verify(repository, times(1)).sumTokensByStudentIdAndDate("student-1", TODAY);
+    }
+
+    private static OpenAIModels.Usage usage(int promptTokens, int completionTokens) {
+        OpenAIModels.Usage usage = new OpenAIModels.Usage();
+        usage.setPromptTokens(promptTokens);
+        usage.setCompletionTokens(completionTokens);
+        return usage;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.course.service.repository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.course.service.model.chapter.Chapter;
+import com.example.course.service.model.material.InteractiveMaterial;
+import com.example.course.service.model.material.Material;
+import com.example.course.service.model.material.TextMaterial;
+import com.example.course.service.model.material.VideoMaterial;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+import jakarta.persistence.SharedCacheMode;
+
+/**
+ * Read path mà ai-service gọi lặp lại (danh sách chapter của course, rồi material của từng chapter)
+ * khi tắt và bật second-level + query cache: số lần đọc / giây, và counter statements là số câu SQL
+ * (chia cho số lần đọc để ra SQL mỗi lần đọc).
+ * Dùng H2 nhúng nên chưa tính độ trễ mạng tới Postgres; trên DB thật chênh lệch còn lớn hơn.
+ *
+ * Chạy: {@code ./mvnw -Pjmh test-compile exec:exec -Djmh.args="SecondLevelCacheBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    private static final String COURSE_ID = "benchmark-course";
+
+    @Param({ "false", "true" })
+    public boolean cached;
+
+    @Param({ "30" })
+    public int chapters;
+
+    @Param({ "10" })
+    public int materialsPerChapter;
+
+    private EntityManagerFactory factory;
+    private Statistics statistics;
+
+    /**
+     * Số câu SQL đã chạy, JMH báo cáo theo cùng đơn vị với throughput của benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SqlCounter {
+        public long statements;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        factory = new PersistenceConfiguration("cache-benchmark-" + cached)
+                .provider(HibernatePersistenceProvider.class.getName())
+                .managedClass(Chapter.class)
+                .managedClass(Material.class)
+                .managedClass(TextMaterial.class)
+                .managedClass(VideoMaterial.class)
+                .managedClass(InteractiveMaterial.class)
+                .sharedCacheMode(SharedCacheMode.ENABLE_SELECTIVE)
+                .property(PersistenceConfiguration.JDBC_URL, "jdbc:h2:mem:cache-benchmark-" + cached + ";DB_CLOSE_DELAY=-1")
+                .property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "drop-and-create")
+                .property("hibernate.cache.use_second_level_cache", cached)
+                .property("hibernate.cache.use_query_cache", cached)
+                .property("hibernate.cache.region.factory_class", "jcache")
+                .property("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider")
+                .property("hibernate.javax.cache.missing_cache_strategy", "create")
+                .property("hibernate.generate_statistics", true)
+                .createEntityManagerFactory();
+        populate();
+        statistics = factory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public int readCourse(SqlCounter sql) {
+        long before = statistics.getPrepareStatementCount();
+        int titles = read();
+        sql.statements += statistics.getPrepareStatementCount() - before;
+        return titles;
+    }
+
+    /**
+     * Một lần đọc kiểu ai-service: chapter của course theo thứ tự, rồi material của từng chapter.
+     */
+    private int read() {
+        EntityManager entityManager = factory.createEntityManager();
+        try {
+            List<Chapter> courseChapters = entityManager
+                    .createQuery("SELECT c FROM Chapter c WHERE c.courseId = :courseId ORDER BY c.orderIndex, c.id", Chapter.class)
+                    .setParameter("courseId", COURSE_ID)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .getResultList();
+            int titles = 0;
+            for (Chapter chapter : courseChapters) {
+                List<Material> materials = entityManager
+                        .createQuery("SELECT m FROM Material m WHERE m.chapterId = :chapterId", Material.class)
+                        .setParameter("chapterId", chapter.getId())
+                        .setHint(HibernateHints.HINT_CACHEABLE, true)
+                        .getResultList();
+                for (Material material : materials) {
+                    titles += material.getTitle() != null ? 1 : 0;
+                }
+            }
+            return titles;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void populate() {
+        factory.runInTransaction(entityManager -> {
+            for (int c = 0; c < chapters; c++) {
+                Chapter chapter = new Chapter();
+                chapter.setCourseId(COURSE_ID);
+                chapter.setTitle("Chapter " + c);
+                chapter.setOrderIndex(c);
+                entityManager.persist(chapter);
+                for (int m = 0; m < materialsPerChapter; m++) {
+                    TextMaterial material = new TextMaterial();
+                    material.setChapterId(chapter.getId());
+                    material.setTitle("Material " + c + "." + m);
+                    material.setContentBody("Lesson body " + c + "." + m);
+                    entityManager.persist(material);
+                }
+            }
+        });
+    }
+}
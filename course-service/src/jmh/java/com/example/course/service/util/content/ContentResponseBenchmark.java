@@ -0,0 +1,127 @@
+package com.example.course.service.util.content;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.course.service.dto.response.ResponseObject;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Số byte cấp phát cho mỗi response nội dung của một tài liệu lớn:
+ * đường cũ (JSONObject -> toString -> ObjectMapper.readValue Map -> serialize ResponseObject)
+ * so với ContentResponseWriter (ExtractedDocument -> JsonGenerator ghi thẳng content), toàn bộ và theo khoảng trang.
+ * Output bị bỏ (chỉ đếm byte) để bộ đệm response không tính vào phép đo.
+ *
+ * Chạy: {@code ./mvnw -Pjmh test-compile exec:exec -Djmh.args="ContentResponseBenchmark -prof gc"},
+ * so sánh gc.alloc.rate.norm (byte / response).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentResponseBenchmark {
+
+    private static final String MESSAGE = "Get content for AI service successfully";
+
+    @Param({ "2000" })
+    public int pages;
+
+    @Param({ "3000" })
+    public int charsPerPage;
+
+    private ObjectMapper objectMapper;
+    private ContentResponseWriter writer;
+    private ExtractedDocument document;
+    private final CountingOutputStream out = new CountingOutputStream();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        writer = new ContentResponseWriter(objectMapper);
+        document = generateDocument(pages, charsPerPage);
+    }
+
+    @Benchmark
+    public long jsonRoundTrip() throws IOException {
+        JSONObject extracted = new JSONObject();
+        extracted.put("fileName", document.getFileName());
+        extracted.put("pages", document.getPages());
+        extracted.put("pageOffsets", document.getPageOffsets());
+        extracted.put("content", document.getContent());
+        Map<String, Object> content = objectMapper.readValue(extracted.toString(), new TypeReference<>() {});
+        content.put("status", document.getStatus());
+        out.count = 0;
+        objectMapper.writeValue(out, ResponseObject.builder().status(200).message(MESSAGE).data(content).build());
+        return out.count;
+    }
+
+    @Benchmark
+    public long streamed() throws IOException {
+        out.count = 0;
+        writer.write(out, 200, MESSAGE, ContentSelection.whole(document));
+        return out.count;
+    }
+
+    @Benchmark
+    public long streamedPageRange() throws IOException {
+        out.count = 0;
+        writer.write(out, 200, MESSAGE, ContentRangeSelector.select(document, "1-" + pages / 10, null));
+        return out.count;
+    }
+
+    private static ExtractedDocument generateDocument(int pages, int charsPerPage) {
+        String line = "Layered architecture \"separates\" presentation, domain and data access.\n";
+        StringBuilder text = new StringBuilder(pages * charsPerPage);
+        List<Integer> pageOffsets = new ArrayList<>(pages);
+        for (int page = 0; page < pages; page++) {
+            pageOffsets.add(text.length());
+            int end = text.length() + charsPerPage;
+            while (text.length() < end) {
+                text.append(line, 0, Math.min(line.length(), end - text.length()));
+            }
+        }
+        return ExtractedDocument.builder()
+                .fileName("benchmark.pdf")
+                .status("COMPLETED")
+                .pages(pages)
+                .pageOffsets(pageOffsets)
+                .content(text.toString())
+                .build();
+    }
+
+    // objectMapper.writeValue đóng stream sau khi ghi; close không làm gì để dùng lại được
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
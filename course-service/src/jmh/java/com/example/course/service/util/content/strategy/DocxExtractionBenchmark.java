@@ -0,0 +1,87 @@
+package com.example.course.service.util.content.strategy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.course.service.util.content.ExtractedDocument;
+
+/**
+ * So sánh DocxReader (DOM XWPFDocument) với StreamingDocxReader (StAX) trên một DOCX lớn có header và bảng:
+ * thời gian mỗi lần đọc, và với {@code -prof gc} số byte cấp phát mỗi lần đọc (gc.alloc.rate.norm).
+ * Heap cố định (-Xmx512m) để DOM chạm giới hạn trước khi StAX bị ảnh hưởng.
+ *
+ * Chạy: {@code ./mvnw -Pjmh test-compile exec:exec -Djmh.args="DocxExtractionBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class DocxExtractionBenchmark {
+
+    @Param({ "50000" })
+    public int paragraphs;
+
+    @Param({ "dom", "streaming" })
+    public String reader;
+
+    private byte[] docx;
+    private ContentReaderStrategy strategy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        docx = generateDocx(paragraphs);
+        strategy = "dom".equals(reader) ? new DocxReader() : new StreamingDocxReader();
+    }
+
+    @Benchmark
+    public ExtractedDocument read() throws Exception {
+        ExtractedDocument result = strategy.read(new ByteArrayInputStream(docx), "benchmark.docx");
+        if (result.isFailed()) {
+            throw new IllegalStateException(result.getError());
+        }
+        return result;
+    }
+
+    private static byte[] generateDocx(int paragraphs) throws IOException {
+        try (XWPFDocument document = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            document.createHeader(HeaderFooterType.DEFAULT)
+                    .createParagraph().createRun().setText("Software Architecture - Course Handbook");
+
+            for (int i = 1; i <= paragraphs; i++) {
+                document.createParagraph().createRun().setText("Paragraph " + i
+                        + ": layered architectures separate presentation, business and persistence concerns.");
+                if (i % 500 == 0) {
+                    XWPFTable table = document.createTable(10, 3);
+                    for (XWPFTableRow row : table.getRows()) {
+                        row.getCell(0).setText("Pattern " + i);
+                        row.getCell(1).setText("Intent");
+                        row.getCell(2).setText("Consequences");
+                    }
+                }
+            }
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+}
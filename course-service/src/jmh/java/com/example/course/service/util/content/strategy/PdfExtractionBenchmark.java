@@ -0,0 +1,116 @@
+package com.example.course.service.util.content.strategy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.course.service.util.content.ExtractedDocument;
+import com.example.course.service.util.content.ExtractionCpuSlots;
+import com.example.course.service.util.content.ExtractionMemoryBudget;
+
+/**
+ * Throughput của PdfReader trên PDF nhiều trang theo số slot CPU (1 = tuần tự), để thấy mức tăng theo số core.
+ * Mỗi lần đọc giữ một slot như job của bulkhead, các slot còn lại được mượn để trích xuất trang song song.
+ * Cấu hình có slots lớn hơn số core của máy đo không có ý nghĩa.
+ *
+ * Chạy: {@code ./mvnw -Pjmh test-compile exec:exec -Djmh.args="PdfExtractionBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfExtractionBenchmark {
+
+    private static final int LINES_PER_PAGE = 45;
+
+    @Param({ "400" })
+    public int pages;
+
+    @Param({ "1", "2", "4", "8" })
+    public int slots;
+
+    private byte[] pdf;
+    private ExtractionCpuSlots cpuSlots;
+    private PdfReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        pdf = generatePdf(pages);
+        cpuSlots = new ExtractionCpuSlots(slots);
+        reader = new PdfReader(0, 1, 16, 16L * 1024 * 1024, System.getProperty("java.io.tmpdir"),
+                new ExtractionMemoryBudget(4L * 1024 * 1024 * 1024), cpuSlots);
+
+        // Kết quả song song phải giống hệt kết quả tuần tự
+        PdfReader sequential = new PdfReader(1, 1, 16, 16L * 1024 * 1024, System.getProperty("java.io.tmpdir"),
+                new ExtractionMemoryBudget(4L * 1024 * 1024 * 1024), new ExtractionCpuSlots(1));
+        if (!read(sequential).getContent().equals(read().getContent())) {
+            throw new IllegalStateException("Output with " + slots + " slots differs from sequential output");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        reader.shutdown();
+    }
+
+    @Benchmark
+    public ExtractedDocument read() throws Exception {
+        try (ExtractionCpuSlots.Lease ignored = cpuSlots.acquire()) {
+            return read(reader);
+        }
+    }
+
+    private ExtractedDocument read(PdfReader pdfReader) throws Exception {
+        ExtractedDocument result = pdfReader.read(new ByteArrayInputStream(pdf), "benchmark.pdf");
+        if (result.isFailed()) {
+            throw new IllegalStateException(result.getError());
+        }
+        return result;
+    }
+
+    private static byte[] generatePdf(int pages) throws IOException {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int p = 1; p <= pages; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                    stream.beginText();
+                    stream.setFont(font, 10);
+                    stream.setLeading(14);
+                    stream.newLineAtOffset(50, 750);
+                    for (int line = 1; line <= LINES_PER_PAGE; line++) {
+                        stream.showText("Page " + p + " line " + line
+                                + ": the quick brown fox jumps over the lazy dog while recursion unwinds.");
+                        stream.newLine();
+                    }
+                    stream.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
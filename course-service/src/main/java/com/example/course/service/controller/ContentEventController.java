@@ -0,0 +1,31 @@
+package com.example.course.service.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.course.service.util.events.ContentChangeBroadcaster;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("events")
+@RequiredArgsConstructor
+@Tag(name = "Content Event Controller", description = "Sự kiện thay đổi chapter, material và file nội dung")
+public class ContentEventController {
+
+    private final ContentChangeBroadcaster broadcaster;
+
+    @Operation(summary = "Đăng ký nhận sự kiện thay đổi nội dung (Server-Sent Events, event \"content-change\"). "
+            + "Gửi Last-Event-ID để nhận lại các sự kiện đã lỡ; event \"connected\" có data \"reset\" "
+            + "khi không phát lại được và client cần làm mới dữ liệu đã cache")
+    @GetMapping(value = "/content", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return broadcaster.subscribe(lastEventId);
+    }
+}
@@ -2,21 +2,54 @@ package com.example.course.service.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import com.example.course.service.dto.MaterialDTO;
+import com.example.course.service.dto.MaterialFileDTO;
 import com.example.course.service.dto.response.ResponseObject;
 import com.example.course.service.service.IMaterialManagementService;
+import com.example.course.service.service.IMaterialSearchService;
+import com.example.course.service.service.ICourseImportService;
+import com.example.course.service.service.ITranscriptSegmentService;
+import com.example.course.service.dto.bulk.BulkImportResultDTO;
+import com.example.course.service.exception.BadRequestException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import com.example.course.service.dto.ChapterDTO;
 import com.example.course.service.service.IChapterManagementService;
+import com.example.course.service.util.content.ContentResponseWriter;
+import com.example.course.service.util.content.ContentSelection;
+import com.example.course.service.util.content.store.StoredText;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -65,19 +98,35 @@ public class CoreCourseController {
         );
     }
 
-    @Operation(summary = "Lấy danh sách các chapter hiện có")
+    @Operation(summary = "Lấy một trang chapter, sắp theo orderIndex. Không truyền cursor là trang đầu, size mặc định 20, tối đa 100")
     @GetMapping("chapters")
-    public ResponseEntity<ResponseObject> getChapterList(@PathVariable String courseId) {
+    public ResponseEntity<ResponseObject> getChapterList(@PathVariable String courseId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
         // return new ResponseObject("object responded", 200, chapterManagementService.listChapters(null));
+        // Luôn phân trang: không có cursor / size thì trả trang đầu với size mặc định thay vì toàn bộ danh sách
+        Object chapters = chapterManagementService.listChapters(courseId, cursor, size);
         return ResponseEntity.status(HttpStatus.OK).body(
                 ResponseObject.builder()
                         .status(HttpStatus.OK.value())
                         .message("Query materials successfully")
-                        .data(chapterManagementService.listChapters(courseId))
+                        .data(chapters)
                         .build()
         );
     }
     
+    @Operation(summary = "Lấy cây chapter -> material của course (không gồm nội dung material)")
+    @GetMapping("tree")
+    public ResponseEntity<ResponseObject> getCourseTree(@PathVariable String courseId) {
+        return ResponseEntity.status(HttpStatus.OK).body(
+                ResponseObject.builder()
+                        .status(HttpStatus.OK.value())
+                        .message("Query course tree successfully")
+                        .data(chapterManagementService.getCourseTree(courseId))
+                        .build()
+        );
+    }
+
     @Operation(summary = "Xóa chapter với id")
     @DeleteMapping("chapter/{id}") 
     public ResponseEntity<ResponseObject> deleteChapter(@PathVariable String id) {
@@ -91,11 +140,76 @@ public class CoreCourseController {
         );
     }
     private final IMaterialManagementService materialService;
+    private final ContentResponseWriter contentResponseWriter;
+    private final IMaterialSearchService materialSearchService;
+    private final ICourseImportService courseImportService;
+    private final ITranscriptSegmentService transcriptSegmentService;
 
-    @Operation(summary = "Lấy danh sách Material của một Chapter")
+    // Chỉ áp dụng cho endpoint tải file gốc; các request async khác giữ timeout mặc định
+    @Value("${content.download.timeout-ms:1800000}")
+    long downloadTimeoutMillis;
+
+    @Operation(summary = "Import hàng loạt chapter (kèm material) từ JSON array hoặc NDJSON, mỗi phần tử / dòng là một chapter")
+    @PostMapping(value = "import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResponseObject> importChapters(@PathVariable String courseId, InputStream body) {
+        return imported(courseImportService.importChapters(courseId, body, Map.of()));
+    }
+
+    @Operation(summary = "Import hàng loạt chapter kèm file: part manifest (JSON array / NDJSON), các part file được tham chiếu qua trường file của chapter, upload song song")
+    @PostMapping(value = "import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResponseObject> importChaptersWithFiles(@PathVariable String courseId,
+                                                                  @RequestParam Map<String, MultipartFile> files) throws IOException {
+        MultipartFile manifest = files.get("manifest");
+        if (manifest == null) {
+            throw new BadRequestException("Missing manifest part");
+        }
+        try (InputStream body = manifest.getInputStream()) {
+            return imported(courseImportService.importChapters(courseId, body, files));
+        }
+    }
+
+    @Operation(summary = "Import hàng loạt Material vào Chapter từ JSON array hoặc NDJSON")
+    @PostMapping(value = "/chapters/{chapterId}/materials/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ResponseObject> importMaterials(@PathVariable String chapterId, InputStream body) {
+        return imported(courseImportService.importMaterials(chapterId, body));
+    }
+
+    private static ResponseEntity<ResponseObject> imported(BulkImportResultDTO result) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                ResponseObject.builder()
+                        .status(HttpStatus.CREATED.value())
+                        .message("Import successfully")
+                        .data(result)
+                        .build()
+        );
+    }
+
+    @Operation(summary = "Tìm kiếm full-text trong tiêu đề, nội dung, transcript và file của Material trong course (có thể lọc theo chapter)")
+    @GetMapping("/search")
+    public ResponseEntity<ResponseObject> searchMaterials(@PathVariable String courseId,
+                                                          @RequestParam String q,
+                                                          @RequestParam(required = false) String chapterId,
+                                                          @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.status(HttpStatus.OK).body(
+                ResponseObject.builder()
+                        .status(HttpStatus.OK.value())
+                        .message("Search materials successfully")
+                        .data(materialSearchService.search(courseId, chapterId, q, limit))
+                        .build()
+        );
+    }
+
+    @Operation(summary = "Lấy một trang Material của Chapter (mặc định chỉ thông tin rút gọn, view=full để lấy cả nội dung). Không truyền cursor là trang đầu, size mặc định 20, tối đa 100")
     @GetMapping("/chapters/{chapterId}/materials")
-    public ResponseEntity<ResponseObject> getMaterialsByChapter(@PathVariable String chapterId) {
-        List<MaterialDTO> materials = materialService.listMaterials(chapterId);
+    public ResponseEntity<ResponseObject> getMaterialsByChapter(@PathVariable String chapterId,
+                                                                @RequestParam(defaultValue = "summary") String view,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        boolean full = "full".equalsIgnoreCase(view);
+        Object materials = full
+                ? materialService.listMaterials(chapterId, cursor, size)
+                : materialService.listMaterialSummaries(chapterId, cursor, size);
 
         return ResponseEntity.status(HttpStatus.OK).body(
                 ResponseObject.builder()
@@ -106,6 +220,44 @@ public class CoreCourseController {
         );
     }
 
+    @Operation(summary = "Lấy chi tiết 1 Material, gồm cả nội dung")
+    @GetMapping("/materials/{materialId}")
+    public ResponseEntity<ResponseObject> getMaterial(@PathVariable String materialId) {
+        return ResponseEntity.status(HttpStatus.OK).body(
+                ResponseObject.builder()
+                        .status(HttpStatus.OK.value())
+                        .message("Query material successfully")
+                        .data(materialService.getMaterial(materialId))
+                        .build()
+        );
+    }
+
+    @Operation(summary = "Lấy các đoạn transcript (SRT/VTT) của video: quanh mốc thời gian at (giây, ± window giây) "
+            + "hoặc khớp từ khóa q (kèm context đoạn trước / sau mỗi kết quả), thay vì cả transcript")
+    @GetMapping("/materials/{materialId}/transcript")
+    public ResponseEntity<ResponseObject> getTranscriptSegments(@PathVariable String materialId,
+                                                                @RequestParam(required = false) Double at,
+                                                                @RequestParam(defaultValue = "30") double window,
+                                                                @RequestParam(required = false) String q,
+                                                                @RequestParam(defaultValue = "1") int context,
+                                                                @RequestParam(defaultValue = "20") int limit) {
+        Object segments;
+        if (q != null && !q.isBlank()) {
+            segments = transcriptSegmentService.search(materialId, q, context, limit);
+        } else if (at != null) {
+            segments = transcriptSegmentService.around(materialId, at, window, limit);
+        } else {
+            throw new BadRequestException("Either at (seconds) or q is required");
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(
+                ResponseObject.builder()
+                        .status(HttpStatus.OK.value())
+                        .message("Query transcript segments successfully")
+                        .data(segments)
+                        .build()
+        );
+    }
+
     @Operation(summary = "Tạo Material mới trong Chapter")
     @PostMapping("/chapters/{chapterId}/materials")
     public ResponseEntity<ResponseObject> createMaterial(@PathVariable String chapterId, @RequestBody MaterialDTO materialDTO) {
@@ -148,16 +300,194 @@ public class CoreCourseController {
         );
     }
 
-    @Operation(summary = "Lấy nội dung 1 Material ")
-    @GetMapping("/chapters/{chapterId}/content")
-    public ResponseEntity<ResponseObject> getContentMaterialPDF(@PathVariable String chapterId) {
-        Map<String, Object> contentPDF = materialService.getContent(chapterId);
+    @Operation(summary = "Lấy nội dung 1 Material, có thể chỉ lấy một số trang (pages=from-to) hoặc khoảng ký tự (range=start-end). Hỗ trợ ETag / If-None-Match")
+    @GetMapping(value = "/chapters/{chapterId}/content", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getContentMaterialPDF(@PathVariable String chapterId,
+                                                                       @RequestParam(required = false) String pages,
+                                                                       @RequestParam(required = false) String range,
+                                                                       WebRequest request) {
+        ContentSelection contentPDF = materialService.getContent(chapterId, pages, range);
+
+        // Chỉ nội dung đã trích xuất xong mới có ETag; trạng thái PENDING/FAILED luôn trả đầy đủ
+        String etag = contentETag(contentPDF.document().objectEtag(), contentPDF.selectionTag(),
+                contentPDF.document().getFileName());
+        if (etag != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        // Ghi bằng JsonGenerator: content đi thẳng từ text đã cache ra response, không qua Map / String trung gian
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (etag != null) {
+            response.eTag(etag).cacheControl(CacheControl.noCache());
+        }
+        return response.body(out -> contentResponseWriter.write(out, HttpStatus.OK.value(),
+                "Get content for AI service successfully", contentPDF));
+    }
+
+    @Operation(summary = "Stream text đã trích xuất của 1 Material (UTF-8) thẳng từ segment file đã map, có thể chỉ lấy một số trang (pages=from-to). Hỗ trợ ETag / If-None-Match")
+    @GetMapping(value = "/chapters/{chapterId}/content/text", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamContentText(@PathVariable String chapterId,
+                                                                   @RequestParam(required = false) String pages,
+                                                                   WebRequest request) {
+        StoredText.Slice text = materialService.getContentText(chapterId, pages);
+
+        String etag = contentETag(text.etag(), text.pageRange() != null ? "p" + text.pageRange() : "all", null);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        ByteBuffer bytes = text.bytes();
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK)
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .contentLength(bytes.remaining())
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+        if (text.pageRange() != null) {
+            response.header("X-Page-Range", text.pageRange());
+        }
+        // Ghi từ vùng map ra output stream, không dựng String / JSON trung gian
+        return response.body(out -> {
+            WritableByteChannel channel = Channels.newChannel(out);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        });
+    }
+
+    @Operation(summary = "Tải file gốc của Material (video, PDF...) stream thẳng từ MinIO, hỗ trợ Range (206) để tua / đọc từng phần; redirect=true chuyển sang presigned URL")
+    @GetMapping("/chapters/{chapterId}/file")
+    public ResponseEntity<StreamingResponseBody> downloadFile(@PathVariable String chapterId,
+                                                              @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+                                                              @RequestParam(defaultValue = "false") boolean redirect,
+                                                              WebRequest request) {
+        if (redirect) {
+            // Client tải trực tiếp từ MinIO, không tốn thread / băng thông của course-service
+            String url = String.valueOf(materialService.getFileUrl(chapterId, false).get("url"));
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(url)).build();
+        }
 
+        MaterialFileDTO file = materialService.getFile(chapterId);
+        String etag = "\"" + file.getEtag().replace("\"", "") + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        long size = file.getSize();
+        long start = 0;
+        long end = size - 1;
+        HttpStatus status = HttpStatus.OK;
+        if (rangeHeader != null && !rangeHeader.isBlank()) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                return rangeNotSatisfiable(size);
+            }
+            // Chỉ hỗ trợ một khoảng; nhiều khoảng (multipart/byteranges) thì trả cả file (RFC 9110 cho phép bỏ qua Range)
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(size);
+                    end = range.getRangeEnd(size);
+                } catch (IllegalArgumentException e) {
+                    return rangeNotSatisfiable(size);
+                }
+                if (size == 0 || start >= size || start > end) {
+                    return rangeNotSatisfiable(size);
+                }
+                status = HttpStatus.PARTIAL_CONTENT;
+            }
+        }
+
+        long offset = start;
+        long length = end - start + 1;
+        Long streamLength = status == HttpStatus.PARTIAL_CONTENT ? length : null;
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status)
+                .contentType(MediaType.parseMediaType(file.getContentType()))
+                .contentLength(Math.max(0, length))
+                .eTag(etag)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(file.getFileName(), StandardCharsets.UTF_8)
+                        .build().toString());
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        if (size == 0) {
+            return response.build();
+        }
+        extendAsyncTimeout(request, downloadTimeoutMillis);
+        return response.body(out -> materialService.streamFile(chapterId, file.getEtag(), offset, streamLength, out));
+    }
+
+    @Operation(summary = "Lấy presigned URL (hết hạn sau minio.presign-expiry-seconds) để tải file gốc của Material trực tiếp từ MinIO")
+    @GetMapping("/chapters/{chapterId}/file/url")
+    public ResponseEntity<ResponseObject> getFileUrl(@PathVariable String chapterId,
+                                                     @RequestParam(defaultValue = "false") boolean download) {
         return ResponseEntity.status(HttpStatus.OK).body(
                 ResponseObject.builder()
                         .status(HttpStatus.OK.value())
-                        .message("Get content for AI service successfully")
-                        .data(contentPDF)
+                        .message("Create presigned URL successfully")
+                        .data(materialService.getFileUrl(chapterId, download))
+                        .build()
+        );
+    }
+
+    /**
+     * Timeout async cho riêng request này: StreamingResponseBody chạy với timeout mặc định của Spring MVC,
+     * interceptor đổi timeout ngay trước khi request chuyển sang xử lý async.
+     */
+    private static void extendAsyncTimeout(WebRequest request, long timeoutMillis) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor("downloadTimeout",
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                        if (webRequest instanceof AsyncWebRequest asyncWebRequest) {
+                            asyncWebRequest.setTimeout(timeoutMillis);
+                        }
+                    }
+                });
+    }
+
+    private static ResponseEntity<StreamingResponseBody> rangeNotSatisfiable(long size) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                .build();
+    }
+
+    /**
+     * ETag mạnh = ETag của object MinIO (phiên bản file) + phần được chọn ở dạng chuẩn hóa (ghi nguyên văn,
+     * không hash nên hai lựa chọn khác nhau không bao giờ trùng ETag) + SHA-256 của tên file trả trong body
+     * (nhiều chapter có thể dùng chung một object với tên file khác nhau).
+     */
+    static String contentETag(String objectEtag, String selection, String fileName) {
+        if (objectEtag == null) {
+            return null;
+        }
+        StringBuilder tag = new StringBuilder("\"").append(objectEtag.replace("\"", "")).append('-').append(selection);
+        if (fileName != null) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(fileName.getBytes(StandardCharsets.UTF_8));
+                tag.append('-').append(HexFormat.of().formatHex(digest, 0, 16));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return tag.append('"').toString();
+    }
+
+    @Operation(summary = "Upload/thay thế file của Material, trích xuất nội dung chạy nền. File trùng nội dung (SHA-256) với file đã có được dùng chung, không lưu và trích xuất lại")
+    @PutMapping(value = "/chapters/{chapterId}/content", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ResponseObject> uploadContentMaterial(@PathVariable String chapterId,
+                                                                @RequestParam("file") MultipartFile file) {
+        Map<String, Object> upload = materialService.uploadContent(chapterId, file);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+                ResponseObject.builder()
+                        .status(HttpStatus.ACCEPTED.value())
+                        .message("Upload content successfully, extraction pending")
+                        .data(upload)
                         .build()
         );
     }
@@ -12,4 +12,5 @@ public class ChapterDTO {
     String title;
     int orderIndex;
     DifficultyLevel difficulty;
+    String chapterId;
 }
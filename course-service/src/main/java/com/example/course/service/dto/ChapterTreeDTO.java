@@ -0,0 +1,19 @@
+package com.example.course.service.dto;
+
+import java.util.List;
+
+import com.example.course.service.model.chapter.DifficultyLevel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ChapterTreeDTO {
+    String chapterId;
+    String title;
+    int orderIndex;
+    DifficultyLevel difficulty;
+    // Chỉ id, title, type; nội dung lấy qua GET /materials/{materialId}
+    List<MaterialDTO> materials;
+}
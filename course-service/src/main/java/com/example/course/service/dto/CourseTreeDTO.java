@@ -0,0 +1,13 @@
+package com.example.course.service.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CourseTreeDTO {
+    String courseId;
+    List<ChapterTreeDTO> chapters;
+}
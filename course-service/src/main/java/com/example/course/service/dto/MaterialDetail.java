@@ -0,0 +1,21 @@
+package com.example.course.service.dto;
+
+/**
+ * Material kèm nội dung (projection của native query trong IMaterialRepository), dùng cho danh sách view=full.
+ * Chỉ cột của đúng loại material có giá trị (contentBody cho TEXT, exerciseData cho INTERACTIVE, videoUrl/transcript cho VIDEO).
+ */
+public interface MaterialDetail {
+    String getId();
+
+    String getTitle();
+
+    String getType();
+
+    String getVideoUrl();
+
+    String getTranscript();
+
+    String getContentBody();
+
+    String getExerciseData();
+}
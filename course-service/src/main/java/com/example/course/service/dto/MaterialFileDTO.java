@@ -0,0 +1,20 @@
+package com.example.course.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Metadata của file gốc một Material trên MinIO (không chứa nội dung file).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class MaterialFileDTO {
+    private String objectName;
+    // Tên file gốc lúc upload; objectName là blob dùng chung theo nội dung
+    private String fileName;
+    private long size;
+    private String contentType;
+    private String etag;
+}
@@ -0,0 +1,20 @@
+package com.example.course.service.dto;
+
+/**
+ * Thông tin rút gọn của Material dùng cho danh sách (projection của native query trong IMaterialRepository).
+ * Không chứa các cột TEXT lớn (contentBody, exerciseData, transcript); lấy đầy đủ qua GET /materials/{materialId}.
+ */
+public interface MaterialSummary {
+    String getId();
+
+    String getChapterId();
+
+    String getTitle();
+
+    String getType(); // VIDEO, TEXT, INTERACTIVE
+
+    String getVideoUrl();
+
+    // Kích thước (byte) của nội dung chính: contentBody, exerciseData hoặc transcript
+    Long getSize();
+}
@@ -0,0 +1,22 @@
+package com.example.course.service.dto.bulk;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class BulkImportResultDTO {
+    private int chapters;
+    private int materials;
+    // Id chapter / material mới, theo thứ tự trong file import
+    private List<String> ids;
+    // chapterId -> ETag của file đã upload
+    private Map<String, String> uploadedFiles;
+    // tên part -> lỗi; dữ liệu đã import vẫn được giữ, upload lại bằng PUT /chapters/{chapterId}/content
+    private Map<String, String> failedFiles;
+}
@@ -0,0 +1,23 @@
+package com.example.course.service.dto.bulk;
+
+import java.util.List;
+
+import com.example.course.service.dto.MaterialDTO;
+import com.example.course.service.model.chapter.DifficultyLevel;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một chapter trong file import (phần tử của JSON array hoặc một dòng NDJSON).
+ * file: tên part multipart chứa file PDF/DOCX của chapter, null nếu không có.
+ */
+@Data
+@NoArgsConstructor
+public class ChapterImportDTO {
+    private String title;
+    private int orderIndex;
+    private DifficultyLevel difficulty;
+    private String file;
+    private List<MaterialDTO> materials;
+}
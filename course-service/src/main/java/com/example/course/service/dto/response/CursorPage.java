@@ -0,0 +1,21 @@
+package com.example.course.service.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Một trang kết quả phân trang theo keyset.
+ * nextCursor null nghĩa là đã tới trang cuối; gửi lại nextCursor (param cursor) để lấy trang tiếp theo.
+ */
+@Data
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> items;
+    private int size;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.example.course.service.dto.search;
+
+/**
+ * Một kết quả tìm kiếm full-text (projection của native query trong IMaterialRepository).
+ * source = MATERIAL: TEXT/VIDEO material (materialId có giá trị, page null);
+ * source = DOCUMENT: một trang / đoạn của file PDF/DOCX đã trích xuất (page null với DOCX).
+ */
+public interface MaterialSearchHit {
+    String getSource();
+
+    String getMaterialId();
+
+    String getChapterId();
+
+    String getTitle();
+
+    Integer getPage();
+
+    Double getRank();
+
+    // Đoạn trích có từ khóa được bao bởi <b>...</b>
+    String getSnippet();
+}
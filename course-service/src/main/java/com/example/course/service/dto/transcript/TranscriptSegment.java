@@ -0,0 +1,18 @@
+package com.example.course.service.dto.transcript;
+
+/**
+ * Một cue của transcript video (projection của native query trong IMaterialRepository).
+ * Thời gian tính bằng mili giây từ đầu video; rank chỉ có giá trị với segment khớp từ khóa,
+ * null với segment theo mốc thời gian hoặc segment ngữ cảnh xung quanh kết quả.
+ */
+public interface TranscriptSegment {
+    Integer getSeq();
+
+    Long getStartMs();
+
+    Long getEndMs();
+
+    String getText();
+
+    Double getRank();
+}
@@ -0,0 +1,29 @@
+package com.example.course.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Trích xuất bị từ chối vì hệ thống đang quá tải (hết ngân sách bộ nhớ, hàng đợi đầy hoặc quá deadline).
+ * retryAfterSeconds được trả về client qua header Retry-After.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ExtractionRejectedException extends RuntimeException {
+
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 5;
+
+    private final long retryAfterSeconds;
+
+    public ExtractionRejectedException(String message) {
+        this(message, DEFAULT_RETRY_AFTER_SECONDS);
+    }
+
+    public ExtractionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
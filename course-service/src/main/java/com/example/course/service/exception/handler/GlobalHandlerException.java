@@ -1,6 +1,10 @@
 package com.example.course.service.exception.handler;
 
 import com.example.course.service.dto.response.ResponseObject;
+import com.example.course.service.exception.BadRequestException;
+import com.example.course.service.exception.ExtractionRejectedException;
+import com.example.course.service.exception.ResourceNotFoundException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -8,6 +12,42 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 @RestControllerAdvice
 public class GlobalHandlerException {
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ResponseObject> handleBadRequestException(BadRequestException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
+                ResponseObject.builder()
+                        .message(ex.getMessage())
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .data(null)
+                        .build()
+        );
+    }
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ResponseObject> handleResourceNotFoundException(ResourceNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
+                ResponseObject.builder()
+                        .message(ex.getMessage())
+                        .status(HttpStatus.NOT_FOUND.value())
+                        .data(null)
+                        .build()
+        );
+    }
+
+    // Quá tải trích xuất: 503 kèm Retry-After để client thử lại sau thay vì gửi dồn request
+    @ExceptionHandler(ExtractionRejectedException.class)
+    public ResponseEntity<ResponseObject> handleExtractionRejectedException(ExtractionRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(
+                        ResponseObject.builder()
+                                .message(ex.getMessage())
+                                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                                .data(null)
+                                .build()
+                );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResponseObject> handleGeneralException(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
@@ -1,6 +1,7 @@
 package com.example.course.service.mapper;
 
 import com.example.course.service.dto.MaterialDTO;
+import com.example.course.service.dto.MaterialDetail;
 import com.example.course.service.model.material.InteractiveMaterial;
 import com.example.course.service.model.material.Material;
 import com.example.course.service.model.material.TextMaterial;
@@ -75,6 +76,38 @@ public class MaterialMapper {
         return dto;
     }
 
+    /**
+     * Chuyển từ projection MaterialDetail sang DTO (Dùng cho danh sách view=full), cùng quy tắc với toDTO(Material)
+     */
+    public MaterialDTO toDTO(MaterialDetail row) {
+        if (row == null) return null;
+
+        MaterialDTO dto = new MaterialDTO();
+        dto.setId(row.getId());
+        dto.setTitle(row.getTitle());
+
+        String type = row.getType() != null ? row.getType() : "";
+        switch (type) {
+            case "VIDEO":
+                dto.setType("VIDEO");
+                dto.setContentOrUrl(row.getVideoUrl());
+                dto.setMetadata(row.getTranscript());
+                break;
+            case "TEXT":
+                dto.setType("TEXT");
+                dto.setContentOrUrl(row.getContentBody());
+                break;
+            case "INTERACTIVE":
+                dto.setType("INTERACTIVE");
+                dto.setContentOrUrl(row.getExerciseData());
+                break;
+            default:
+                dto.setType("UNKNOWN");
+        }
+
+        return dto;
+    }
+
     /**
      * Cập nhật data từ DTO vào Entity đã có (Dùng cho Update)
      */
@@ -2,21 +2,36 @@ package com.example.course.service.model.chapter;
 
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.stereotype.Component;
 
 import com.example.course.service.model.material.Material;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.ManyToMany;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
 @Data
 @Component
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "chapters")
+@NamedEntityGraph(name = Chapter.WITH_MATERIALS, attributeNodes = @NamedAttributeNode("materials"))
 public class Chapter {
+    public static final String WITH_MATERIALS = "Chapter.materials";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     String id;
@@ -24,6 +39,14 @@ public class Chapter {
     String title;
     int orderIndex;
     DifficultyLevel difficulty;
-    @ManyToMany
+
+    // Quan hệ thật nằm ở materials.chapter_id (Material.chapterId quản lý cột này, phía chapter chỉ đọc).
+    // Duyệt lazy nhiều chapter: nạp materials cho tối đa 50 chapter mỗi query thay vì 1 query / chapter
+    @OneToMany
+    @JoinColumn(name = "chapter_id", insertable = false, updatable = false)
+    @OrderBy("id")
+    @BatchSize(size = 50)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     List<Material> materials;
 }
@@ -0,0 +1,46 @@
+package com.example.course.service.model.content;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Một nội dung file duy nhất trên MinIO, xác định bằng SHA-256.
+ * refCount đếm số chapter đang dùng (ContentRef) cộng các upload đang giữ chỗ;
+ * blob có refCount = 0 quá thời gian chờ bị ContentBlobStore xóa cùng object.
+ * deleting = true (tombstone) trong lúc object đang bị xóa khỏi MinIO: blob không được pin lại.
+ */
+@Entity
+@Table(name = "content_blobs")
+@Getter
+@Setter
+public class ContentBlob {
+    @Id
+    private String sha256;
+
+    @Column(name = "object_name", nullable = false)
+    private String objectName;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(nullable = false)
+    private boolean deleting;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
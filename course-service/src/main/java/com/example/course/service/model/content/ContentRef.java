@@ -0,0 +1,39 @@
+package com.example.course.service.model.content;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * File hiện tại của một chapter: trỏ tới ContentBlob (objectName chép lại để đọc chỉ cần một lookup).
+ * fileName / contentType là của lần upload này, có thể khác giữa các chapter dùng chung blob.
+ */
+@Entity
+@Table(name = "content_refs")
+@Getter
+@Setter
+public class ContentRef {
+    @Id
+    @Column(name = "chapter_id")
+    private String chapterId;
+
+    @Column(nullable = false)
+    private String sha256;
+
+    @Column(name = "object_name", nullable = false)
+    private String objectName;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,56 @@
+package com.example.course.service.model.content;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Nội dung đã trích xuất (PDF/DOCX) của một object trên MinIO.
+ * Mỗi object chỉ giữ bản trích xuất của phiên bản mới nhất, xác định bằng ETag.
+ * contentJson chỉ có giá trị khi status = COMPLETED.
+ */
+@Entity
+@Table(name = "extracted_contents")
+@IdClass(ExtractedContentId.class)
+@Getter
+@Setter
+public class ExtractedContent {
+    @Id
+    private String bucket;
+
+    @Id
+    @Column(name = "object_name")
+    private String objectName;
+
+    @Column(nullable = false)
+    private String etag;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ExtractionStatus status;
+
+    @Column(name = "content_json", columnDefinition = "TEXT")
+    private String contentJson;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    private int attempts;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "extracted_at")
+    private Instant extractedAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
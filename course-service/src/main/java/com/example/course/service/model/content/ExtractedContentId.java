@@ -0,0 +1,15 @@
+package com.example.course.service.model.content;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractedContentId implements Serializable {
+    private String bucket;
+    private String objectName;
+}
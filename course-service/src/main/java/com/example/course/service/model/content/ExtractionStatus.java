@@ -0,0 +1,11 @@
+package com.example.course.service.model.content;
+
+/**
+ * Trạng thái trích xuất nội dung của một phiên bản object.
+ */
+public enum ExtractionStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
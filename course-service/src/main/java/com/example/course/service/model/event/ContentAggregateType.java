@@ -0,0 +1,10 @@
+package com.example.course.service.model.event;
+
+/**
+ * Đối tượng bị thay đổi: CHAPTER, MATERIAL hoặc CONTENT (file PDF/DOCX của chapter, aggregateId = chapterId).
+ */
+public enum ContentAggregateType {
+    CHAPTER,
+    MATERIAL,
+    CONTENT
+}
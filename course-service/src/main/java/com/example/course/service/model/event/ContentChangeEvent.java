@@ -0,0 +1,58 @@
+package com.example.course.service.model.event;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bản ghi outbox: được ghi trong cùng transaction với thay đổi chapter / material.
+ * ContentChangeOutboxPoller gán streamPosition (và publishedAt) sau khi commit; mỗi instance
+ * phát tới subscriber của mình các sự kiện theo streamPosition tăng dần.
+ */
+@Entity
+@Table(name = "content_change_events")
+@Getter
+@Setter
+public class ContentChangeEvent {
+    // Sequence tăng 50 để Hibernate cấp id theo lô, INSERT của import hàng loạt vẫn gom batch được
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "content_change_events_seq")
+    @SequenceGenerator(name = "content_change_events_seq", sequenceName = "content_change_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false)
+    private ContentAggregateType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId;
+
+    @Column(name = "course_id")
+    private String courseId;
+
+    @Column(name = "chapter_id")
+    private String chapterId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false)
+    private ContentChangeType changeType;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    @Column(name = "stream_position", unique = true)
+    private Long streamPosition;
+}
@@ -0,0 +1,7 @@
+package com.example.course.service.model.event;
+
+public enum ContentChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -1,8 +1,10 @@
 package com.example.course.service.model.material;
 
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,6 +13,8 @@ import lombok.Setter;
 @Getter
 @Setter
 public class InteractiveMaterial extends Material {
+    // Chỉ nạp khi được truy cập (cần bytecode enhancement, xem hibernate-maven-plugin trong pom.xml)
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
     private String exerciseData;
 }
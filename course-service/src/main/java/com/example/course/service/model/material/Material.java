@@ -2,12 +2,17 @@ package com.example.course.service.model.material;
 
 import jakarta.persistence.*;
 import lombok.Getter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Setter;
 
 @Entity
 @Table(name = "materials")
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE) // Lưu tất cả vào 1 bảng, phân loại bằng cột discriminator
 @DiscriminatorColumn(name = "material_type")
+// Second-level cache cho metadata; nội dung TEXT lớn (cột lazy) không được đưa vào cache
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "materials", includeLazy = false)
 @Getter
 @Setter
 public abstract class Material {
@@ -1,7 +1,9 @@
 package com.example.course.service.model.material;
 
+import jakarta.persistence.Basic;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,6 +14,7 @@ import lombok.Setter;
 public class VideoMaterial extends Material {
     private String videoUrl;
     private int duration;
+    @Basic(fetch = FetchType.LAZY)
     private String transcript;
 
     public void setVideoUrl(String contentOrUrl) {
@@ -2,12 +2,42 @@ package com.example.course.service.repository;
 
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.course.service.model.chapter.Chapter;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface IChapterRepository extends JpaRepository<Chapter, String> {
+    // Query cache: kết quả (danh sách id) bị vô hiệu khi bảng chapter thay đổi qua Hibernate
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Chapter> findByCourseId(String courseId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Chapter> findByCourseIdOrderByOrderIndexAscIdAsc(String courseId);
+
+    // Cả cây chapter -> materials của course trong một query (left join fetch theo entity graph)
+    @EntityGraph(Chapter.WITH_MATERIALS)
+    List<Chapter> findWithMaterialsByCourseIdOrderByOrderIndexAscIdAsc(String courseId);
+
+    // Keyset: các chapter sau (orderIndex, id) của phần tử cuối trang trước, dùng index (course_id, order_index, id)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+            SELECT c FROM Chapter c
+            WHERE c.courseId = :courseId
+              AND (c.orderIndex > :orderIndex OR (c.orderIndex = :orderIndex AND c.id > :id))
+            ORDER BY c.orderIndex, c.id
+            """)
+    List<Chapter> findPageAfter(@Param("courseId") String courseId,
+                                @Param("orderIndex") int orderIndex,
+                                @Param("id") String id,
+                                Limit limit);
 }
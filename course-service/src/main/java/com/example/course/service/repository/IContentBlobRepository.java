@@ -0,0 +1,59 @@
+package com.example.course.service.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.course.service.model.content.ContentBlob;
+
+public interface IContentBlobRepository extends JpaRepository<ContentBlob, String> {
+
+    // Giữ chỗ (ref + 1) trước khi kiểm tra object trên MinIO, để blob không bị dọn giữa chừng.
+    // Upsert: hai upload cùng nội dung mới không làm lỗi unique key.
+    // Trả về 0 nếu blob đang bị xóa (tombstone): caller chờ dòng bị xóa hẳn rồi pin lại
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO content_blobs (sha256, object_name, size_bytes, content_type, ref_count, deleting, created_at, updated_at)
+            VALUES (:sha256, :objectName, :sizeBytes, :contentType, 1, FALSE, :now, :now)
+            ON CONFLICT (sha256) DO UPDATE
+            SET ref_count = content_blobs.ref_count + 1,
+                updated_at = EXCLUDED.updated_at
+            WHERE content_blobs.deleting = FALSE
+            """, nativeQuery = true)
+    int pin(@Param("sha256") String sha256,
+             @Param("objectName") String objectName,
+             @Param("sizeBytes") long sizeBytes,
+             @Param("contentType") String contentType,
+             @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE content_blobs
+            SET ref_count = ref_count - 1, updated_at = :now
+            WHERE sha256 = :sha256 AND ref_count > 0
+            """, nativeQuery = true)
+    int release(@Param("sha256") String sha256, @Param("now") Instant now);
+
+    // Gồm cả tombstone còn sót (instance dừng giữa lúc xóa object): lần dọn sau xóa tiếp
+    @Query(value = """
+            SELECT * FROM content_blobs
+            WHERE ref_count = 0 AND updated_at < :before
+            ORDER BY updated_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ContentBlob> lockOrphans(@Param("before") Instant before, @Param("limit") int limit);
+
+    // Đánh dấu trong transaction đã khóa orphan và commit trước khi xóa object trên MinIO
+    @Modifying
+    @Query("UPDATE ContentBlob b SET b.deleting = :deleting WHERE b.sha256 IN :sha256s")
+    int markDeleting(@Param("sha256s") Collection<String> sha256s, @Param("deleting") boolean deleting);
+}
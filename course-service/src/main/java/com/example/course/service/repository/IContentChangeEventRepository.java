@@ -0,0 +1,42 @@
+package com.example.course.service.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.course.service.model.event.ContentChangeEvent;
+
+public interface IContentChangeEventRepository extends JpaRepository<ContentChangeEvent, Long> {
+
+    // Giữ tới hết transaction: transaction gán vị trí sau chỉ bắt đầu khi transaction trước đã commit,
+    // nên vị trí luôn hiện ra theo thứ tự tăng dần với người đọc
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockSequencer(@Param("key") long key);
+
+    @Modifying
+    @Query(value = """
+            UPDATE content_change_events
+            SET stream_position = nextval('content_change_positions'), published_at = :publishedAt
+            WHERE id IN (SELECT id FROM content_change_events WHERE stream_position IS NULL ORDER BY id LIMIT :limit)
+            """, nativeQuery = true)
+    int assignPositions(@Param("limit") int limit, @Param("publishedAt") Instant publishedAt);
+
+    List<ContentChangeEvent> findByStreamPositionGreaterThanOrderByStreamPositionAsc(long position, Limit limit);
+
+    @Query("SELECT max(e.streamPosition) FROM ContentChangeEvent e")
+    Long findMaxStreamPosition();
+
+    @Query("SELECT min(e.streamPosition) FROM ContentChangeEvent e")
+    Long findMinStreamPosition();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ContentChangeEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
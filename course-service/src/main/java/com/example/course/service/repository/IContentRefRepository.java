@@ -0,0 +1,20 @@
+package com.example.course.service.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.course.service.model.content.ContentRef;
+
+import jakarta.persistence.LockModeType;
+
+public interface IContentRefRepository extends JpaRepository<ContentRef, String> {
+
+    // Hai upload cùng chapter đổi ref lần lượt, không release trùng blob cũ
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ContentRef r WHERE r.chapterId = :chapterId")
+    Optional<ContentRef> lockByChapterId(@Param("chapterId") String chapterId);
+}
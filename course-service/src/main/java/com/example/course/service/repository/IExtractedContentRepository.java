@@ -0,0 +1,71 @@
+package com.example.course.service.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.course.service.model.content.ExtractedContent;
+import com.example.course.service.model.content.ExtractedContentId;
+import com.example.course.service.model.content.ExtractionStatus;
+
+public interface IExtractedContentRepository extends JpaRepository<ExtractedContent, ExtractedContentId> {
+
+    // Upsert để hai request trích xuất cùng lúc không làm lỗi unique key
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO extracted_contents
+                (bucket, object_name, etag, status, content_json, size_bytes, attempts, error, extracted_at, updated_at)
+            VALUES (:bucket, :objectName, :etag, 'COMPLETED', :contentJson, :sizeBytes, 0, NULL, :extractedAt, :extractedAt)
+            ON CONFLICT (bucket, object_name) DO UPDATE
+            SET etag = EXCLUDED.etag,
+                status = EXCLUDED.status,
+                content_json = EXCLUDED.content_json,
+                size_bytes = EXCLUDED.size_bytes,
+                error = NULL,
+                extracted_at = EXCLUDED.extracted_at,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void upsert(@Param("bucket") String bucket,
+                @Param("objectName") String objectName,
+                @Param("etag") String etag,
+                @Param("contentJson") String contentJson,
+                @Param("sizeBytes") long sizeBytes,
+                @Param("extractedAt") Instant extractedAt);
+
+    // Ghi trạng thái PENDING/PROCESSING/FAILED; xóa nội dung cũ khi ETag đổi
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO extracted_contents (bucket, object_name, etag, status, attempts, error, updated_at)
+            VALUES (:bucket, :objectName, :etag, :status, :attempts, :error, :updatedAt)
+            ON CONFLICT (bucket, object_name) DO UPDATE
+            SET content_json = CASE WHEN extracted_contents.etag = EXCLUDED.etag
+                                    THEN extracted_contents.content_json END,
+                size_bytes = CASE WHEN extracted_contents.etag = EXCLUDED.etag
+                                  THEN extracted_contents.size_bytes END,
+                etag = EXCLUDED.etag,
+                status = EXCLUDED.status,
+                attempts = EXCLUDED.attempts,
+                error = EXCLUDED.error,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void upsertStatus(@Param("bucket") String bucket,
+                      @Param("objectName") String objectName,
+                      @Param("etag") String etag,
+                      @Param("status") String status,
+                      @Param("attempts") int attempts,
+                      @Param("error") String error,
+                      @Param("updatedAt") Instant updatedAt);
+
+    // Chỉ đọc trạng thái, không nạp content_json
+    @Query("SELECT e.status FROM ExtractedContent e WHERE e.bucket = :bucket AND e.objectName = :objectName AND e.etag = :etag")
+    Optional<ExtractionStatus> findStatus(@Param("bucket") String bucket,
+                                          @Param("objectName") String objectName,
+                                          @Param("etag") String etag);
+}
@@ -1,10 +1,149 @@
 package com.example.course.service.repository;
 
+import com.example.course.service.dto.MaterialDetail;
+import com.example.course.service.dto.MaterialSummary;
+import com.example.course.service.dto.search.MaterialSearchHit;
+import com.example.course.service.dto.transcript.TranscriptSegment;
 import com.example.course.service.model.material.Material;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface IMaterialRepository extends JpaRepository<Material, String> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Material> findByChapterId(String chapterId);
-}
\ No newline at end of file
+
+    // octet_length đọc kích thước từ header TOAST, không phải giải nén / đọc nội dung cột TEXT
+    String SUMMARY_SELECT = """
+            SELECT m.id AS "id", m.chapter_id AS "chapterId", m.title AS "title", m.material_type AS "type",
+                   m.video_url AS "videoUrl",
+                   CAST(coalesce(octet_length(m.content_body), octet_length(m.exercise_data),
+                                 octet_length(m.transcript), 0) AS BIGINT) AS "size"
+            FROM materials m
+            """;
+
+    // Danh sách đầy đủ đọc cả các cột lazy trong một query (qua entity sẽ thành 1 query / material khi map sang DTO)
+    String DETAIL_SELECT = """
+            SELECT m.id AS "id", m.title AS "title", m.material_type AS "type", m.video_url AS "videoUrl",
+                   m.transcript AS "transcript", m.content_body AS "contentBody", m.exercise_data AS "exerciseData"
+            FROM materials m
+            """;
+
+    String KEYSET_PAGE = "WHERE m.chapter_id = :chapterId AND m.id > :afterId ORDER BY m.id LIMIT :limit";
+
+    // Native query được cache khi khai báo bảng phụ thuộc: ghi vào materials qua Hibernate sẽ vô hiệu kết quả
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "materials")
+    })
+    @Query(value = SUMMARY_SELECT + "WHERE m.chapter_id = :chapterId ORDER BY m.id", nativeQuery = true)
+    List<MaterialSummary> findSummariesByChapterId(@Param("chapterId") String chapterId);
+
+    // Keyset theo id trên index (chapter_id, id); trang đầu dùng afterId = ''
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "materials")
+    })
+    @Query(value = SUMMARY_SELECT + KEYSET_PAGE, nativeQuery = true)
+    List<MaterialSummary> findSummaryPageAfter(@Param("chapterId") String chapterId,
+                                               @Param("afterId") String afterId,
+                                               @Param("limit") int limit);
+
+    // Không cache: kết quả chứa toàn bộ cột TEXT, query cache chỉ giới hạn theo số entry chứ không theo byte
+    @Query(value = DETAIL_SELECT + "WHERE m.chapter_id = :chapterId ORDER BY m.id", nativeQuery = true)
+    List<MaterialDetail> findDetailsByChapterId(@Param("chapterId") String chapterId);
+
+    @Query(value = DETAIL_SELECT + KEYSET_PAGE, nativeQuery = true)
+    List<MaterialDetail> findDetailPageAfter(@Param("chapterId") String chapterId,
+                                             @Param("afterId") String afterId,
+                                             @Param("limit") int limit);
+
+    // Xếp hạng trên GIN index trước, chỉ tạo snippet (ts_headline, tốn kém) cho :limit kết quả đầu
+    @Query(value = """
+            WITH q AS (SELECT websearch_to_tsquery('simple', :query) AS query),
+            ranked AS (
+                SELECT 'MATERIAL' AS source, m.id AS material_id, m.chapter_id AS chapter_id, m.title AS title,
+                       CAST(NULL AS INTEGER) AS page,
+                       CAST(ts_rank_cd(m.search_vector, q.query, 1) AS DOUBLE PRECISION) AS rank,
+                       coalesce(m.content_body, m.transcript, m.title) AS body
+                FROM materials m
+                JOIN chapter c ON c.id = m.chapter_id
+                CROSS JOIN q
+                WHERE c.course_id = :courseId
+                  AND (CAST(:chapterId AS VARCHAR) IS NULL OR m.chapter_id = :chapterId)
+                  AND m.search_vector @@ q.query
+                UNION ALL
+                SELECT 'DOCUMENT', NULL, c.id, c.title, p.page,
+                       CAST(ts_rank_cd(p.search_vector, q.query, 1) AS DOUBLE PRECISION), p.content
+                FROM material_passages p
+                -- Passage của blob dùng chung xuất hiện ở mọi chapter trỏ tới blob; object cũ đặt tên theo chapterId
+                -- chỉ được tính khi chapter chưa chuyển sang blob
+                LEFT JOIN content_refs cr ON cr.object_name = p.object_name
+                JOIN chapter c ON c.id = coalesce(cr.chapter_id, p.object_name)
+                CROSS JOIN q
+                WHERE p.bucket = :bucket
+                  AND c.course_id = :courseId
+                  AND (CAST(:chapterId AS VARCHAR) IS NULL OR c.id = :chapterId)
+                  AND (cr.chapter_id IS NOT NULL
+                       OR NOT EXISTS (SELECT 1 FROM content_refs legacy WHERE legacy.chapter_id = p.object_name))
+                  AND p.search_vector @@ q.query
+                ORDER BY rank DESC
+                LIMIT :limit
+            )
+            SELECT r.source AS "source", r.material_id AS "materialId", r.chapter_id AS "chapterId",
+                   r.title AS "title", r.page AS "page", r.rank AS "rank",
+                   ts_headline('simple', r.body, q.query,
+                               'MaxFragments=2, MinWords=10, MaxWords=30, FragmentDelimiter=" ... "') AS "snippet"
+            FROM ranked r
+            CROSS JOIN q
+            ORDER BY r.rank DESC
+            """, nativeQuery = true)
+    List<MaterialSearchHit> search(@Param("bucket") String bucket,
+                                   @Param("courseId") String courseId,
+                                   @Param("chapterId") String chapterId,
+                                   @Param("query") String query,
+                                   @Param("limit") int limit);
+
+    // Segment giao với [fromMs, toMs], theo thứ tự thời gian (index (material_id, start_ms, end_ms))
+    @Query(value = """
+            SELECT s.seq AS "seq", s.start_ms AS "startMs", s.end_ms AS "endMs", s.content AS "text",
+                   CAST(NULL AS DOUBLE PRECISION) AS "rank"
+            FROM transcript_segments s
+            WHERE s.material_id = :materialId AND s.start_ms <= :toMs AND s.end_ms >= :fromMs
+            ORDER BY s.start_ms, s.seq
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<TranscriptSegment> findTranscriptSegments(@Param("materialId") String materialId,
+                                                   @Param("fromMs") long fromMs,
+                                                   @Param("toMs") long toMs,
+                                                   @Param("limit") int limit);
+
+    // :limit segment khớp nhất (GIN), kèm :context segment trước / sau mỗi kết quả, trả theo thứ tự thời gian
+    @Query(value = """
+            WITH q AS (SELECT websearch_to_tsquery('simple', :query) AS query),
+            hits AS (
+                SELECT s.seq, ts_rank_cd(s.search_vector, q.query, 1) AS rank
+                FROM transcript_segments s
+                CROSS JOIN q
+                WHERE s.material_id = :materialId AND s.search_vector @@ q.query
+                ORDER BY rank DESC, s.seq
+                LIMIT :limit
+            )
+            SELECT s.seq AS "seq", s.start_ms AS "startMs", s.end_ms AS "endMs", s.content AS "text",
+                   CAST(h.rank AS DOUBLE PRECISION) AS "rank"
+            FROM transcript_segments s
+            LEFT JOIN hits h ON h.seq = s.seq
+            WHERE s.material_id = :materialId
+              AND EXISTS (SELECT 1 FROM hits x WHERE s.seq BETWEEN x.seq - :context AND x.seq + :context)
+            ORDER BY s.seq
+            """, nativeQuery = true)
+    List<TranscriptSegment> searchTranscript(@Param("materialId") String materialId,
+                                             @Param("query") String query,
+                                             @Param("context") int context,
+                                             @Param("limit") int limit);
+}
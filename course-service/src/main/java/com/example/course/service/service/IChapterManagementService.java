@@ -5,11 +5,15 @@ import java.util.List;
 import org.springframework.stereotype.Service;
 
 import com.example.course.service.dto.ChapterDTO;
+import com.example.course.service.dto.CourseTreeDTO;
+import com.example.course.service.dto.response.CursorPage;
 
 @Service
 public interface IChapterManagementService {
     ChapterDTO createChapter(String courseId, ChapterDTO chapter);
     ChapterDTO updateChapter(String courseId, ChapterDTO chapter);
     List<ChapterDTO> listChapters(String courseId);
+    CursorPage<ChapterDTO> listChapters(String courseId, String cursor, Integer size);
     ChapterDTO deleteChapter(String chapterId);
+    CourseTreeDTO getCourseTree(String courseId);
 }
@@ -0,0 +1,14 @@
+package com.example.course.service.service;
+
+import java.io.InputStream;
+import java.util.Map;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.course.service.dto.bulk.BulkImportResultDTO;
+
+public interface ICourseImportService {
+    BulkImportResultDTO importChapters(String courseId, InputStream manifest, Map<String, MultipartFile> files);
+
+    BulkImportResultDTO importMaterials(String chapterId, InputStream manifest);
+}
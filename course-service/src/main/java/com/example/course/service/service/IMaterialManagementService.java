@@ -1,7 +1,16 @@
 package com.example.course.service.service;
 
 import com.example.course.service.dto.MaterialDTO;
+import com.example.course.service.dto.MaterialFileDTO;
+import com.example.course.service.dto.MaterialSummary;
+import com.example.course.service.dto.response.CursorPage;
+import com.example.course.service.util.content.ContentSelection;
+import com.example.course.service.util.content.ExtractedDocument;
+import com.example.course.service.util.content.store.StoredText;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -10,9 +19,29 @@ public interface IMaterialManagementService {
 
     List<MaterialDTO> listMaterials(String chapterId);
 
+    List<MaterialSummary> listMaterialSummaries(String chapterId);
+
+    CursorPage<MaterialDTO> listMaterials(String chapterId, String cursor, Integer size);
+
+    CursorPage<MaterialSummary> listMaterialSummaries(String chapterId, String cursor, Integer size);
+
+    MaterialDTO getMaterial(String materialId);
+
     void deleteMaterial(String materialId);
 
     void updateMaterial(String materialId, MaterialDTO materialData);
 
-    Map<String, Object> getContent(String id);
+    ExtractedDocument getContent(String id);
+
+    ContentSelection getContent(String id, String pages, String range);
+
+    StoredText.Slice getContentText(String id, String pages);
+
+    Map<String, Object> uploadContent(String id, MultipartFile file);
+
+    MaterialFileDTO getFile(String id);
+
+    void streamFile(String id, String etag, long offset, Long length, OutputStream out) throws IOException;
+
+    Map<String, Object> getFileUrl(String id, boolean download);
 }
@@ -0,0 +1,9 @@
+package com.example.course.service.service;
+
+import com.example.course.service.dto.search.MaterialSearchHit;
+
+import java.util.List;
+
+public interface IMaterialSearchService {
+    List<MaterialSearchHit> search(String courseId, String chapterId, String query, int limit);
+}
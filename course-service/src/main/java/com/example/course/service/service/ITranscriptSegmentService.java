@@ -0,0 +1,11 @@
+package com.example.course.service.service;
+
+import com.example.course.service.dto.transcript.TranscriptSegment;
+
+import java.util.List;
+
+public interface ITranscriptSegmentService {
+    List<TranscriptSegment> around(String materialId, double atSeconds, double windowSeconds, int limit);
+
+    List<TranscriptSegment> search(String materialId, String query, int context, int limit);
+}
@@ -4,50 +4,120 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.course.service.dto.ChapterDTO;
+import com.example.course.service.dto.ChapterTreeDTO;
+import com.example.course.service.dto.CourseTreeDTO;
+import com.example.course.service.dto.MaterialDTO;
+import com.example.course.service.dto.response.CursorPage;
+import com.example.course.service.exception.BadRequestException;
+import com.example.course.service.exception.ResourceNotFoundException;
 import com.example.course.service.model.chapter.Chapter;
+import com.example.course.service.model.event.ContentChangeType;
+import com.example.course.service.model.material.Material;
 import com.example.course.service.repository.IChapterRepository;
 import com.example.course.service.service.IChapterManagementService;
+import com.example.course.service.util.events.ContentChangeRecorder;
+import com.example.course.service.util.pagination.KeysetCursor;
 
 @Service
 @Qualifier("chapterManagementServiceImpl")
 public class ChapterManagementServiceImpl implements IChapterManagementService {
     @Autowired IChapterRepository chapterRepo;
+    @Autowired ContentChangeRecorder changeRecorder;
 
     @Override
+    @Transactional
     public ChapterDTO createChapter(String courseId, ChapterDTO chapter) {
         // TODO Auto-generated method stub
         Chapter newChapter = mapToEntity(chapter);
         chapterRepo.save(newChapter);
+        // Sự kiện nằm trong cùng transaction với chapter: không mất, không phát cho thay đổi bị rollback
+        changeRecorder.chapterChanged(newChapter.getId(), newChapter.getCourseId(), ContentChangeType.CREATED);
         return chapter;
     }
 
     @Override
-    public ChapterDTO updateChapter(String chapterId, ChapterDTO chapter) {
-        // TODO Auto-generated method stub
-        createChapter(chapterId, chapter);
-        return chapter;
+    @Transactional
+    public ChapterDTO updateChapter(String courseId, ChapterDTO chapter) {
+        if (chapter.getChapterId() == null || chapter.getChapterId().isBlank()) {
+            throw new BadRequestException("chapterId is required to update a chapter");
+        }
+        Chapter existing = chapterRepo.findById(chapter.getChapterId())
+                .filter(chap -> chap.getCourseId().equals(courseId))
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Chapter not found with id: " + chapter.getChapterId() + " in course " + courseId));
+        existing.setTitle(chapter.getTitle());
+        existing.setOrderIndex(chapter.getOrderIndex());
+        existing.setDifficulty(chapter.getDifficulty());
+        chapterRepo.save(existing);
+        // Cùng transaction với thay đổi chapter như createChapter
+        changeRecorder.chapterChanged(existing.getId(), courseId, ContentChangeType.UPDATED);
+        return mapToDTO(existing);
     }
 
     @Override
     public List<ChapterDTO> listChapters(String courseId) {
         // TODO Auto-generated method stub
-        List<Chapter> chapters = chapterRepo.findByCourseId(courseId);
+        List<Chapter> chapters = chapterRepo.findByCourseIdOrderByOrderIndexAscIdAsc(courseId);
         return chapters.stream().map(chap -> mapToDTO(chap)).toList();
     }
 
     @Override
+    public CursorPage<ChapterDTO> listChapters(String courseId, String cursor, Integer size) {
+        int pageSize = KeysetCursor.clampSize(size);
+        // Trang đầu: bắt đầu trước mọi (orderIndex, id)
+        int orderIndex = Integer.MIN_VALUE;
+        String id = "";
+        if (cursor != null && !cursor.isBlank()) {
+            String[] keys = KeysetCursor.decode(cursor, 2);
+            try {
+                orderIndex = Integer.parseInt(keys[0]);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor: " + cursor);
+            }
+            id = keys[1];
+        }
+        List<Chapter> chapters = chapterRepo.findPageAfter(courseId, orderIndex, id, Limit.of(pageSize + 1));
+        return KeysetCursor.page(chapters, pageSize,
+                chap -> KeysetCursor.encode(chap.getOrderIndex(), chap.getId()), this::mapToDTO);
+    }
+
+    @Override
+    @Transactional
     public ChapterDTO deleteChapter(String chapterId) {
         // TODO Auto-generated method stub
         Chapter chapterDeleted = chapterRepo.findById(chapterId).orElseThrow();
         chapterRepo.delete(chapterDeleted);
+        changeRecorder.chapterChanged(chapterId, chapterDeleted.getCourseId(), ContentChangeType.DELETED);
         return mapToDTO(chapterDeleted);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CourseTreeDTO getCourseTree(String courseId) {
+        // Một query cho cả course, không phụ thuộc số chapter; cột TEXT lớn của material là lazy nên không được đọc
+        List<Chapter> chapters = chapterRepo.findWithMaterialsByCourseIdOrderByOrderIndexAscIdAsc(courseId);
+        List<ChapterTreeDTO> tree = chapters.stream()
+                .map(chap -> new ChapterTreeDTO(chap.getId(), chap.getTitle(), chap.getOrderIndex(), chap.getDifficulty(),
+                        chap.getMaterials().stream().map(this::mapToTreeItem).toList()))
+                .toList();
+        return new CourseTreeDTO(courseId, tree);
+    }
+
+    private MaterialDTO mapToTreeItem(Material material) {
+        MaterialDTO dto = new MaterialDTO();
+        dto.setId(material.getId());
+        dto.setTitle(material.getTitle());
+        dto.setType(material.getType());
+        return dto;
+    }
+
     public ChapterDTO mapToDTO(Chapter chapter) {
-        ChapterDTO chapterDTO = new ChapterDTO(chapter.getCourseId(), chapter.getTitle(), chapter.getOrderIndex(), chapter.getDifficulty());
+        ChapterDTO chapterDTO = new ChapterDTO(chapter.getCourseId(), chapter.getTitle(), chapter.getOrderIndex(), chapter.getDifficulty(), chapter.getId());
         return chapterDTO;
     }
 
@@ -0,0 +1,245 @@
+package com.example.course.service.service.impl;
+
+import com.example.course.service.dto.MaterialDTO;
+import com.example.course.service.dto.bulk.BulkImportResultDTO;
+import com.example.course.service.dto.bulk.ChapterImportDTO;
+import com.example.course.service.exception.BadRequestException;
+import com.example.course.service.mapper.MaterialMapper;
+import com.example.course.service.model.chapter.Chapter;
+import com.example.course.service.model.event.ContentChangeType;
+import com.example.course.service.model.material.Material;
+import com.example.course.service.model.material.VideoMaterial;
+import com.example.course.service.service.ICourseImportService;
+import com.example.course.service.service.IMaterialManagementService;
+import com.example.course.service.util.content.transcript.TranscriptSegmentIndexer;
+import com.example.course.service.util.events.ContentChangeRecorder;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Import hàng loạt chapter / material từ JSON array hoặc NDJSON.
+ * Manifest được đọc tuần tự bằng MappingIterator (không giữ cả file trên heap), entity được persist
+ * và flush theo lô để Hibernate gom INSERT thành JDBC batch (hibernate.jdbc.batch_size, order_inserts).
+ * Toàn bộ dữ liệu nằm trong một transaction; file đính kèm được upload lên MinIO song song sau khi commit.
+ * Sự kiện CREATED của từng chapter / material được ghi vào outbox trong cùng transaction và cùng các lô INSERT.
+ */
+@Service
+@Slf4j
+public class CourseImportServiceImpl implements ICourseImportService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MaterialMapper materialMapper;
+    private final IMaterialManagementService materialService;
+    private final ContentChangeRecorder changeRecorder;
+    private final TranscriptSegmentIndexer transcriptIndexer;
+    private final int batchSize;
+    private final int maxItems;
+    private final ExecutorService uploadExecutor;
+
+    public CourseImportServiceImpl(TransactionTemplate transactionTemplate,
+                                   ObjectMapper objectMapper,
+                                   MaterialMapper materialMapper,
+                                   IMaterialManagementService materialService,
+                                   ContentChangeRecorder changeRecorder,
+                                   TranscriptSegmentIndexer transcriptIndexer,
+                                   @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                                   @Value("${content.import.max-items:10000}") int maxItems,
+                                   @Value("${content.import.upload-parallelism:4}") int uploadParallelism) {
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.materialMapper = materialMapper;
+        this.materialService = materialService;
+        this.changeRecorder = changeRecorder;
+        this.transcriptIndexer = transcriptIndexer;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.uploadExecutor = Executors.newFixedThreadPool(uploadParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "course-import-upload-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public BulkImportResultDTO importChapters(String courseId, InputStream manifest, Map<String, MultipartFile> files) {
+        Map<String, MultipartFile> attachments = files != null ? files : Map.of();
+        // chapterId -> tên part chứa file của chapter
+        Map<String, String> pendingUploads = new LinkedHashMap<>();
+        List<String> ids = new ArrayList<>();
+        AtomicInteger materialCount = new AtomicInteger();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (MappingIterator<ChapterImportDTO> chapters = objectMapper.readerFor(ChapterImportDTO.class).readValues(manifest)) {
+                int persisted = 0;
+                while (chapters.hasNextValue()) {
+                    ChapterImportDTO item = chapters.nextValue();
+                    if (item.getFile() != null && !attachments.containsKey(item.getFile())) {
+                        throw new BadRequestException("Chapter #" + (ids.size() + 1) + " references missing file part: " + item.getFile());
+                    }
+
+                    Chapter chapter = new Chapter();
+                    chapter.setCourseId(courseId);
+                    chapter.setTitle(item.getTitle());
+                    chapter.setOrderIndex(item.getOrderIndex());
+                    chapter.setDifficulty(item.getDifficulty());
+                    entityManager.persist(chapter);
+                    changeRecorder.chapterChanged(chapter.getId(), courseId, ContentChangeType.CREATED);
+                    ids.add(chapter.getId());
+                    persisted = flushIfNeeded(persisted + 1);
+
+                    if (item.getMaterials() != null) {
+                        for (MaterialDTO materialDTO : item.getMaterials()) {
+                            Material material = toEntity(chapter.getId(), materialDTO, materialCount.get());
+                            persist(material);
+                            changeRecorder.materialChanged(material.getId(), chapter.getId(), courseId, ContentChangeType.CREATED);
+                            materialCount.incrementAndGet();
+                            persisted = flushIfNeeded(persisted + 1);
+                        }
+                    }
+                    if (item.getFile() != null) {
+                        pendingUploads.put(chapter.getId(), item.getFile());
+                    }
+                    checkLimit(persisted);
+                }
+            } catch (IOException e) {
+                throw new BadRequestException("Invalid import manifest: " + e.getMessage());
+            }
+        });
+
+        Map<String, String> uploaded = new LinkedHashMap<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+        uploadFiles(pendingUploads, attachments, uploaded, failed);
+
+        log.info("Imported {} chapters, {} materials, {} files ({} failed) into course {}",
+                ids.size(), materialCount.get(), uploaded.size(), failed.size(), courseId);
+        return BulkImportResultDTO.builder()
+                .chapters(ids.size())
+                .materials(materialCount.get())
+                .ids(ids)
+                .uploadedFiles(uploaded)
+                .failedFiles(failed)
+                .build();
+    }
+
+    @Override
+    public BulkImportResultDTO importMaterials(String chapterId, InputStream manifest) {
+        List<String> ids = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            String courseId = changeRecorder.courseOf(chapterId);
+            try (MappingIterator<MaterialDTO> materials = objectMapper.readerFor(MaterialDTO.class).readValues(manifest)) {
+                int persisted = 0;
+                while (materials.hasNextValue()) {
+                    Material material = toEntity(chapterId, materials.nextValue(), ids.size());
+                    persist(material);
+                    changeRecorder.materialChanged(material.getId(), chapterId, courseId, ContentChangeType.CREATED);
+                    ids.add(material.getId());
+                    persisted = flushIfNeeded(persisted + 1);
+                    checkLimit(persisted);
+                }
+            } catch (IOException e) {
+                throw new BadRequestException("Invalid import manifest: " + e.getMessage());
+            }
+        });
+
+        log.info("Imported {} materials into chapter {}", ids.size(), chapterId);
+        return BulkImportResultDTO.builder()
+                .materials(ids.size())
+                .ids(ids)
+                .uploadedFiles(Map.of())
+                .failedFiles(Map.of())
+                .build();
+    }
+
+    private Material toEntity(String chapterId, MaterialDTO dto, int index) {
+        try {
+            Material material = materialMapper.toEntity(dto);
+            material.setChapterId(chapterId);
+            return material;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Material #" + (index + 1) + ": " + e.getMessage());
+        }
+    }
+
+    private void persist(Material material) {
+        entityManager.persist(material);
+        // Transcript SRT / VTT được tách thành segment trong cùng transaction import
+        if (material instanceof VideoMaterial video) {
+            transcriptIndexer.index(video.getId(), video.getTranscript());
+        }
+    }
+
+    /**
+     * Flush mỗi batchSize entity: INSERT được gửi thành một JDBC batch, persistence context được
+     * dọn để bộ nhớ không tăng theo kích thước file import.
+     */
+    private int flushIfNeeded(int persisted) {
+        if (persisted % batchSize == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return persisted;
+    }
+
+    private void checkLimit(int persisted) {
+        if (persisted > maxItems) {
+            throw new BadRequestException("Import exceeds " + maxItems + " chapters/materials, split it into several requests");
+        }
+    }
+
+    /**
+     * Upload song song (content.import.upload-parallelism luồng); lỗi từng file được ghi lại, không hủy các file khác.
+     */
+    private void uploadFiles(Map<String, String> pendingUploads, Map<String, MultipartFile> attachments,
+                             Map<String, String> uploaded, Map<String, String> failed) {
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        for (Map.Entry<String, String> upload : pendingUploads.entrySet()) {
+            String chapterId = upload.getKey();
+            String part = upload.getValue();
+            uploads.add(CompletableFuture
+                    .supplyAsync(() -> materialService.uploadContent(chapterId, attachments.get(part)), uploadExecutor)
+                    .handle((result, error) -> {
+                        synchronized (uploaded) {
+                            if (error == null) {
+                                uploaded.put(chapterId, String.valueOf(result.get("etag")));
+                            } else {
+                                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                                failed.put(part, cause.getMessage());
+                                log.warn("Import upload of part {} for chapter {} failed: {}", part, chapterId, cause.getMessage());
+                            }
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new)).join();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdownNow();
+    }
+}
@@ -1,24 +1,53 @@
 package com.example.course.service.service.impl;
 
 import com.example.course.service.dto.MaterialDTO;
+import com.example.course.service.dto.MaterialDetail;
+import com.example.course.service.dto.MaterialFileDTO;
+import com.example.course.service.dto.MaterialSummary;
+import com.example.course.service.dto.response.CursorPage;
+import com.example.course.service.exception.ExtractionRejectedException;
 import com.example.course.service.exception.ResourceNotFoundException;
 import com.example.course.service.mapper.MaterialMapper;
+import com.example.course.service.model.content.ExtractedContent;
+import com.example.course.service.model.content.ExtractionStatus;
+import com.example.course.service.model.event.ContentChangeType;
 import com.example.course.service.model.material.Material;
+import com.example.course.service.model.material.VideoMaterial;
 import com.example.course.service.repository.IMaterialRepository;
 import com.example.course.service.service.IMaterialManagementService;
-import com.example.course.service.util.content.ContentReader;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.course.service.util.content.ContentRangeSelector;
+import com.example.course.service.util.content.ContentSelection;
+import com.example.course.service.util.content.ExtractedDocument;
+import com.example.course.service.util.content.blob.ContentBlobStore;
+import com.example.course.service.util.content.cache.ExtractedContentCache;
+import com.example.course.service.util.content.pipeline.ContentExtractionPipeline;
+import com.example.course.service.util.content.store.ExtractedTextStore;
+import com.example.course.service.util.content.store.StoredText;
+import com.example.course.service.util.content.transcript.TranscriptSegmentIndexer;
+import com.example.course.service.util.events.ContentChangeRecorder;
+import com.example.course.service.util.pagination.KeysetCursor;
 import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MinioClient;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 
@@ -29,15 +58,29 @@ public class MaterialManagementServiceImpl implements IMaterialManagementService
 
     private final IMaterialRepository materialRepository;
     private final MaterialMapper materialMapper;
-    private final ContentReader contentReader;
     private final MinioClient minioClient;
-    private final ObjectMapper objectMapper;
+    private final ExtractedContentCache contentCache;
+    private final ContentExtractionPipeline extractionPipeline;
+    private final ExtractedTextStore textStore;
+    private final ContentChangeRecorder changeRecorder;
+    private final ContentBlobStore blobStore;
+    private final TranscriptSegmentIndexer transcriptIndexer;
+
+    @Value("${minio.bucket:materials}")
+    private String bucket;
+
+    @Value("${minio.presign-expiry-seconds:900}")
+    private int presignExpirySeconds;
 
     @Override
     public void createMaterial(String chapterId, MaterialDTO dto) {
         Material material = materialMapper.toEntity(dto);
         material.setChapterId(chapterId);
         materialRepository.save(material);
+        if (material instanceof VideoMaterial video) {
+            transcriptIndexer.index(video.getId(), video.getTranscript());
+        }
+        changeRecorder.materialChanged(material.getId(), chapterId, ContentChangeType.CREATED);
     }
 
     @Override
@@ -47,41 +90,246 @@ public class MaterialManagementServiceImpl implements IMaterialManagementService
         materialMapper.updateEntityFromDTO(existing, dto);
 
         materialRepository.save(existing);
+        if (existing instanceof VideoMaterial video && "VIDEO".equalsIgnoreCase(dto.getType())) {
+            // Transcript vừa được gán từ DTO nên không phải đọc lại cột lazy
+            transcriptIndexer.index(materialId, video.getTranscript());
+        }
+        changeRecorder.materialChanged(materialId, existing.getChapterId(), ContentChangeType.UPDATED);
     }
 
     @Override
     public void deleteMaterial(String materialId) {
-        if (!materialRepository.existsById(materialId)) {
-            throw new ResourceNotFoundException("Cannot delete. Material not found with id: " + materialId);
-        }
-        materialRepository.deleteById(materialId);
+        // Đọc trước khi xóa để biết chapter của material cho sự kiện thay đổi
+        Material existing = materialRepository.findById(materialId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cannot delete. Material not found with id: " + materialId));
+        materialRepository.delete(existing);
+        transcriptIndexer.delete(materialId);
+        changeRecorder.materialChanged(materialId, existing.getChapterId(), ContentChangeType.DELETED);
     }
 
     @Override
     public List<MaterialDTO> listMaterials(String chapterId) {
-        return materialRepository.findByChapterId(chapterId)
+        return materialRepository.findDetailsByChapterId(chapterId)
                 .stream()
                 .map(materialMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public Map<String, Object> getContent(String id) {
-        try (InputStream is = minioClient.getObject(
-                GetObjectArgs.builder()
-                        .bucket("materials")
-                        .object(id)
-                        .build())) {
-
-            JSONObject contentPDF = contentReader.readContent(is, id);
-            return objectMapper.readValue(
-                    contentPDF.toString(),
-                    new TypeReference<>() {}
-            );
+    public List<MaterialSummary> listMaterialSummaries(String chapterId) {
+        return materialRepository.findSummariesByChapterId(chapterId);
+    }
 
+    @Override
+    public CursorPage<MaterialDTO> listMaterials(String chapterId, String cursor, Integer size) {
+        int pageSize = KeysetCursor.clampSize(size);
+        List<MaterialDetail> rows = materialRepository.findDetailPageAfter(chapterId, afterId(cursor), pageSize + 1);
+        return KeysetCursor.page(rows, pageSize, row -> KeysetCursor.encode(row.getId()), materialMapper::toDTO);
+    }
+
+    @Override
+    public CursorPage<MaterialSummary> listMaterialSummaries(String chapterId, String cursor, Integer size) {
+        int pageSize = KeysetCursor.clampSize(size);
+        List<MaterialSummary> rows = materialRepository.findSummaryPageAfter(chapterId, afterId(cursor), pageSize + 1);
+        return KeysetCursor.page(rows, pageSize, summary -> KeysetCursor.encode(summary.getId()), summary -> summary);
+    }
+
+    // Mọi id (UUID) đều lớn hơn chuỗi rỗng nên trang đầu không cần truy vấn riêng
+    private static String afterId(String cursor) {
+        return cursor == null || cursor.isBlank() ? "" : KeysetCursor.decode(cursor, 1)[0];
+    }
+
+    @Override
+    public MaterialDTO getMaterial(String materialId) {
+        return materialRepository.findById(materialId)
+                .map(materialMapper::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Material not found with id: " + materialId));
+    }
+
+    // Không mở transaction: stat MinIO và chờ trích xuất (tới deadline của bulkhead) không được giữ connection DB,
+    // nếu không pool connection cạn trước khi request nhận được 503
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public ExtractedDocument getContent(String id) {
+        try {
+            // Nội dung có thể dùng chung với chapter khác: trả về với tên file của chapter này
+            ContentBlobStore.ContentObject object = blobStore.resolve(id);
+            return getContent(object, statObject(object.objectName())).toBuilder()
+                    .fileName(object.fileName())
+                    .build();
+        } catch (ExtractionRejectedException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to read content for id: " + id, e);
         }
+    }
+
+    private StatObjectResponse statObject(String objectName) throws Exception {
+        // statObject chỉ đọc metadata: nếu ETag không đổi thì dùng lại kết quả trích xuất đã cache
+        return minioClient.statObject(
+                StatObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(objectName)
+                        .build());
+    }
+
+    private ExtractedDocument getContent(ContentBlobStore.ContentObject object, StatObjectResponse stat) throws Exception {
+        String objectName = object.objectName();
+        Optional<ExtractedDocument> cached = contentCache.get(bucket, objectName, stat.etag());
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        // Phiên bản này đang được pipeline xử lý (hoặc đã lỗi): trả về trạng thái thay vì parse lại
+        Optional<ExtractedContent> record = extractionPipeline.findUnfinishedRecord(objectName, stat.etag());
+        if (record.isPresent()) {
+            return ExtractedDocument.builder()
+                    .fileName(objectName)
+                    .status(record.get().getStatus().name())
+                    .attempts(record.get().getAttempts())
+                    .error(record.get().getError())
+                    .build();
+        }
+
+        // Object được đưa lên ngoài pipeline (chưa có bản ghi): trích xuất ngay
+        return extractionPipeline.extractNow(objectName, object.fileName(), object.contentType(), stat);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public ContentSelection getContent(String id, String pages, String range) {
+        // Cắt trên bản đã cache nên request theo trang không phải trích xuất lại
+        return ContentRangeSelector.select(getContent(id), pages, range);
+    }
 
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public StoredText.Slice getContentText(String id, String pages) {
+        StoredText text;
+        try {
+            ContentBlobStore.ContentObject object = blobStore.resolve(id);
+            String objectName = object.objectName();
+            StatObjectResponse stat = statObject(objectName);
+            Optional<StoredText> stored = textStore.find(bucket, objectName, stat.etag());
+            if (stored.isPresent()) {
+                text = stored.get();
+            } else {
+                // Chưa có trong store (trích xuất trước khi có store, hoặc store bị dọn): lấy từ cache / trích xuất rồi ghi lại
+                ExtractedDocument content = getContent(object, stat);
+                text = textStore.find(bucket, objectName, stat.etag())
+                        .or(() -> textStore.put(bucket, objectName, stat.etag(), content))
+                        .orElseThrow(() -> new ResourceNotFoundException("Content not available for id: " + id
+                                + ", status: " + (content.getStatus() != null ? content.getStatus() : content.getError())));
+            }
+        } catch (ResourceNotFoundException | ExtractionRejectedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read content for id: " + id, e);
+        }
+        return text.slice(pages);
+    }
+
+    // Không giữ connection DB trong lúc băm / upload (import hàng loạt upload song song);
+    // ContentBlobStore tự mở các transaction ngắn cho đếm tham chiếu
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public Map<String, Object> uploadContent(String id, MultipartFile file) {
+        try {
+            ContentBlobStore.Registration registered = blobStore.register(id, file);
+
+            // Trích xuất chạy nền; người đọc sẽ thấy status = PENDING cho đến khi xong.
+            // Nội dung trùng với file đã có thì dùng lại kết quả trích xuất của blob đó
+            ExtractionStatus status = extractionPipeline.submitIfMissing(
+                    registered.objectName(), registered.etag(), registered.fileName());
+            // Object đã nằm trên MinIO; sự kiện được ghi trong transaction riêng của recorder
+            changeRecorder.contentChanged(id, ContentChangeType.UPDATED);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("fileName", id);
+            result.put("etag", registered.etag());
+            result.put("sha256", registered.sha256());
+            result.put("deduplicated", !registered.stored());
+            result.put("status", status.name());
+            return result;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to upload content for id: " + id, e);
+        }
+    }
+
+    @Override
+    public MaterialFileDTO getFile(String id) {
+        try {
+            ContentBlobStore.ContentObject object = blobStore.resolve(id);
+            StatObjectResponse stat = statObject(object.objectName());
+            return MaterialFileDTO.builder()
+                    .objectName(object.objectName())
+                    .fileName(object.fileName())
+                    .size(stat.size())
+                    .contentType(stat.contentType() != null ? stat.contentType() : "application/octet-stream")
+                    .etag(stat.etag())
+                    .build();
+        } catch (Exception e) {
+            throw notFoundOrFailure(id, e);
+        }
+    }
+
+    /**
+     * Copy [offset, offset + length) của object thẳng từ MinIO ra out (length null = tới cuối file).
+     * MinIO chỉ gửi đúng khoảng byte được yêu cầu; dữ liệu đi qua buffer nhỏ, không nằm nguyên trên heap.
+     * Không mở transaction: việc tải file có thể kéo dài và không được giữ connection DB.
+     */
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void streamFile(String id, String etag, long offset, Long length, OutputStream out) throws IOException {
+        GetObjectArgs.Builder args = GetObjectArgs.builder()
+                .bucket(bucket)
+                .object(blobStore.resolve(id).objectName())
+                // File bị thay thế giữa lúc stat và lúc tải: lỗi thay vì trả lẫn byte của hai phiên bản
+                .matchETag(etag)
+                .offset(offset);
+        if (length != null) {
+            args.length(length);
+        }
+        try (InputStream is = minioClient.getObject(args.build())) {
+            is.transferTo(out);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to stream file for id: " + id, e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getFileUrl(String id, boolean download) {
+        try {
+            // Kiểm tra object tồn tại trước khi ký URL
+            ContentBlobStore.ContentObject object = blobStore.resolve(id);
+            statObject(object.objectName());
+
+            GetPresignedObjectUrlArgs.Builder args = GetPresignedObjectUrlArgs.builder()
+                    .method(Method.GET)
+                    .bucket(bucket)
+                    .object(object.objectName())
+                    .expiry(presignExpirySeconds, TimeUnit.SECONDS);
+            if (download) {
+                String fileName = object.fileName().replace("\"", "");
+                args.extraQueryParams(Map.of("response-content-disposition", "attachment; filename=\"" + fileName + "\""));
+            }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("fileName", object.fileName());
+            result.put("url", minioClient.getPresignedObjectUrl(args.build()));
+            result.put("expiresAt", Instant.now().plusSeconds(presignExpirySeconds).toString());
+            return result;
+        } catch (Exception e) {
+            throw notFoundOrFailure(id, e);
+        }
+    }
+
+    private RuntimeException notFoundOrFailure(String id, Exception e) {
+        if (e instanceof ErrorResponseException error && "NoSuchKey".equals(error.errorResponse().code())) {
+            return new ResourceNotFoundException("File not found for id: " + id);
+        }
+        return new RuntimeException("Failed to read file for id: " + id, e);
     }
-}
\ No newline at end of file
+}
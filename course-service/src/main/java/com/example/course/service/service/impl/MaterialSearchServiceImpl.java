@@ -0,0 +1,40 @@
+package com.example.course.service.service.impl;
+
+import com.example.course.service.dto.search.MaterialSearchHit;
+import com.example.course.service.exception.BadRequestException;
+import com.example.course.service.repository.IMaterialRepository;
+import com.example.course.service.service.IMaterialSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class MaterialSearchServiceImpl implements IMaterialSearchService {
+
+    private static final int MAX_LIMIT = 50;
+    private static final int MAX_QUERY_LENGTH = 256;
+
+    private final IMaterialRepository materialRepository;
+
+    @Value("${minio.bucket:materials}")
+    private String bucket;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MaterialSearchHit> search(String courseId, String chapterId, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Search query is too long, max " + MAX_QUERY_LENGTH + " characters");
+        }
+        // websearch_to_tsquery chấp nhận cú pháp kiểu Google ("cụm từ", -loại trừ, OR) và không lỗi với input tùy ý
+        return materialRepository.search(bucket, courseId,
+                chapterId == null || chapterId.isBlank() ? null : chapterId,
+                query.strip(), Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
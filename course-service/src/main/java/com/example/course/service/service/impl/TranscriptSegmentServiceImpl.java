@@ -0,0 +1,62 @@
+package com.example.course.service.service.impl;
+
+import com.example.course.service.dto.transcript.TranscriptSegment;
+import com.example.course.service.exception.BadRequestException;
+import com.example.course.service.exception.ResourceNotFoundException;
+import com.example.course.service.repository.IMaterialRepository;
+import com.example.course.service.service.ITranscriptSegmentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TranscriptSegmentServiceImpl implements ITranscriptSegmentService {
+
+    private static final int MAX_LIMIT = 200;
+    private static final int MAX_CONTEXT = 5;
+    private static final int MAX_QUERY_LENGTH = 256;
+    private static final double MAX_WINDOW_SECONDS = 600;
+
+    private final IMaterialRepository materialRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TranscriptSegment> around(String materialId, double atSeconds, double windowSeconds, int limit) {
+        if (!Double.isFinite(atSeconds) || atSeconds < 0) {
+            throw new BadRequestException("Timestamp must be a non-negative number of seconds");
+        }
+        double window = Double.isFinite(windowSeconds) ? Math.max(0, Math.min(windowSeconds, MAX_WINDOW_SECONDS)) : 0;
+        long atMs = Math.round(atSeconds * 1000);
+        long windowMs = Math.round(window * 1000);
+        return orNotFound(materialId, materialRepository.findTranscriptSegments(materialId,
+                Math.max(0, atMs - windowMs), atMs + windowMs, clamp(limit, 1, MAX_LIMIT)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TranscriptSegment> search(String materialId, String query, int context, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Search query is too long, max " + MAX_QUERY_LENGTH + " characters");
+        }
+        return orNotFound(materialId, materialRepository.searchTranscript(materialId, query.strip(),
+                clamp(context, 0, MAX_CONTEXT), clamp(limit, 1, MAX_LIMIT)));
+    }
+
+    // Chỉ kiểm tra material tồn tại khi không có kết quả, để phân biệt 404 với transcript không khớp
+    private List<TranscriptSegment> orNotFound(String materialId, List<TranscriptSegment> segments) {
+        if (segments.isEmpty() && !materialRepository.existsById(materialId)) {
+            throw new ResourceNotFoundException("Material not found with id: " + materialId);
+        }
+        return segments;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(value, max));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.course.service.util.content;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.course.service.exception.BadRequestException;
+
+/**
+ * Chọn nội dung đã trích xuất theo trang (pages=from-to) hoặc theo khoảng ký tự (range=start-end).
+ * Dựa trên pageOffsets do PdfReader ghi lại lúc trích xuất nên không cần parse lại file;
+ * kết quả chỉ là khoảng trên text gốc, ContentResponseWriter ghi thẳng khoảng đó ra response.
+ */
+public final class ContentRangeSelector {
+
+    private ContentRangeSelector() {
+    }
+
+    /**
+     * @param content kết quả trích xuất đầy đủ (fileName, pages, pageOffsets, content, ...)
+     * @param pages   "from-to" hoặc "n" (đánh số từ 1, bao gồm cả hai đầu), có thể null
+     * @param range   "start-end" hoặc "start-" theo vị trí ký tự (end không bao gồm), có thể null
+     */
+    public static ContentSelection select(ExtractedDocument content, String pages, String range) {
+        if (!isBlank(pages) && !isBlank(range)) {
+            throw new BadRequestException("Use either pages or range, not both");
+        }
+        String text = content.getContent();
+        if ((isBlank(pages) && isBlank(range)) || text == null) {
+            // Không chọn gì, hoặc chưa trích xuất xong / bị lỗi: trả nguyên trạng thái
+            return ContentSelection.whole(content);
+        }
+        return !isBlank(pages) ? selectPages(content, text, pages) : selectRange(content, text, range);
+    }
+
+    private static ContentSelection selectPages(ExtractedDocument content, String text, String pages) {
+        List<Integer> offsets = content.getPageOffsets();
+        if (offsets == null || offsets.isEmpty()) {
+            throw new BadRequestException("Material has no page information: " + content.getFileName());
+        }
+        int pageCount = offsets.size();
+        int[] bounds = pageBounds(pages, pageCount);
+        int from = bounds[0];
+        int to = bounds[1];
+
+        int start = offsets.get(from - 1);
+        int end = to < pageCount ? offsets.get(to) : text.length();
+
+        List<Integer> sliceOffsets = new ArrayList<>(to - from + 1);
+        for (int page = from; page <= to; page++) {
+            sliceOffsets.add(offsets.get(page - 1) - start);
+        }
+
+        ExtractedDocument selected = content.toBuilder()
+                .content(null)
+                .pageRange(from + "-" + to)
+                .pageOffsets(sliceOffsets)
+                .contentOffset(start)
+                .contentLength(text.length())
+                .build();
+        return new ContentSelection(selected, text, start, end);
+    }
+
+    /**
+     * Chuyển "from-to" / "from-" / "n" thành [from, to] đã kiểm tra với số trang (đánh số từ 1, bao gồm hai đầu).
+     */
+    public static int[] pageBounds(String pages, int pageCount) {
+        int[] bounds = parseBounds(pages, "pages");
+        int from = bounds[0];
+        int to = bounds[1] < 0 ? pageCount : Math.min(bounds[1], pageCount);
+        if (from < 1 || from > pageCount || from > to) {
+            throw new BadRequestException("Invalid page range " + pages + " for " + pageCount + " pages");
+        }
+        return new int[]{from, to};
+    }
+
+    private static ContentSelection selectRange(ExtractedDocument content, String text, String range) {
+        int[] bounds = parseBounds(range, "range");
+        int start = bounds[0];
+        int end = bounds[1] < 0 ? text.length() : Math.min(bounds[1], text.length());
+        if (start < 0 || start > text.length() || start > end) {
+            throw new BadRequestException("Invalid range " + range + " for content length " + text.length());
+        }
+
+        ExtractedDocument selected = content.toBuilder()
+                .content(null)
+                // pageOffsets không còn khớp với đoạn đã cắt
+                .pageOffsets(null)
+                .contentOffset(start)
+                .contentLength(text.length())
+                .build();
+        return new ContentSelection(selected, text, start, end);
+    }
+
+    /**
+     * "a-b" -> [a, b]; "a-" -> [a, -1]; "a" -> [a, a].
+     */
+    private static int[] parseBounds(String value, String name) {
+        try {
+            String trimmed = value.trim();
+            int dash = trimmed.indexOf('-');
+            if (dash < 0) {
+                int single = Integer.parseInt(trimmed);
+                return new int[]{single, single};
+            }
+            int from = Integer.parseInt(trimmed.substring(0, dash).trim());
+            String rest = trimmed.substring(dash + 1).trim();
+            return new int[]{from, rest.isEmpty() ? -1 : Integer.parseInt(rest)};
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid " + name + " format, expected from-to: " + value);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,40 +1,71 @@
 package com.example.course.service.util.content;
 
+import com.example.course.service.exception.ExtractionRejectedException;
 import com.example.course.service.util.content.strategy.ContentReaderStrategy;
 import com.example.course.service.util.content.strategy.DocxReader;
 import com.example.course.service.util.content.strategy.PdfReader;
-import org.json.JSONObject;
+import com.example.course.service.util.content.strategy.StreamingDocxReader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @Component
 public class ContentReader {
 
+    private static final Map<String, String> CONTENT_TYPE_EXTENSIONS = Map.of(
+            "application/pdf", "pdf",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document", "docx");
+
     private final Map<String, ContentReaderStrategy> strategies = new HashMap<>();
 
-    public ContentReader(PdfReader pdfReader, DocxReader docxReader) {
+    public ContentReader(PdfReader pdfReader,
+                         DocxReader docxReader,
+                         StreamingDocxReader streamingDocxReader,
+                         @Value("${content.docx.reader:streaming}") String docxMode) {
         strategies.put("pdf", pdfReader);
-        strategies.put("docx", docxReader);
+        // "dom" giữ lại DocxReader (XWPFDocument) cũ; mặc định đọc DOCX theo kiểu streaming (StAX)
+        strategies.put("docx", "dom".equalsIgnoreCase(docxMode) ? docxReader : streamingDocxReader);
     }
 
-    public JSONObject readContent(InputStream is, String fileName) {
-        String ext = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
-        ContentReaderStrategy strategy = strategies.get(ext);
-        JSONObject result = new JSONObject();
+    /**
+     * Chọn strategy theo content type đã lưu khi upload, không có hoặc không nhận ra thì theo phần mở rộng
+     * của fileName. fileName là tên file của chapter, không phải tên object (object dùng chung giữa các chapter
+     * mang phần mở rộng của lần upload đầu tiên).
+     */
+    public ExtractedDocument readContent(InputStream is, String fileName, String contentType) {
+        ContentReaderStrategy strategy = strategies.get(fileType(fileName, contentType));
 
         if (strategy == null) {
-            result.put("error", "Unsupported file type: " + fileName);
-            return result;
+            return ExtractedDocument.failed(fileName, "Unsupported file type: " + fileName);
         }
 
         try {
             return strategy.read(is, fileName);
+        } catch (ExtractionRejectedException e) {
+            // Quá tải không phải lỗi của tài liệu: để caller trả 503 / thử lại thay vì ghi nhận FAILED
+            throw e;
+        } catch (InterruptedException e) {
+            // Bị ngắt (thường do shutdown) khi đang chờ: giữ cờ interrupt, không ghi nhận tài liệu là lỗi
+            Thread.currentThread().interrupt();
+            throw new ExtractionRejectedException("Extraction of " + fileName + " was interrupted");
         } catch (Exception e) {
-            result.put("error", e.getMessage());
-            return result;
+            return ExtractedDocument.failed(fileName, e.getMessage());
+        }
+    }
+
+    private static String fileType(String fileName, String contentType) {
+        if (contentType != null) {
+            // Bỏ tham số (vd. "; charset=...")
+            String mediaType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+            String ext = CONTENT_TYPE_EXTENSIONS.get(mediaType);
+            if (ext != null) {
+                return ext;
+            }
         }
+        return fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,62 @@
+package com.example.course.service.util.content;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Ghi response nội dung material ({message, status, data}) bằng Jackson JsonGenerator thẳng ra output stream.
+ * Các field mô tả của document được serialize bình thường (nhỏ); riêng content được ghi từ khoảng
+ * [start, end) của text gốc qua Reader, nên không có bản copy String / Map / JSON trung gian nào của text.
+ * Dạng JSON giống ResponseObject để client (ai-service) không phải đổi.
+ */
+@Component
+public class ContentResponseWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public ContentResponseWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void write(OutputStream out, int status, String message, ContentSelection selection) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // Stream của response do Spring đóng
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (generator) {
+            generator.writeStartObject();
+            generator.writeStringField("message", message);
+            generator.writeNumberField("status", status);
+            generator.writeFieldName("data");
+            writeDocument(generator, selection);
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeDocument(JsonGenerator generator, ContentSelection selection) throws IOException {
+        ObjectNode fields = objectMapper.valueToTree(selection.document());
+        generator.writeStartObject();
+        for (Iterator<Map.Entry<String, JsonNode>> it = fields.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            generator.writeFieldName(field.getKey());
+            generator.writeTree(field.getValue());
+        }
+        if (selection.hasText()) {
+            StringReader reader = new StringReader(selection.text());
+            reader.skip(selection.start());
+            generator.writeFieldName("content");
+            generator.writeString(reader, selection.length());
+        }
+        generator.writeEndObject();
+    }
+}
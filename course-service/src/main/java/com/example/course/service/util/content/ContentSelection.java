@@ -0,0 +1,41 @@
+package com.example.course.service.util.content;
+
+/**
+ * Phần nội dung được chọn để trả về: document chứa các field mô tả (content = null)
+ * và khoảng [start, end) trên text gốc, để khi ghi response không phải cắt substring.
+ *
+ * @param document document đã bỏ content, kèm pageRange / pageOffsets / contentOffset nếu có chọn
+ * @param text     text đầy đủ đã trích xuất, null nếu chưa có (đang chờ / lỗi)
+ * @param start    vị trí ký tự bắt đầu (bao gồm)
+ * @param end      vị trí ký tự kết thúc (không bao gồm)
+ */
+public record ContentSelection(ExtractedDocument document, String text, int start, int end) {
+
+    public static ContentSelection whole(ExtractedDocument document) {
+        String text = document.getContent();
+        return new ContentSelection(document.toBuilder().content(null).build(),
+                text, 0, text != null ? text.length() : 0);
+    }
+
+    public boolean hasText() {
+        return text != null;
+    }
+
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * Phần được chọn ở dạng chuẩn hóa: "all", "p{from}-{to}" (trang sau khi giới hạn theo số trang)
+     * hoặc "r{start}-{end}" (khoảng ký tự thực tế). Hai lựa chọn cho cùng nội dung có cùng giá trị.
+     */
+    public String selectionTag() {
+        if (document.getPageRange() != null) {
+            return "p" + document.getPageRange();
+        }
+        if (document.getContentOffset() != null) {
+            return "r" + start + "-" + end;
+        }
+        return "all";
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.course.service.util.content;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Kết quả trích xuất có kiểu, thay cho JSONObject / Map.
+ * Tên field giữ nguyên các key JSON cũ để bản ghi extracted_contents và client (ai-service) không đổi.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ExtractedDocument {
+    private String fileName;
+    private String status;
+    private Integer attempts;
+    private String error;
+
+    private Integer pages;
+    private List<Integer> pageOffsets;
+    private Integer paragraphs;
+    private Integer tables;
+    private Map<String, String> documentInfo;
+    private Map<String, Object> metadata;
+
+    // Chỉ có khi request chọn một phần nội dung (pages / range)
+    private String pageRange;
+    private Integer contentOffset;
+    private Integer contentLength;
+
+    private String content;
+
+    public static ExtractedDocument failed(String fileName, String error) {
+        return ExtractedDocument.builder()
+                .fileName(fileName)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * ETag của phiên bản object MinIO đã được trích xuất, null khi chưa trích xuất xong.
+     */
+    @JsonIgnore
+    public String objectEtag() {
+        Object etag = metadata != null ? metadata.get("etag") : null;
+        return etag != null ? etag.toString() : null;
+    }
+
+    @JsonIgnore
+    public boolean isFailed() {
+        return error != null && content == null;
+    }
+}
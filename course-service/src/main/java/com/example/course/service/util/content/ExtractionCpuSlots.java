@@ -0,0 +1,76 @@
+package com.example.course.service.util.content;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Số slot CPU dùng chung giữa bulkhead (ExtractionExecutor) và việc trích xuất PDF song song theo trang.
+ * Mỗi job của bulkhead giữ một slot trong lúc parse; PdfReader chỉ chia trang cho thêm những slot
+ * đang rảnh (không chờ), nên tổng số thread parse không vượt quá số slot dù tải cao.
+ */
+@Component
+public class ExtractionCpuSlots {
+
+    private final Semaphore slots;
+    private final int total;
+
+    public ExtractionCpuSlots(@Value("${content.extraction.executor.threads:0}") int threads) {
+        this.total = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // fair: job đang chờ slot được ưu tiên hơn PdfReader mượn thêm
+        this.slots = new Semaphore(total, true);
+    }
+
+    public int total() {
+        return total;
+    }
+
+    /**
+     * Giữ một slot cho job của bulkhead; chờ nếu slot đang được PdfReader mượn.
+     */
+    public Lease acquire() throws InterruptedException {
+        slots.acquire();
+        return new Lease(1);
+    }
+
+    /**
+     * Mượn thêm tối đa max slot đang rảnh, không chờ.
+     *
+     * @return lease với số slot mượn được (có thể là 0)
+     */
+    public Lease tryAcquireUpTo(int max) throws InterruptedException {
+        int count = 0;
+        // tryAcquire có timeout tôn trọng fairness, khác tryAcquire() không tham số
+        while (count < max && slots.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+            count++;
+        }
+        return new Lease(count);
+    }
+
+    public int available() {
+        return slots.availablePermits();
+    }
+
+    public final class Lease implements AutoCloseable {
+        private final int count;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(int count) {
+            this.count = count;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true) && count > 0) {
+                slots.release(count);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.course.service.util.content;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.course.service.exception.ExtractionRejectedException;
+
+/**
+ * Ngân sách bộ nhớ dùng chung cho mọi lần trích xuất (admission control).
+ * Mỗi tài liệu giữ một phần ngân sách ước lượng theo kích thước file trong lúc parse;
+ * khi không đủ thì bị từ chối ngay (503 / job nền thử lại sau) thay vì làm OOM service.
+ * Không chờ: việc parse chạy trên thread của bulkhead, chờ ở đây sẽ giữ thread trong khi
+ * các request trong hàng đợi trễ deadline.
+ * Đơn vị permit là KB để tổng ngân sách vừa với int.
+ */
+@Component
+public class ExtractionMemoryBudget {
+
+    private final Semaphore permits;
+    private final int totalKb;
+
+    public ExtractionMemoryBudget(@Value("${content.extraction.memory-budget-bytes:536870912}") long budgetBytes) {
+        this.totalKb = (int) Math.min(Integer.MAX_VALUE, Math.max(1, budgetBytes / 1024));
+        this.permits = new Semaphore(totalKb);
+    }
+
+    /**
+     * Giữ bytes nếu đủ ngay lập tức (tối đa bằng toàn bộ ngân sách, để một tài liệu rất lớn
+     * vẫn chạy được khi hệ thống rảnh).
+     *
+     * @throws ExtractionRejectedException nếu không đủ ngân sách
+     */
+    public Reservation reserve(long bytes) {
+        Reservation reservation = tryReserve(bytes);
+        if (reservation == null) {
+            throw new ExtractionRejectedException(
+                    "Extraction memory budget exhausted, " + availableBytes() + " bytes free, " + bytes + " requested");
+        }
+        return reservation;
+    }
+
+    /**
+     * Giữ bytes nếu đủ ngay lập tức, không chờ.
+     *
+     * @return reservation, hoặc null nếu không đủ ngân sách
+     */
+    public Reservation tryReserve(long bytes) {
+        int kb = (int) Math.min(totalKb, Math.max(1, (bytes + 1023) / 1024));
+        return permits.tryAcquire(kb) ? new Reservation(kb) : null;
+    }
+
+    public long availableBytes() {
+        return permits.availablePermits() * 1024L;
+    }
+
+    public final class Reservation implements AutoCloseable {
+        private final int kb;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(int kb) {
+            this.kb = kb;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release(kb);
+            }
+        }
+    }
+}
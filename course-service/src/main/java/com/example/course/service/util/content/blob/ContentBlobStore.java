@@ -0,0 +1,287 @@
+package com.example.course.service.util.content.blob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.course.service.model.content.ContentBlob;
+import com.example.course.service.model.content.ContentRef;
+import com.example.course.service.repository.IContentBlobRepository;
+import com.example.course.service.repository.IContentRefRepository;
+
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lưu file của chapter theo nội dung (content-addressed): object blobs/&lt;sha256&gt;.&lt;ext&gt; trên MinIO
+ * được dùng chung bởi mọi chapter có cùng nội dung, kèm đếm tham chiếu trong content_blobs.
+ * Vì extracted_contents, text store và material_passages đều khóa theo object name nên kết quả trích xuất
+ * cũng được dùng chung: dung lượng và CPU trích xuất tăng theo số nội dung khác nhau, không theo số chapter.
+ *
+ * Upload: băm SHA-256 theo stream từ file multipart (đã được Spring ghi tạm ra đĩa), giữ chỗ blob (ref + 1),
+ * chỉ đưa lên MinIO nếu object chưa có, rồi đổi ref của chapter và nhả blob cũ trong một transaction.
+ * Chapter upload trước khi có bảng content_refs vẫn đọc object cũ đặt tên theo chapterId.
+ */
+@Component
+@Slf4j
+public class ContentBlobStore {
+
+    static final String OBJECT_PREFIX = "blobs/";
+    private static final int HASH_BUFFER_BYTES = 64 * 1024;
+    private static final int SWEEP_BATCH = 100;
+    // Chờ tối đa ~5 s cho lần dọn đang xóa object của cùng nội dung
+    private static final int PIN_ATTEMPTS = 50;
+    private static final long PIN_RETRY_MILLIS = 100;
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
+    private final MinioClient minioClient;
+    private final IContentBlobRepository blobRepository;
+    private final IContentRefRepository refRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String bucket;
+    private final Duration orphanGrace;
+
+    public ContentBlobStore(MinioClient minioClient,
+                            IContentBlobRepository blobRepository,
+                            IContentRefRepository refRepository,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${minio.bucket:materials}") String bucket,
+                            @Value("${content.blobs.orphan-grace-ms:3600000}") long orphanGraceMillis) {
+        this.minioClient = minioClient;
+        this.blobRepository = blobRepository;
+        this.refRepository = refRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.bucket = bucket;
+        this.orphanGrace = Duration.ofMillis(orphanGraceMillis);
+    }
+
+    /**
+     * Object MinIO đang chứa file của chapter.
+     */
+    public ContentObject resolve(String chapterId) {
+        return refRepository.findById(chapterId)
+                .map(ref -> new ContentObject(ref.getObjectName(), ref.getFileName(), ref.getContentType(), ref.getSha256()))
+                .orElseGet(() -> new ContentObject(chapterId, chapterId.substring(chapterId.lastIndexOf('/') + 1), null, null));
+    }
+
+    /**
+     * Gán file cho chapter. stored = false nghĩa là nội dung đã có sẵn (của chapter này hoặc chapter khác)
+     * nên không có byte nào được gửi lên MinIO.
+     */
+    public Registration register(String chapterId, MultipartFile file) throws Exception {
+        String sha256 = sha256(file);
+        String fileName = file.getOriginalFilename() != null && !file.getOriginalFilename().isBlank()
+                ? file.getOriginalFilename()
+                : chapterId;
+        String contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
+
+        // Giữ chỗ trước khi kiểm tra object: từ đây blob không thể bị dọn cho tới khi nhả
+        pin(sha256, OBJECT_PREFIX + sha256 + extension(fileName), file.getSize(), contentType);
+        try {
+            // Tên object do lần upload đầu tiên của nội dung này quyết định
+            ContentBlob blob = blobRepository.findById(sha256).orElseThrow();
+            String etag = etagOf(blob.getObjectName());
+            boolean stored = false;
+            if (etag == null) {
+                try (InputStream is = file.getInputStream()) {
+                    etag = minioClient.putObject(
+                            PutObjectArgs.builder()
+                                    .bucket(bucket)
+                                    .object(blob.getObjectName())
+                                    .stream(is, file.getSize(), -1)
+                                    .contentType(contentType)
+                                    .build()).etag();
+                }
+                stored = true;
+            }
+            transactionTemplate.executeWithoutResult(status -> swap(chapterId, blob, fileName, contentType));
+            log.debug("Chapter {} -> blob {} ({})", chapterId, sha256, stored ? "uploaded" : "deduplicated");
+            return new Registration(sha256, blob.getObjectName(), fileName, etag, stored);
+        } catch (Exception e) {
+            blobRepository.release(sha256, Instant.now());
+            throw e;
+        }
+    }
+
+    /**
+     * Blob đang bị xóa (tombstone) không pin được: chờ lần dọn xóa hẳn dòng, khi đó pin tạo dòng mới
+     * và object được upload lại.
+     */
+    private void pin(String sha256, String objectName, long sizeBytes, String contentType) throws InterruptedException {
+        for (int attempt = 1; blobRepository.pin(sha256, objectName, sizeBytes, contentType, Instant.now()) == 0; attempt++) {
+            if (attempt == PIN_ATTEMPTS) {
+                throw new IllegalStateException("Content blob " + sha256 + " is being deleted, retry the upload later");
+            }
+            Thread.sleep(PIN_RETRY_MILLIS);
+        }
+    }
+
+    /**
+     * Trỏ chapter sang blob mới và nhả blob cũ. Upload lại đúng file cũ: pin rồi release cùng blob, ref không đổi.
+     */
+    private void swap(String chapterId, ContentBlob blob, String fileName, String contentType) {
+        Optional<ContentRef> previous = refRepository.lockByChapterId(chapterId);
+        ContentRef ref = previous.orElseGet(() -> {
+            ContentRef created = new ContentRef();
+            created.setChapterId(chapterId);
+            return created;
+        });
+        String previousSha256 = ref.getSha256();
+        ref.setSha256(blob.getSha256());
+        ref.setObjectName(blob.getObjectName());
+        ref.setFileName(fileName);
+        ref.setContentType(contentType);
+        ref.setUpdatedAt(Instant.now());
+        refRepository.save(ref);
+        if (previousSha256 != null) {
+            blobRepository.release(previousSha256, Instant.now());
+        }
+    }
+
+    /**
+     * Nhả ref của các chapter đã bị xóa, rồi xóa blob không còn tham chiếu quá orphan-grace:
+     * object MinIO, kết quả trích xuất và passage tìm kiếm.
+     *
+     * Blob được đánh dấu tombstone và commit trước khi xóa object: pin cùng nội dung sau thời điểm đó chờ
+     * dòng bị xóa hẳn rồi upload lại, nên không có upload nào dùng object đang bị xóa. Dòng blob chỉ bị xóa
+     * sau khi object đã bị xóa; xóa object lỗi thì bỏ tombstone, lần dọn sau thử lại.
+     */
+    @Scheduled(fixedDelayString = "${content.blobs.sweep-interval-ms:3600000}")
+    public void deleteOrphans() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Xóa chapter không đụng tới blob; ref của chapter không còn tồn tại được nhả ở đây
+            List<String> released = jdbcTemplate.queryForList("""
+                    DELETE FROM content_refs r
+                    WHERE NOT EXISTS (SELECT 1 FROM chapter c WHERE c.id = r.chapter_id)
+                    RETURNING r.sha256
+                    """, String.class);
+            released.forEach(sha256 -> blobRepository.release(sha256, Instant.now()));
+        });
+
+        List<ContentBlob> removed;
+        do {
+            List<ContentBlob> orphans = transactionTemplate.execute(status -> {
+                List<ContentBlob> locked = blobRepository.lockOrphans(Instant.now().minus(orphanGrace), SWEEP_BATCH);
+                if (!locked.isEmpty()) {
+                    blobRepository.markDeleting(locked.stream().map(ContentBlob::getSha256).toList(), true);
+                }
+                return locked;
+            });
+            if (orphans == null || orphans.isEmpty()) {
+                return;
+            }
+
+            // Ngoài transaction: không giữ khóa dòng và connection DB trong lúc gọi MinIO
+            removed = new ArrayList<>();
+            List<String> failed = new ArrayList<>();
+            for (ContentBlob blob : orphans) {
+                try {
+                    minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucket).object(blob.getObjectName()).build());
+                    removed.add(blob);
+                } catch (Exception e) {
+                    log.warn("Could not delete orphan blob {}: {}", blob.getObjectName(), e.getMessage());
+                    failed.add(blob.getSha256());
+                }
+            }
+
+            List<ContentBlob> deleted = removed;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ContentBlob blob : deleted) {
+                    jdbcTemplate.update("DELETE FROM material_passages WHERE bucket = ? AND object_name = ?",
+                            bucket, blob.getObjectName());
+                    jdbcTemplate.update("DELETE FROM extracted_contents WHERE bucket = ? AND object_name = ?",
+                            bucket, blob.getObjectName());
+                }
+                blobRepository.deleteAllByIdInBatch(deleted.stream().map(ContentBlob::getSha256).toList());
+                // Object vẫn còn: upload cùng nội dung dùng lại được ngay
+                if (!failed.isEmpty()) {
+                    blobRepository.markDeleting(failed, false);
+                }
+            });
+            if (!removed.isEmpty()) {
+                log.info("Swept {} unreferenced content blobs", removed.size());
+            }
+            // Có lỗi thì dừng, không chọn lại ngay các blob vừa xóa lỗi
+        } while (removed.size() == SWEEP_BATCH);
+    }
+
+    private String etagOf(String objectName) throws Exception {
+        try {
+            return minioClient.statObject(StatObjectArgs.builder().bucket(bucket).object(objectName).build()).etag();
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * SHA-256 đọc theo stream với buffer cố định, không nạp cả file vào heap.
+     */
+    static String sha256(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[HASH_BUFFER_BYTES];
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Object giữ phần mở rộng của lần upload đầu tiên; ContentReader chọn strategy theo content type / tên file của chapter
+    private static String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
+        }
+        String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    /**
+     * @param objectName  object MinIO chứa nội dung
+     * @param fileName    tên file gốc khi upload (tên object với dữ liệu cũ)
+     * @param contentType content type khi upload của chapter này; null với object cũ
+     * @param sha256      null với object cũ chưa lưu theo nội dung
+     */
+    public record ContentObject(String objectName, String fileName, String contentType, String sha256) {
+    }
+
+    /**
+     * @param fileName tên file của chapter (tên object có thể mang phần mở rộng của chapter khác)
+     * @param stored   false nếu nội dung đã có trên MinIO và không upload lại
+     */
+    public record Registration(String sha256, String objectName, String fileName, String etag, boolean stored) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.course.service.util.content.cache;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.course.service.model.content.ExtractedContent;
+import com.example.course.service.model.content.ExtractedContentId;
+import com.example.course.service.model.content.ExtractionStatus;
+import com.example.course.service.repository.IExtractedContentRepository;
+import com.example.course.service.util.content.ExtractedDocument;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache nội dung đã trích xuất, khóa theo bucket/object/ETag.
+ * Hai tầng: bộ nhớ (LRU giới hạn theo tổng kích thước) và bảng extracted_contents trong Postgres.
+ * Một ETag khác với ETag đã lưu nghĩa là object đã bị thay thế, entry cũ bị bỏ qua.
+ * Document trả về được dùng chung giữa các request: caller không được sửa, cần thay đổi thì dùng toBuilder().
+ */
+@Component
+@Slf4j
+public class ExtractedContentCache {
+
+    private final IExtractedContentRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long maxMemoryBytes;
+
+    // access-order = true => LRU; mọi truy cập đều qua synchronized
+    private final LinkedHashMap<ExtractedContentId, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+
+    public ExtractedContentCache(IExtractedContentRepository repository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${content.cache.max-memory-bytes:67108864}") long maxMemoryBytes) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.maxMemoryBytes = maxMemoryBytes;
+    }
+
+    /**
+     * Tìm nội dung đã trích xuất của đúng phiên bản (ETag) object, ưu tiên tầng bộ nhớ.
+     */
+    public Optional<ExtractedDocument> get(String bucket, String objectName, String etag) {
+        ExtractedContentId key = new ExtractedContentId(bucket, objectName);
+
+        Entry cached = getFromMemory(key);
+        if (cached != null && cached.etag().equals(etag)) {
+            return Optional.of(cached.content());
+        }
+
+        Optional<ExtractedContent> stored = repository.findById(key)
+                .filter(row -> row.getEtag().equals(etag))
+                .filter(row -> row.getStatus() == ExtractionStatus.COMPLETED && row.getContentJson() != null);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            ExtractedDocument content = objectMapper.readValue(stored.get().getContentJson(), ExtractedDocument.class);
+            long sizeBytes = stored.get().getSizeBytes() != null
+                    ? stored.get().getSizeBytes()
+                    : 2L * stored.get().getContentJson().length();
+            putInMemory(key, new Entry(etag, content, sizeBytes));
+            return Optional.of(content);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable cached content for {}/{}: {}", bucket, objectName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Lưu kết quả trích xuất của một phiên bản object vào cả hai tầng.
+     */
+    public ExtractedDocument put(String bucket, String objectName, String etag, ExtractedDocument content) {
+        try {
+            String json = objectMapper.writeValueAsString(content);
+            // Ước lượng theo UTF-16 (2 byte / ký tự) vì nội dung được giữ dưới dạng String trong heap
+            long sizeBytes = 2L * json.length();
+            repository.upsert(bucket, objectName, etag, json, sizeBytes, Instant.now());
+            putInMemory(new ExtractedContentId(bucket, objectName), new Entry(etag, content, sizeBytes));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not cache extracted content for {}/{}: {}", bucket, objectName, e.getMessage());
+        }
+        return content;
+    }
+
+    private Entry getFromMemory(ExtractedContentId key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void putInMemory(ExtractedContentId key, Entry entry) {
+        if (entry.sizeBytes() > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memory) {
+            Entry previous = memory.put(key, entry);
+            if (previous != null) {
+                memoryBytes -= previous.sizeBytes();
+            }
+            memoryBytes += entry.sizeBytes();
+
+            Iterator<Entry> eldest = memory.values().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().sizeBytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    private record Entry(String etag, ExtractedDocument content, long sizeBytes) {
+    }
+}
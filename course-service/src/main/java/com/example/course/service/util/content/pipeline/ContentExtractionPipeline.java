@@ -0,0 +1,256 @@
+package com.example.course.service.util.content.pipeline;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.course.service.model.content.ExtractedContent;
+import com.example.course.service.model.content.ExtractedContentId;
+import com.example.course.service.model.content.ExtractionStatus;
+import com.example.course.service.repository.IExtractedContentRepository;
+import com.example.course.service.util.content.ContentReader;
+import com.example.course.service.util.content.ExtractedDocument;
+import com.example.course.service.util.content.cache.ExtractedContentCache;
+import com.example.course.service.util.content.search.MaterialPassageIndexer;
+import com.example.course.service.util.content.store.ExtractedTextStore;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pipeline trích xuất nội dung chạy nền khi object được đăng ký hoặc thay thế.
+ * Worker pool có giới hạn (số thread + hàng đợi), lỗi được thử lại với backoff tăng dần.
+ * Trạng thái từng phiên bản object (ETag) được ghi vào extracted_contents để read path biết
+ * nội dung đang chờ, đã xong hay lỗi.
+ * Việc parse (cả nền lẫn đồng bộ từ read path) chạy trên ExtractionExecutor; worker pool ở đây chỉ điều phối.
+ */
+@Component
+@Slf4j
+public class ContentExtractionPipeline {
+
+    private final MinioClient minioClient;
+    private final ContentReader contentReader;
+    private final ExtractedContentCache contentCache;
+    private final ExtractedTextStore textStore;
+    private final MaterialPassageIndexer passageIndexer;
+    private final ExtractionExecutor extractionExecutor;
+    private final IExtractedContentRepository repository;
+    private final String bucket;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long staleAfterMillis;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+
+    public ContentExtractionPipeline(MinioClient minioClient,
+                                     ContentReader contentReader,
+                                     ExtractedContentCache contentCache,
+                                     ExtractedTextStore textStore,
+                                     MaterialPassageIndexer passageIndexer,
+                                     ExtractionExecutor extractionExecutor,
+                                     IExtractedContentRepository repository,
+                                     @Value("${minio.bucket:materials}") String bucket,
+                                     @Value("${content.extraction.workers:2}") int workerCount,
+                                     @Value("${content.extraction.queue-capacity:100}") int queueCapacity,
+                                     @Value("${content.extraction.max-attempts:3}") int maxAttempts,
+                                     @Value("${content.extraction.retry-backoff-ms:2000}") long retryBackoffMillis,
+                                     @Value("${content.extraction.stale-after-ms:300000}") long staleAfterMillis,
+                                     MeterRegistry meterRegistry) {
+        this.minioClient = minioClient;
+        this.contentReader = contentReader;
+        this.contentCache = contentCache;
+        this.textStore = textStore;
+        this.passageIndexer = passageIndexer;
+        this.extractionExecutor = extractionExecutor;
+        this.repository = repository;
+        this.bucket = bucket;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.staleAfterMillis = staleAfterMillis;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "content-extraction-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("content.extraction.pipeline.queue.depth", workers, pool -> pool.getQueue().size())
+                .description("Background extraction jobs waiting for a worker")
+                .register(meterRegistry);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "content-extraction-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Đưa một phiên bản object vào hàng đợi trích xuất.
+     * Nếu hàng đợi đầy, object sẽ được trích xuất đồng bộ ở lần đọc đầu tiên.
+     *
+     * @param fileName tên file của chapter vừa upload, dùng để chọn reader khi object không có content type
+     */
+    public void submit(String objectName, String etag, String fileName) {
+        updateStatus(objectName, etag, ExtractionStatus.PENDING, 0, null);
+        enqueue(objectName, etag, fileName, 1);
+    }
+
+    /**
+     * Như submit, nhưng bỏ qua phiên bản đã trích xuất xong hoặc đang chờ / đang xử lý
+     * (file trùng nội dung với file đã upload trước đó). Trả về trạng thái hiện tại.
+     */
+    public ExtractionStatus submitIfMissing(String objectName, String etag, String fileName) {
+        Optional<ExtractionStatus> status = repository.findStatus(bucket, objectName, etag);
+        if (status.isPresent() && status.get() != ExtractionStatus.FAILED) {
+            return status.get();
+        }
+        submit(objectName, etag, fileName);
+        return ExtractionStatus.PENDING;
+    }
+
+    /**
+     * Bản ghi trạng thái của đúng phiên bản (ETag) object khi nó chưa có nội dung:
+     * đang chờ/đang xử lý (trong thời hạn staleAfterMillis) hoặc đã lỗi.
+     * Job PENDING quá hạn (ví dụ mất khi service khởi động lại) được coi như chưa có.
+     */
+    public Optional<ExtractedContent> findUnfinishedRecord(String objectName, String etag) {
+        Instant staleBefore = Instant.now().minusMillis(staleAfterMillis);
+        return repository.findById(new ExtractedContentId(bucket, objectName))
+                .filter(record -> record.getEtag().equals(etag))
+                .filter(record -> record.getStatus() != ExtractionStatus.COMPLETED)
+                .filter(record -> record.getStatus() == ExtractionStatus.FAILED
+                        || (record.getUpdatedAt() != null && record.getUpdatedAt().isAfter(staleBefore)));
+    }
+
+    /**
+     * Trích xuất ngay phiên bản object đã stat cho request đang chờ: chạy trên ExtractionExecutor,
+     * request chờ tối đa deadline của executor.
+     *
+     * @throws com.example.course.service.exception.ExtractionRejectedException nếu quá tải hoặc quá deadline
+     */
+    public ExtractedDocument extractNow(String objectName, String fileName, String contentType,
+                                        StatObjectResponse stat) throws Exception {
+        return extractionExecutor.runForRequest(executionKey(objectName, stat.etag()), fileName, stat.size(),
+                () -> extract(objectName, fileName, contentType, stat));
+    }
+
+    /**
+     * Trích xuất phiên bản object và lưu vào cache và text store.
+     * Kết quả lỗi không được cache để lần sau còn thử lại.
+     * Reader được chọn theo content type của chapter (hoặc của object) và tên file của chapter, không theo tên object.
+     */
+    private ExtractedDocument extract(String objectName, String fileName, String contentType,
+                                      StatObjectResponse stat) throws Exception {
+        try (InputStream is = minioClient.getObject(
+                GetObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(objectName)
+                        .matchETag(stat.etag())
+                        .build())) {
+
+            ExtractedDocument extracted = contentReader.readContent(is, fileName,
+                    contentType != null ? contentType : stat.contentType());
+            if (extracted.isFailed()) {
+                return extracted;
+            }
+            ExtractedDocument content = extracted.toBuilder()
+                    .status(ExtractionStatus.COMPLETED.name())
+                    .metadata(Map.of(
+                            "etag", stat.etag(),
+                            "objectSize", stat.size(),
+                            "contentType", stat.contentType() != null ? stat.contentType() : "application/octet-stream"
+                    ))
+                    .build();
+            // Text được ghi thêm vào segment store để endpoint /content/text stream thẳng từ vùng map
+            textStore.put(bucket, objectName, stat.etag(), content);
+            // Index tìm kiếm theo trang; lỗi index không làm hỏng kết quả trích xuất
+            try {
+                passageIndexer.index(bucket, objectName, stat.etag(), content);
+            } catch (RuntimeException e) {
+                log.warn("Could not index passages for {}/{}: {}", bucket, objectName, e.getMessage());
+            }
+            return contentCache.put(bucket, objectName, stat.etag(), content);
+        }
+    }
+
+    private void enqueue(String objectName, String etag, String fileName, int attempt) {
+        try {
+            workers.execute(() -> process(objectName, etag, fileName, attempt));
+        } catch (RejectedExecutionException e) {
+            // Bỏ trạng thái PENDING để read path trích xuất khi có người đọc
+            log.warn("Extraction queue full, {} will be extracted on first read", objectName);
+            repository.deleteById(new ExtractedContentId(bucket, objectName));
+        }
+    }
+
+    private void process(String objectName, String etag, String fileName, int attempt) {
+        try {
+            StatObjectResponse stat = minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(objectName)
+                            .build());
+            if (!stat.etag().equals(etag)) {
+                // Object đã bị thay thế, job của phiên bản mới sẽ xử lý
+                return;
+            }
+            if (contentCache.get(bucket, objectName, etag).isPresent()) {
+                // Read path đã trích xuất phiên bản này trước khi job chạy
+                return;
+            }
+
+            updateStatus(objectName, etag, ExtractionStatus.PROCESSING, attempt, null);
+            // Job nền chờ slot CPU lâu hơn request; bị từ chối thì thử lại theo backoff như các lỗi khác
+            ExtractedDocument content = extractionExecutor.run(executionKey(objectName, etag), fileName, stat.size(),
+                    staleAfterMillis, () -> extract(objectName, fileName, null, stat));
+            if (content.isFailed()) {
+                throw new IllegalStateException(content.getError());
+            }
+        } catch (Exception e) {
+            if (attempt < maxAttempts) {
+                long delay = retryBackoffMillis << (attempt - 1);
+                log.warn("Extraction of {} failed (attempt {}/{}), retrying in {} ms: {}",
+                        objectName, attempt, maxAttempts, delay, e.getMessage());
+                updateStatus(objectName, etag, ExtractionStatus.PENDING, attempt, e.getMessage());
+                retryScheduler.schedule(() -> enqueue(objectName, etag, fileName, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } else {
+                log.error("Extraction of {} failed after {} attempts: {}", objectName, attempt, e.getMessage());
+                updateStatus(objectName, etag, ExtractionStatus.FAILED, attempt, e.getMessage());
+            }
+        }
+    }
+
+    private String executionKey(String objectName, String etag) {
+        return bucket + "/" + objectName + "@" + etag;
+    }
+
+    private void updateStatus(String objectName, String etag, ExtractionStatus status, int attempts, String error) {
+        repository.upsertStatus(bucket, objectName, etag, status.name(), attempts, error, Instant.now());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.course.service.util.content.pipeline;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.course.service.exception.ExtractionRejectedException;
+import com.example.course.service.util.content.ExtractedDocument;
+import com.example.course.service.util.content.ExtractionCpuSlots;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulkhead cho việc parse tài liệu (PDF / DOCX tốn CPU): mọi lần trích xuất chạy trên pool riêng
+ * cỡ bằng số slot CPU (ExtractionCpuSlots, mặc định số core) với hàng đợi có giới hạn, không chạy trên thread Tomcat.
+ * Mỗi job giữ một slot khi parse; slot rảnh được PdfReader mượn để trích xuất trang song song.
+ *
+ * Request chờ kết quả tối đa một deadline; hàng đợi đầy hoặc quá deadline thì ném
+ * ExtractionRejectedException (503 + Retry-After). Quá deadline không hủy job: kết quả vẫn được
+ * cache, và request trùng (cùng object + ETag) trong lúc job chạy dùng chung job đó thay vì xếp hàng lại.
+ *
+ * Metric: content.extraction.queue.depth, content.extraction.active, content.extraction.wait,
+ * content.extraction.duration (tag type, size, outcome) và content.extraction.rejected (tag reason).
+ */
+@Component
+@Slf4j
+public class ExtractionExecutor {
+
+    private static final long MB = 1024 * 1024;
+
+    private final ThreadPoolExecutor executor;
+    private final ExtractionCpuSlots cpuSlots;
+    private final Map<String, ExtractionTask> inFlight = new ConcurrentHashMap<>();
+    private final long requestDeadlineMillis;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedDeadline;
+
+    public ExtractionExecutor(ExtractionCpuSlots cpuSlots,
+                              @Value("${content.extraction.executor.queue-capacity:32}") int queueCapacity,
+                              @Value("${content.extraction.executor.request-deadline-ms:8000}") long requestDeadlineMillis,
+                              @Value("${content.extraction.executor.retry-after-seconds:5}") long retryAfterSeconds,
+                              MeterRegistry meterRegistry) {
+        int size = cpuSlots.total();
+        this.cpuSlots = cpuSlots;
+        this.requestDeadlineMillis = requestDeadlineMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "content-extract-cpu-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("content.extraction.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Extractions waiting for a CPU slot")
+                .register(meterRegistry);
+        Gauge.builder("content.extraction.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Extractions currently parsing")
+                .register(meterRegistry);
+        this.rejectedQueueFull = rejectedCounter("queue_full");
+        this.rejectedDeadline = rejectedCounter("deadline");
+    }
+
+    /**
+     * Trích xuất cho request HTTP: chờ tối đa request-deadline-ms.
+     */
+    public ExtractedDocument runForRequest(String key, String fileName, long sizeBytes,
+                                           Callable<ExtractedDocument> extraction) throws Exception {
+        return run(key, fileName, sizeBytes, requestDeadlineMillis, extraction);
+    }
+
+    /**
+     * Chạy extraction trên pool và chờ kết quả tối đa deadlineMillis.
+     *
+     * @param key         định danh phiên bản object (bucket/object@ETag) để gộp các request trùng
+     * @param fileName    tên file, dùng làm tag loại file cho metric
+     * @param sizeBytes   kích thước file, dùng làm tag nhóm kích thước cho metric
+     * @throws ExtractionRejectedException nếu hàng đợi đầy hoặc quá deadline
+     */
+    public ExtractedDocument run(String key, String fileName, long sizeBytes, long deadlineMillis,
+                                 Callable<ExtractedDocument> extraction) throws Exception {
+        ExtractionTask task;
+        try {
+            // Job đã xong nhưng chưa kịp tự gỡ (done() chạy sau khi đánh thức người chờ) thì chạy job mới
+            task = inFlight.compute(key, (k, running) -> running != null && !running.isDone()
+                    ? running
+                    : submit(k, fileName, sizeBytes, extraction));
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.increment();
+            log.warn("Extraction queue full ({} queued), rejecting {}", executor.getQueue().size(), key);
+            throw new ExtractionRejectedException("Extraction queue is full, retry later", retryAfterSeconds);
+        }
+
+        try {
+            return task.get(deadlineMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            rejectedDeadline.increment();
+            log.warn("Extraction of {} still running after {} ms, answering 503", key, deadlineMillis);
+            throw new ExtractionRejectedException(
+                    "Extraction did not finish within " + deadlineMillis + " ms, retry later", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private ExtractionTask submit(String key, String fileName, long sizeBytes, Callable<ExtractedDocument> extraction) {
+        long queuedAt = System.nanoTime();
+        ExtractionTask task = new ExtractionTask(key, () -> {
+            // Chờ nếu slot của thread này đang được PdfReader mượn (trả lại khi tài liệu đó xong)
+            try (ExtractionCpuSlots.Lease ignored = cpuSlots.acquire()) {
+                long startedAt = System.nanoTime();
+                meterRegistry.timer("content.extraction.wait").record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                String outcome = "error";
+                try {
+                    ExtractedDocument document = extraction.call();
+                    outcome = document.isFailed() ? "failed" : "success";
+                    return document;
+                } catch (ExtractionRejectedException e) {
+                    outcome = "rejected";
+                    throw e;
+                } finally {
+                    Timer.builder("content.extraction.duration")
+                            .tag("type", fileType(fileName))
+                            .tag("size", sizeBucket(sizeBytes))
+                            .tag("outcome", outcome)
+                            .register(meterRegistry)
+                            .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("content.extraction.rejected")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    // Chỉ các loại được hỗ trợ để số series của metric không tăng theo tên file
+    private static String fileType(String fileName) {
+        String ext = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return ext.equals("pdf") || ext.equals("docx") ? ext : "other";
+    }
+
+    private static String sizeBucket(long sizeBytes) {
+        if (sizeBytes < MB) {
+            return "lt_1mb";
+        }
+        if (sizeBytes < 10 * MB) {
+            return "1mb_10mb";
+        }
+        return sizeBytes < 50 * MB ? "10mb_50mb" : "gte_50mb";
+    }
+
+    /**
+     * Job tự gỡ khỏi inFlight khi xong (kể cả lỗi), để lần đọc sau của cùng phiên bản đi qua cache.
+     */
+    private final class ExtractionTask extends FutureTask<ExtractedDocument> {
+        private final String key;
+
+        private ExtractionTask(String key, Callable<ExtractedDocument> callable) {
+            super(callable);
+            this.key = key;
+        }
+
+        @Override
+        protected void done() {
+            inFlight.remove(key, this);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
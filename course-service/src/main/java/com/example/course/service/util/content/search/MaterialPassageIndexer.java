@@ -0,0 +1,134 @@
+package com.example.course.service.util.content.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.course.service.model.content.ExtractedContentId;
+import com.example.course.service.repository.IExtractedContentRepository;
+import com.example.course.service.util.content.ExtractedDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ghi text đã trích xuất vào bảng material_passages để tìm kiếm full-text (tsvector sinh tự động + GIN).
+ * PDF được chia theo trang để kết quả có số trang; DOCX (không có trang) chia thành đoạn tối đa
+ * MAX_PASSAGE_CHARS ký tự. Đoạn nhỏ giữ cho ts_headline nhanh và tsvector không vượt giới hạn 1MB.
+ */
+@Component
+@Slf4j
+public class MaterialPassageIndexer {
+
+    static final int MAX_PASSAGE_CHARS = 4000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IExtractedContentRepository extractedContentRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean reindexOnStartup;
+
+    public MaterialPassageIndexer(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  IExtractedContentRepository extractedContentRepository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${content.search.reindex-on-startup:true}") boolean reindexOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.extractedContentRepository = extractedContentRepository;
+        this.objectMapper = objectMapper;
+        this.reindexOnStartup = reindexOnStartup;
+    }
+
+    /**
+     * Thay toàn bộ passage của object bằng text của phiên bản etag (xóa + ghi trong cùng transaction).
+     */
+    public void index(String bucket, String objectName, String etag, ExtractedDocument document) {
+        String text = document.getContent();
+        if (text == null) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        List<Integer> pageOffsets = document.getPageOffsets();
+        if (pageOffsets != null && !pageOffsets.isEmpty()) {
+            for (int page = 0; page < pageOffsets.size(); page++) {
+                int start = Math.min(pageOffsets.get(page), text.length());
+                int end = page + 1 < pageOffsets.size() ? Math.min(pageOffsets.get(page + 1), text.length()) : text.length();
+                addPassages(rows, bucket, objectName, etag, page + 1, text, start, end);
+            }
+        } else {
+            addPassages(rows, bucket, objectName, etag, null, text, 0, text.length());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM material_passages WHERE bucket = ? AND object_name = ?", bucket, objectName);
+            jdbcTemplate.batchUpdate("""
+                    INSERT INTO material_passages (bucket, object_name, passage, etag, page, content)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    """, rows);
+        });
+        log.debug("Indexed {} passages for {}/{}", rows.size(), bucket, objectName);
+    }
+
+    /**
+     * Index các bản trích xuất đã có từ trước khi có bảng material_passages (hoặc bị lỗi lúc index).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexMissing() {
+        if (!reindexOnStartup) {
+            return;
+        }
+        List<ExtractedContentId> missing = jdbcTemplate.query("""
+                SELECT e.bucket, e.object_name
+                FROM extracted_contents e
+                WHERE e.status = 'COMPLETED' AND e.content_json IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM material_passages p
+                                  WHERE p.bucket = e.bucket AND p.object_name = e.object_name AND p.etag = e.etag)
+                """, (rs, rowNum) -> new ExtractedContentId(rs.getString("bucket"), rs.getString("object_name")));
+        for (ExtractedContentId id : missing) {
+            // Đọc từng bản ghi một để không giữ nhiều tài liệu lớn trên heap cùng lúc
+            extractedContentRepository.findById(id).ifPresent(row -> {
+                try {
+                    ExtractedDocument document = objectMapper.readValue(row.getContentJson(), ExtractedDocument.class);
+                    index(row.getBucket(), row.getObjectName(), row.getEtag(), document);
+                } catch (Exception e) {
+                    log.warn("Could not index passages for {}/{}: {}", row.getBucket(), row.getObjectName(), e.getMessage());
+                }
+            });
+        }
+        if (!missing.isEmpty()) {
+            log.info("Indexed passages for {} previously extracted objects", missing.size());
+        }
+    }
+
+    /**
+     * Chia [start, end) thành các đoạn tối đa MAX_PASSAGE_CHARS, cắt ở xuống dòng / khoảng trắng gần nhất.
+     */
+    private static void addPassages(List<Object[]> rows, String bucket, String objectName, String etag,
+                                    Integer page, String text, int start, int end) {
+        int position = start;
+        while (position < end) {
+            int limit = Math.min(end, position + MAX_PASSAGE_CHARS);
+            if (limit < end) {
+                int newline = text.lastIndexOf('\n', limit);
+                int space = text.lastIndexOf(' ', limit);
+                int cut = Math.max(newline, space);
+                if (cut > position + MAX_PASSAGE_CHARS / 2) {
+                    limit = cut + 1;
+                }
+            }
+            // Postgres TEXT không chứa được ký tự NUL (PDF đôi khi có)
+            String passage = text.substring(position, limit).replace('\u0000', ' ');
+            if (!passage.isBlank()) {
+                rows.add(new Object[]{bucket, objectName, rows.size(), etag, page, passage});
+            }
+            position = limit;
+        }
+    }
+}
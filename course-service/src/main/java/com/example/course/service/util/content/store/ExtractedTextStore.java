@@ -0,0 +1,306 @@
+package com.example.course.service.util.content.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.course.service.util.content.ExtractedDocument;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Kho text đã trích xuất dạng segment file append-only, map vào bộ nhớ bằng NIO.
+ * Mỗi bản ghi gồm key (bucket/object), ETag, vị trí byte đầu mỗi trang và text UTF-8;
+ * index key -> vị trí nằm trong bộ nhớ và được dựng lại bằng cách quét segment khi khởi động.
+ *
+ * Đây là dữ liệu dẫn xuất (có thể dựng lại từ extracted_contents / MinIO) nên không force xuống đĩa.
+ * Mỗi khi mở segment mới: segment cũ không còn bản ghi nào trong index (mọi key đã có ETag mới hơn) bị xóa,
+ * và nếu tổng dung lượng vẫn vượt max-bytes thì xóa tiếp segment cũ nhất cùng các bản ghi của nó;
+ * key bị xóa được ghi lại ở lần đọc sau (find trả rỗng -> put).
+ *
+ * Định dạng bản ghi (int big-endian):
+ * magic | keyLen | key | etagLen | etag | pageCount | pageOffsets[pageCount] | textLen | text.
+ * magic được ghi sau cùng nên bản ghi ghi dở (service dừng giữa chừng) bị bỏ qua khi quét.
+ */
+@Component
+@Slf4j
+public class ExtractedTextStore {
+
+    private static final int MAGIC = 0x54585431; // "TXT1"
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxBytes;
+
+    private final Map<String, StoredText> index = new ConcurrentHashMap<>();
+
+    // id segment -> dung lượng đã map, cũ nhất trước; chỉ truy cập trong synchronized (this)
+    private final NavigableMap<Integer, Long> segments = new TreeMap<>();
+
+    // Segment đang ghi; chỉ truy cập trong synchronized (this)
+    private MappedByteBuffer active;
+    private int activeId;
+    private int activePosition;
+
+    public ExtractedTextStore(@Value("${content.store.dir:${java.io.tmpdir}/course-content-store}") String directory,
+                              @Value("${content.store.segment-bytes:67108864}") int segmentBytes,
+                              @Value("${content.store.max-bytes:1073741824}") long maxBytes) {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    @PostConstruct
+    public synchronized void load() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            int id = segmentId(file);
+            MappedByteBuffer segment = map(file, (int) Files.size(file));
+            segments.put(id, (long) segment.capacity());
+            // Quét theo thứ tự file nên bản ghi mới hơn của cùng key ghi đè bản cũ trong index
+            int end = scan(id, segment);
+            if (id >= activeId) {
+                active = segment;
+                activeId = id;
+                activePosition = end;
+            }
+        }
+        // max-bytes có thể đã giảm từ lần chạy trước
+        reclaim();
+        log.info("Extracted text store {}: {} segments, {} entries", directory, segments.size(), index.size());
+    }
+
+    /**
+     * Text của đúng phiên bản (ETag) object, nếu đã được ghi.
+     */
+    public Optional<StoredText> find(String bucket, String objectName, String etag) {
+        StoredText stored = index.get(key(bucket, objectName));
+        return stored != null && stored.etag().equals(etag) ? Optional.of(stored) : Optional.empty();
+    }
+
+    /**
+     * Ghi text của kết quả trích xuất (content, pageOffsets theo ký tự) vào segment.
+     * Lỗi ghi chỉ được log: đọc vẫn có thể đi qua ExtractedContentCache.
+     */
+    public Optional<StoredText> put(String bucket, String objectName, String etag, ExtractedDocument content) {
+        String text = content.getContent();
+        if (text == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(write(key(bucket, objectName), etag, text, charOffsets(content.getPageOffsets(), text.length())));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not store extracted text for {}/{}: {}", bucket, objectName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private synchronized StoredText write(String key, String etag, String text, int[] charOffsets) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] etagBytes = etag.getBytes(StandardCharsets.UTF_8);
+        int headerBytes = 4 + 4 + keyBytes.length + 4 + etagBytes.length + 4 + 4 * charOffsets.length + 4;
+        // UTF-8 tối đa 3 byte cho mỗi char UTF-16 (cặp surrogate: 4 byte cho 2 char)
+        long maxBytes = headerBytes + 3L * text.length();
+        if (maxBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Text too large for a segment: " + text.length() + " chars");
+        }
+        ensureCapacity((int) maxBytes);
+
+        int recordStart = activePosition;
+        ByteBuffer out = active.duplicate();
+        out.position(recordStart + 4);
+        out.putInt(keyBytes.length).put(keyBytes);
+        out.putInt(etagBytes.length).put(etagBytes);
+        out.putInt(charOffsets.length);
+        int offsetsPosition = out.position();
+        out.position(offsetsPosition + 4 * charOffsets.length + 4);
+        int textStart = out.position();
+
+        // Encode thẳng vào vùng map, ghi lại vị trí byte tại mỗi ranh giới trang
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.wrap(text);
+        int[] pageOffsets = new int[charOffsets.length];
+        for (int page = 0; page < charOffsets.length; page++) {
+            chars.limit(charOffsets[page]);
+            encode(encoder, chars, out, false);
+            pageOffsets[page] = out.position() - textStart;
+        }
+        chars.limit(text.length());
+        encode(encoder, chars, out, true);
+        if (encoder.flush(out).isOverflow()) {
+            throw new IllegalStateException("Segment overflow while flushing encoder");
+        }
+        int textLength = out.position() - textStart;
+        int recordEnd = out.position();
+
+        out.position(offsetsPosition);
+        for (int offset : pageOffsets) {
+            out.putInt(offset);
+        }
+        out.putInt(textLength);
+        active.putInt(recordStart, MAGIC);
+        activePosition = recordEnd;
+
+        StoredText stored = new StoredText(etag, activeId, active, textStart, textLength, pageOffsets);
+        index.put(key, stored);
+        return stored;
+    }
+
+    private static void encode(CharsetEncoder encoder, CharBuffer chars, ByteBuffer out, boolean endOfInput) {
+        CoderResult result = encoder.encode(chars, out, endOfInput);
+        if (result.isOverflow()) {
+            throw new IllegalStateException("Segment overflow while encoding text");
+        }
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (active != null && active.capacity() - activePosition >= bytes) {
+            return;
+        }
+        // Bản ghi lớn hơn segmentBytes được đặt trong segment riêng vừa đủ kích thước
+        activeId++;
+        active = map(segmentFile(activeId), Math.max(segmentBytes, bytes));
+        activePosition = 0;
+        segments.put(activeId, (long) active.capacity());
+        reclaim();
+    }
+
+    /**
+     * Xóa các segment (trừ segment đang ghi) không còn bản ghi hiện hành, rồi segment cũ nhất cho tới khi
+     * tổng dung lượng không vượt maxBytes. StoredText đang được đọc vẫn hợp lệ: vùng map còn tới khi bị GC.
+     */
+    private void reclaim() {
+        Set<Integer> live = new HashSet<>();
+        for (StoredText stored : index.values()) {
+            live.add(stored.segmentId());
+        }
+        long total = 0;
+        for (long size : segments.values()) {
+            total += size;
+        }
+        for (Integer id : List.copyOf(segments.keySet())) {
+            if (id == activeId) {
+                continue;
+            }
+            boolean overCap = total > maxBytes;
+            if (!overCap && live.contains(id)) {
+                continue;
+            }
+            total -= segments.remove(id);
+            if (live.contains(id)) {
+                index.values().removeIf(stored -> stored.segmentId() == id);
+                log.info("Evicted extracted text segment {} to stay under {} bytes", id, maxBytes);
+            }
+            try {
+                Files.deleteIfExists(segmentFile(id));
+            } catch (IOException e) {
+                log.warn("Could not delete extracted text segment {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Dựng index từ các bản ghi hoàn chỉnh trong segment, trả về vị trí kết thúc bản ghi cuối.
+     */
+    private int scan(int segmentId, MappedByteBuffer segment) {
+        ByteBuffer in = segment.duplicate();
+        int position = 0;
+        try {
+            while (position + 4 <= in.capacity() && in.getInt(position) == MAGIC) {
+                in.position(position + 4);
+                String key = readString(in);
+                String etag = readString(in);
+                int[] pageOffsets = new int[in.getInt()];
+                for (int page = 0; page < pageOffsets.length; page++) {
+                    pageOffsets[page] = in.getInt();
+                }
+                int textLength = in.getInt();
+                int textStart = in.position();
+                if (textLength < 0 || textStart + textLength > in.capacity()) {
+                    throw new IllegalStateException("text length " + textLength + " exceeds segment");
+                }
+                index.put(key, new StoredText(etag, segmentId, segment, textStart, textLength, pageOffsets));
+                position = textStart + textLength;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Stopping scan of corrupt segment at offset {}: {}", position, e.getMessage());
+        }
+        return position;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        // Vùng map vẫn hợp lệ sau khi đóng channel
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        }
+    }
+
+    private Path segmentFile(int id) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private static int segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int[] charOffsets(List<Integer> offsets, int textLength) {
+        if (offsets == null) {
+            return new int[0];
+        }
+        int[] result = new int[offsets.size()];
+        int previous = 0;
+        for (int i = 0; i < result.length; i++) {
+            // Giữ tăng dần và trong phạm vi text để encode theo từng trang không bị lùi
+            int offset = Math.min(textLength, offsets.get(i));
+            previous = Math.max(previous, offset);
+            result[i] = previous;
+        }
+        return result;
+    }
+
+    private static String key(String bucket, String objectName) {
+        return bucket + "/" + objectName;
+    }
+}
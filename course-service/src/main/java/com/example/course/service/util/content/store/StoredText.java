@@ -0,0 +1,74 @@
+package com.example.course.service.util.content.store;
+
+import java.nio.ByteBuffer;
+
+import com.example.course.service.exception.BadRequestException;
+import com.example.course.service.util.content.ContentRangeSelector;
+
+/**
+ * Text UTF-8 của một phiên bản object nằm trong segment file đã map vào bộ nhớ.
+ * Các ByteBuffer trả về là view read-only trên vùng map, không copy dữ liệu.
+ */
+public final class StoredText {
+
+    private final String etag;
+    private final int segmentId;
+    private final ByteBuffer segment;
+    private final int textStart;
+    private final int textLength;
+    // Vị trí byte bắt đầu của từng trang, tính từ đầu text
+    private final int[] pageOffsets;
+
+    StoredText(String etag, int segmentId, ByteBuffer segment, int textStart, int textLength, int[] pageOffsets) {
+        this.etag = etag;
+        this.segmentId = segmentId;
+        this.segment = segment;
+        this.textStart = textStart;
+        this.textLength = textLength;
+        this.pageOffsets = pageOffsets;
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    int segmentId() {
+        return segmentId;
+    }
+
+    public int pageCount() {
+        return pageOffsets.length;
+    }
+
+    public int length() {
+        return textLength;
+    }
+
+    /**
+     * Toàn bộ text, hoặc các trang "from-to" nếu pages khác rỗng.
+     */
+    public Slice slice(String pages) {
+        if (pages == null || pages.isBlank()) {
+            return new Slice(bytes(0, textLength), null, etag);
+        }
+        if (pageOffsets.length == 0) {
+            throw new BadRequestException("Material has no page information");
+        }
+        int[] bounds = ContentRangeSelector.pageBounds(pages, pageOffsets.length);
+        int start = pageOffsets[bounds[0] - 1];
+        int end = bounds[1] < pageOffsets.length ? pageOffsets[bounds[1]] : textLength;
+        return new Slice(bytes(start, end - start), bounds[0] + "-" + bounds[1], etag);
+    }
+
+    private ByteBuffer bytes(int offset, int length) {
+        return segment.slice(textStart + offset, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * @param bytes     text UTF-8 (view trên segment)
+     * @param pageRange khoảng trang đã chọn, null nếu trả toàn bộ
+     * @param etag      ETag của phiên bản object MinIO chứa text
+     */
+    public record Slice(ByteBuffer bytes, String pageRange, String etag) {
+    }
+}
@@ -1,10 +1,9 @@
 package com.example.course.service.util.content.strategy;
 
-import org.json.JSONObject;
+import com.example.course.service.util.content.ExtractedDocument;
 
 import java.io.InputStream;
 
 public interface ContentReaderStrategy {
-    JSONObject read(InputStream is, String fileName) throws Exception;
+    ExtractedDocument read(InputStream is, String fileName) throws Exception;
 }
-
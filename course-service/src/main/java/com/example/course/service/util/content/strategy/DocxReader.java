@@ -1,8 +1,8 @@
 package com.example.course.service.util.content.strategy;
 
+import com.example.course.service.util.content.ExtractedDocument;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
-import org.json.JSONObject;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
@@ -11,9 +11,7 @@ import java.util.List;
 @Component
 public class DocxReader implements ContentReaderStrategy {
     @Override
-    public JSONObject read(InputStream is, String fileName) throws Exception {
-        JSONObject result = new JSONObject();
-
+    public ExtractedDocument read(InputStream is, String fileName) throws Exception {
         try {
             String text;
 
@@ -30,14 +28,13 @@ public class DocxReader implements ContentReaderStrategy {
                 throw new IllegalArgumentException("Unsupported file format for Word: " + fileName);
             }
 
-            result.put("fileName", fileName);
-            result.put("content", text);
+            return ExtractedDocument.builder()
+                    .fileName(fileName)
+                    .content(text)
+                    .build();
 
         } catch (Exception e) {
-            result.put("error", e.getMessage());
+            return ExtractedDocument.failed(fileName, e.getMessage());
         }
-
-        return result;
     }
 }
-
@@ -1,34 +1,236 @@
 package com.example.course.service.util.content.strategy;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.text.PDFTextStripper;
-import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.example.course.service.exception.ExtractionRejectedException;
+import com.example.course.service.util.content.ExtractedDocument;
+import com.example.course.service.util.content.ExtractionCpuSlots;
+import com.example.course.service.util.content.ExtractionMemoryBudget;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
+/**
+ * Trích xuất text từ PDF kèm vị trí bắt đầu của từng trang.
+ *
+ * Stream được ghi ra file tạm rồi mở bằng RandomAccessReadBufferedFile (Loader.loadPDF(File, ...)),
+ * với stream cache dạng mixed (tối đa maxMainMemoryBytes trên heap, phần còn lại ra file tạm),
+ * nên file PDF không bao giờ nằm nguyên trên heap. Mỗi lần load giữ một phần ExtractionMemoryBudget.
+ *
+ * Tài liệu lớn (từ parallelMinPages trang) được chia theo khoảng trang và trích xuất song song
+ * trên một ForkJoinPool dùng chung; mỗi task load một PDDocument độc lập vì PDDocument không thread-safe.
+ * Số phần chia bằng 1 + số slot CPU mượn được từ ExtractionCpuSlots (slot bulkhead đang rảnh, không chờ),
+ * nên tổng số thread parse không vượt quá số core. Chế độ song song chỉ bật khi còn slot rảnh và đủ
+ * ngân sách bộ nhớ cho các bản load thêm; ngân sách cho bản load chính không đủ thì từ chối ngay.
+ */
 @Component
 public class PdfReader implements ContentReaderStrategy {
+
+    private final ForkJoinPool pool;
+    private final ExtractionCpuSlots cpuSlots;
+    private final int parallelism;
+    private final int parallelMinPages;
+    private final int pagesPerTask;
+    private final ExtractionMemoryBudget memoryBudget;
+    private final StreamCacheCreateFunction streamCache;
+    private final Path tempDirectory;
+
+    @Autowired
+    public PdfReader(@Value("${content.pdf.parallelism:0}") int parallelism,
+                     @Value("${content.pdf.parallel-min-pages:64}") int parallelMinPages,
+                     @Value("${content.pdf.pages-per-task:16}") int pagesPerTask,
+                     @Value("${content.pdf.max-main-memory-bytes:16777216}") long maxMainMemoryBytes,
+                     @Value("${content.extraction.temp-dir:${java.io.tmpdir}}") String tempDirectory,
+                     ExtractionMemoryBudget memoryBudget,
+                     ExtractionCpuSlots cpuSlots) {
+        this.cpuSlots = cpuSlots;
+        // parallelism giới hạn số phần chia của một tài liệu; pool cỡ bằng tổng số slot, số thread chạy thật bị slot giới hạn
+        this.parallelism = parallelism > 0 ? Math.min(parallelism, cpuSlots.total()) : cpuSlots.total();
+        this.pool = this.parallelism > 1 ? new ForkJoinPool(cpuSlots.total()) : null;
+        this.parallelMinPages = parallelMinPages;
+        this.pagesPerTask = Math.max(1, pagesPerTask);
+        this.memoryBudget = memoryBudget;
+        this.streamCache = MemoryUsageSetting.setupMixed(maxMainMemoryBytes).streamCache;
+        this.tempDirectory = Path.of(tempDirectory);
+    }
+
     @Override
-    public JSONObject read(InputStream is, String fileName) throws Exception {
-        JSONObject result = new JSONObject();
+    public ExtractedDocument read(InputStream is, String fileName) throws Exception {
+        Path spooled = null;
         try  {
-            byte[] pdfBytes = is.readAllBytes();
-            PDDocument document = Loader.loadPDF(pdfBytes);
+            spooled = Files.createTempFile(tempDirectory, "pdf-extract-", ".pdf");
+            Files.copy(is, spooled, StandardCopyOption.REPLACE_EXISTING);
+            long fileSize = Files.size(spooled);
+
+            try (ExtractionMemoryBudget.Reservation ignored = memoryBudget.reserve(fileSize);
+                 PDDocument document = Loader.loadPDF(spooled.toFile(), streamCache)) {
+                int pageCount = document.getNumberOfPages();
+
+                PageText text = extractPages(spooled.toFile(), document, pageCount, fileSize);
 
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
+                ExtractedDocument.ExtractedDocumentBuilder result = ExtractedDocument.builder()
+                        .fileName(fileName)
+                        .pages(pageCount)
+                        .pageOffsets(text.pageOffsets())
+                        .content(text.text());
 
-            result.put("fileName", fileName);
-            result.put("pages", document.getNumberOfPages());
-            result.put("content", text);
+                PDDocumentInformation info = document.getDocumentInformation();
+                if (info != null) {
+                    Map<String, String> metadata = new LinkedHashMap<>();
+                    putIfPresent(metadata, "title", info.getTitle());
+                    putIfPresent(metadata, "author", info.getAuthor());
+                    putIfPresent(metadata, "subject", info.getSubject());
+                    result.documentInfo(metadata);
+                }
+                return result.build();
+            }
 
+        } catch (ExtractionRejectedException e) {
+            // Hết ngân sách bộ nhớ không phải lỗi của tài liệu: để caller trả 503 / job nền thử lại
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
         } catch (Exception e) {
-            result.put("error", e.getMessage());
+            return ExtractedDocument.failed(fileName, e.getMessage());
+        } finally {
+            if (spooled != null) {
+                Files.deleteIfExists(spooled);
+            }
         }
+    }
 
-        return result;
+    private static void putIfPresent(Map<String, String> metadata, String key, String value) {
+        if (value != null) {
+            metadata.put(key, value);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
     }
-}
 
+    private PageText extractPages(File file, PDDocument document, int pageCount, long fileSize)
+            throws IOException, InterruptedException {
+        int maxParts = Math.min(parallelism, (pageCount + pagesPerTask - 1) / pagesPerTask);
+        if (pool == null || pageCount < parallelMinPages || maxParts < 2) {
+            return extract(document, 1, pageCount);
+        }
+        // Slot của job hiện tại chạy một phần, các phần còn lại dùng slot đang rảnh của bulkhead
+        try (ExtractionCpuSlots.Lease extraSlots = cpuSlots.tryAcquireUpTo(maxParts - 1)) {
+            int parts = 1 + extraSlots.count();
+            if (parts < 2) {
+                return extract(document, 1, pageCount);
+            }
+            // Mỗi phần giữ một bản load riêng; không đủ ngân sách thì chạy tuần tự trên bản đã load
+            ExtractionMemoryBudget.Reservation extra = memoryBudget.tryReserve(fileSize * parts);
+            if (extra == null) {
+                return extract(document, 1, pageCount);
+            }
+            try (extra) {
+                return pool.invoke(new ExtractPagesTask(file, streamCache, 1, pageCount, parts));
+            }
+        }
+    }
+
+    /**
+     * Trích xuất các trang [from, to] (đánh số từ 1) của document.
+     * pageOffsets[i] = vị trí ký tự bắt đầu của trang from+i trong text.
+     */
+    static PageText extract(PDDocument document, int from, int to) throws IOException {
+        StringWriter writer = new StringWriter();
+        List<Integer> pageOffsets = new ArrayList<>(to - from + 1);
+
+        PDFTextStripper stripper = new PDFTextStripper() {
+            @Override
+            protected void startPage(PDPage page) throws IOException {
+                pageOffsets.add(writer.getBuffer().length());
+                super.startPage(page);
+            }
+        };
+        stripper.setStartPage(from);
+        stripper.setEndPage(to);
+        stripper.writeText(document, writer);
+        return new PageText(writer.toString(), pageOffsets);
+    }
+
+    record PageText(String text, List<Integer> pageOffsets) {
+
+        /**
+         * Nối text của khoảng trang kế tiếp, dời offset của nó theo độ dài phần đã có.
+         */
+        PageText append(PageText next) {
+            int shift = text.length();
+            List<Integer> offsets = new ArrayList<>(pageOffsets.size() + next.pageOffsets.size());
+            offsets.addAll(pageOffsets);
+            for (int offset : next.pageOffsets) {
+                offsets.add(offset + shift);
+            }
+            return new PageText(text + next.text, offsets);
+        }
+    }
+
+    /**
+     * Chia khoảng trang thành đúng parts phần liên tiếp (chia đôi theo số phần), mỗi phần một task lá,
+     * rồi ghép kết quả theo đúng thứ tự trang. Số task lá bằng số slot đang giữ nên không vượt quá số core.
+     */
+    static final class ExtractPagesTask extends RecursiveTask<PageText> {
+        private final File file;
+        private final StreamCacheCreateFunction streamCache;
+        private final int from;
+        private final int to;
+        private final int parts;
+
+        ExtractPagesTask(File file, StreamCacheCreateFunction streamCache, int from, int to, int parts) {
+            this.file = file;
+            this.streamCache = streamCache;
+            this.from = from;
+            this.to = to;
+            this.parts = Math.max(1, Math.min(parts, to - from + 1));
+        }
+
+        @Override
+        protected PageText compute() {
+            if (parts == 1) {
+                try (PDDocument document = Loader.loadPDF(file, streamCache)) {
+                    return extract(document, from, to);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int leftParts = parts / 2;
+            int mid = from + (int) ((long) (to - from + 1) * leftParts / parts) - 1;
+            ExtractPagesTask left = new ExtractPagesTask(file, streamCache, from, mid, leftParts);
+            ExtractPagesTask right = new ExtractPagesTask(file, streamCache, mid + 1, to, parts - leftParts);
+            right.fork();
+            PageText leftText = left.compute();
+            return leftText.append(right.join());
+        }
+    }
+}
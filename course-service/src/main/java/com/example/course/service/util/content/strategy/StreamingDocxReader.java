@@ -0,0 +1,196 @@
+package com.example.course.service.util.content.strategy;
+
+import org.springframework.stereotype.Component;
+
+import com.example.course.service.util.content.ExtractedDocument;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Trích xuất text DOCX bằng StAX, đọc tuần tự các entry trong file zip thay vì dựng DOM XWPFDocument.
+ * Bộ nhớ dùng cho parse là hằng số (chỉ phần text kết quả tăng theo tài liệu).
+ * Lấy cả bảng (ô cách nhau bởi tab, hàng theo dòng), header/footer và footnote/endnote.
+ */
+@Component
+public class StreamingDocxReader implements ContentReaderStrategy {
+
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String DOCUMENT = "word/document.xml";
+    private static final String FOOTNOTES = "word/footnotes.xml";
+    private static final String ENDNOTES = "word/endnotes.xml";
+    private static final Pattern HEADER = Pattern.compile("word/header\\d*\\.xml");
+    private static final Pattern FOOTER = Pattern.compile("word/footer\\d*\\.xml");
+
+    private final XMLInputFactory xmlInputFactory;
+
+    public StreamingDocxReader() {
+        xmlInputFactory = XMLInputFactory.newFactory();
+        // Không xử lý DTD / entity ngoài (XXE)
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    }
+
+    @Override
+    public ExtractedDocument read(InputStream is, String fileName) throws Exception {
+        try {
+            if (!fileName.toLowerCase().endsWith(".docx")) {
+                throw new IllegalArgumentException("Unsupported file format for Word: " + fileName);
+            }
+
+            Section body = null;
+            Section footnotes = null;
+            Section endnotes = null;
+            // Sắp theo tên để header1, header2... luôn ra cùng thứ tự dù thứ tự entry trong zip khác nhau
+            Map<String, Section> headers = new TreeMap<>();
+            Map<String, Section> footers = new TreeMap<>();
+
+            ZipInputStream zip = new ZipInputStream(is);
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (name.equals(DOCUMENT)) {
+                    body = parse(zip);
+                } else if (name.equals(FOOTNOTES)) {
+                    footnotes = parse(zip);
+                } else if (name.equals(ENDNOTES)) {
+                    endnotes = parse(zip);
+                } else if (HEADER.matcher(name).matches()) {
+                    headers.put(name, parse(zip));
+                } else if (FOOTER.matcher(name).matches()) {
+                    footers.put(name, parse(zip));
+                }
+            }
+
+            if (body == null) {
+                throw new IllegalArgumentException("Invalid DOCX, missing " + DOCUMENT + ": " + fileName);
+            }
+
+            StringBuilder content = new StringBuilder(body.text().length() + 256);
+            appendDistinct(content, headers);
+            content.append(body.text());
+            appendNotes(content, footnotes);
+            appendNotes(content, endnotes);
+            appendDistinct(content, footers);
+
+            return ExtractedDocument.builder()
+                    .fileName(fileName)
+                    .content(content.toString())
+                    .paragraphs(body.paragraphs())
+                    .tables(body.tables())
+                    .build();
+
+        } catch (Exception e) {
+            return ExtractedDocument.failed(fileName, e.getMessage());
+        }
+    }
+
+    /**
+     * Đọc một part XML của WordprocessingML; stream zip không bị đóng để đọc tiếp entry sau.
+     */
+    private Section parse(InputStream in) throws XMLStreamException {
+        XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in, "UTF-8");
+        StringBuilder text = new StringBuilder();
+        int paragraphs = 0;
+        int tables = 0;
+        boolean inText = false;
+        // > 0 khi đang ở trong footnote phân cách (separator), bỏ qua nội dung
+        int skipDepth = 0;
+
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (skipDepth > 0) {
+                        skipDepth++;
+                        continue;
+                    }
+                    if (!W_NS.equals(reader.getNamespaceURI())) {
+                        continue;
+                    }
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = true;
+                        case "tab" -> text.append('\t');
+                        case "br", "cr" -> text.append('\n');
+                        case "tbl" -> tables++;
+                        case "footnote", "endnote" -> {
+                            String type = reader.getAttributeValue(W_NS, "type");
+                            if (type != null && !type.equals("normal")) {
+                                skipDepth = 1;
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS) {
+                    if (inText && skipDepth == 0) {
+                        text.append(reader.getText());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (skipDepth > 0) {
+                        skipDepth--;
+                        continue;
+                    }
+                    if (!W_NS.equals(reader.getNamespaceURI())) {
+                        continue;
+                    }
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = false;
+                        case "p" -> {
+                            text.append('\n');
+                            paragraphs++;
+                        }
+                        // Đoạn cuối của ô kết thúc bằng '\n': đổi thành tab để các ô cùng hàng nằm trên một dòng
+                        case "tc" -> replaceLast(text, '\n', '\t');
+                        case "tr" -> replaceLast(text, '\t', '\n');
+                        default -> {
+                        }
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return new Section(text.toString(), paragraphs, tables);
+    }
+
+    private static void replaceLast(StringBuilder text, char expected, char replacement) {
+        int last = text.length() - 1;
+        if (last >= 0 && text.charAt(last) == expected) {
+            text.setCharAt(last, replacement);
+        } else {
+            text.append(replacement);
+        }
+    }
+
+    // Header/footer của trang đầu, trang chẵn/lẻ thường trùng nhau
+    private static void appendDistinct(StringBuilder content, Map<String, Section> parts) {
+        Set<String> seen = new LinkedHashSet<>();
+        for (Section part : parts.values()) {
+            String text = part.text().strip();
+            if (!text.isEmpty() && seen.add(text)) {
+                content.append(text).append("\n\n");
+            }
+        }
+    }
+
+    private static void appendNotes(StringBuilder content, Section notes) {
+        if (notes != null && !notes.text().isBlank()) {
+            content.append("\n").append(notes.text().strip()).append("\n");
+        }
+    }
+
+    private record Section(String text, int paragraphs, int tables) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.course.service.util.content.transcript;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tách transcript có mốc thời gian (SubRip .srt hoặc WebVTT .vtt) thành các cue.
+ * Hai định dạng chỉ khác nhau ở header WEBVTT, dấu thập phân (',' / '.') và phần giờ không bắt buộc của VTT,
+ * nên cùng một vòng đọc theo block (cách nhau bởi dòng trống) xử lý được cả hai.
+ * Transcript không có dòng thời gian nào (text thường) cho danh sách rỗng.
+ */
+public final class TranscriptParser {
+
+    private static final String ARROW = "-->";
+    // [hh:]mm:ss(,|.)mmm --> [hh:]mm:ss(,|.)mmm [cài đặt cue của VTT]
+    private static final Pattern TIMING = Pattern.compile(
+            "^\\s*((?:\\d+:)?\\d{1,2}:\\d{2}[.,]\\d{1,3})\\s*-->\\s*((?:\\d+:)?\\d{1,2}:\\d{2}[.,]\\d{1,3})(?:\\s.*)?$");
+    // Thẻ VTT (<v Speaker>, <c.class>, <00:00:01.500>, <i>...) và thẻ HTML đơn giản hay gặp trong SRT
+    private static final Pattern TAG = Pattern.compile("<[^>]*>");
+
+    private TranscriptParser() {
+    }
+
+    public static List<Cue> parse(String transcript) {
+        List<Cue> cues = new ArrayList<>();
+        if (transcript == null || !transcript.contains(ARROW)) {
+            return cues;
+        }
+        String[] lines = transcript.replace("\uFEFF", "").split("\\r?\\n|\\r");
+        int i = 0;
+        while (i < lines.length) {
+            Matcher timing = TIMING.matcher(lines[i]);
+            if (!timing.matches()) {
+                // Số thứ tự SRT, id cue VTT, header WEBVTT, NOTE / STYLE / REGION: bỏ qua tới dòng thời gian
+                i++;
+                continue;
+            }
+            long start = millis(timing.group(1));
+            long end = millis(timing.group(2));
+            StringBuilder text = new StringBuilder();
+            i++;
+            while (i < lines.length && !lines[i].isBlank() && !TIMING.matcher(lines[i]).matches()) {
+                String line = TAG.matcher(lines[i]).replaceAll("").strip();
+                if (!line.isEmpty()) {
+                    if (text.length() > 0) {
+                        text.append(' ');
+                    }
+                    text.append(line);
+                }
+                i++;
+            }
+            if (text.length() > 0 && end >= start) {
+                cues.add(new Cue(start, end, decodeEntities(text.toString())));
+            }
+        }
+        // VTT / SRT đúng chuẩn đã theo thứ tự thời gian; file ghép tay thì sắp lại
+        cues.sort((a, b) -> Long.compare(a.startMs(), b.startMs()));
+        return cues;
+    }
+
+    static long millis(String timestamp) {
+        String[] parts = timestamp.replace(',', '.').split(":");
+        long hours = parts.length == 3 ? Long.parseLong(parts[0]) : 0;
+        long minutes = Long.parseLong(parts[parts.length - 2]);
+        String[] seconds = parts[parts.length - 1].split("\\.");
+        // ".5" là 500 ms, không phải 5 ms
+        String fraction = (seconds[1] + "00").substring(0, 3);
+        return ((hours * 60 + minutes) * 60 + Long.parseLong(seconds[0])) * 1000 + Long.parseLong(fraction);
+    }
+
+    private static String decodeEntities(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&nbsp;", " ").replace("&amp;", "&");
+    }
+
+    /**
+     * Một đoạn transcript [startMs, endMs] tính từ đầu video.
+     */
+    public record Cue(long startMs, long endMs, String text) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.course.service.util.content.transcript;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ghi cue của transcript VideoMaterial vào bảng transcript_segments (tsvector sinh tự động + GIN,
+ * B-tree theo (material_id, start_ms, end_ms)) để lấy vài giây transcript quanh một mốc thời gian
+ * hoặc khớp từ khóa thay vì cả transcript.
+ */
+@Component
+@Slf4j
+public class TranscriptSegmentIndexer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean reindexOnStartup;
+
+    public TranscriptSegmentIndexer(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${content.transcripts.reindex-on-startup:true}") boolean reindexOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.reindexOnStartup = reindexOnStartup;
+    }
+
+    /**
+     * Thay toàn bộ segment của material bằng cue của transcript; transcript không có mốc thời gian thì chỉ xóa.
+     * Tham gia transaction của caller (tạo / cập nhật material) để segment luôn khớp với transcript đã lưu.
+     */
+    public int index(String materialId, String transcript) {
+        List<TranscriptParser.Cue> cues = TranscriptParser.parse(transcript);
+        List<Object[]> rows = new ArrayList<>(cues.size());
+        for (TranscriptParser.Cue cue : cues) {
+            // Postgres TEXT không chứa được ký tự NUL
+            rows.add(new Object[]{materialId, rows.size(), cue.startMs(), cue.endMs(), cue.text().replace('\u0000', ' ')});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM transcript_segments WHERE material_id = ?", materialId);
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO transcript_segments (material_id, seq, start_ms, end_ms, content)
+                        VALUES (?, ?, ?, ?, ?)
+                        """, rows);
+            }
+        });
+        log.debug("Indexed {} transcript segments for material {}", rows.size(), materialId);
+        return rows.size();
+    }
+
+    public void delete(String materialId) {
+        jdbcTemplate.update("DELETE FROM transcript_segments WHERE material_id = ?", materialId);
+    }
+
+    /**
+     * Tách các transcript đã lưu trước khi có bảng transcript_segments.
+     * Chỉ xét transcript có dòng thời gian ("-->"); transcript dạng text thường không có segment.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexMissing() {
+        if (!reindexOnStartup) {
+            return;
+        }
+        List<String> missing = jdbcTemplate.queryForList("""
+                SELECT m.id FROM materials m
+                WHERE m.material_type = 'VIDEO' AND m.transcript LIKE '%-->%'
+                  AND NOT EXISTS (SELECT 1 FROM transcript_segments s WHERE s.material_id = m.id)
+                """, String.class);
+        int indexed = 0;
+        for (String materialId : missing) {
+            // Đọc từng transcript một để không giữ nhiều transcript dài trên heap cùng lúc
+            try {
+                String transcript = jdbcTemplate.queryForObject(
+                        "SELECT transcript FROM materials WHERE id = ?", String.class, materialId);
+                indexed += index(materialId, transcript) > 0 ? 1 : 0;
+            } catch (RuntimeException e) {
+                log.warn("Could not index transcript of material {}: {}", materialId, e.getMessage());
+            }
+        }
+        if (indexed > 0) {
+            log.info("Indexed transcript segments for {} existing video materials", indexed);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.course.service.util.events;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.course.service.model.event.ContentChangeEvent;
+import com.example.course.service.repository.IContentChangeEventRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Giữ các kết nối SSE của subscriber (ai-service) trên instance này và giao sự kiện theo streamPosition.
+ *
+ * Cursor (vị trí cuối đã giao) là của riêng instance. Id mỗi sự kiện SSE là streamPosition; subscriber
+ * kết nối lại gửi Last-Event-ID và được phát lại các sự kiện sau vị trí đó trước khi nhận tiếp.
+ * Sự kiện "connected" (data "resumed" hoặc "reset") báo cho subscriber biết phần phát lại có đầy đủ không;
+ * "reset" nghĩa là phải coi mọi dữ liệu đã cache là cũ.
+ *
+ * Mỗi subscriber có hàng đợi riêng, được gửi trên thread pool riêng: subscriber chậm không làm
+ * chậm poller hay subscriber khác; hàng đợi đầy thì kết nối bị đóng để subscriber kết nối lại và phát lại.
+ */
+@Component
+@Slf4j
+public class ContentChangeBroadcaster {
+
+    static final String EVENT_NAME = "content-change";
+    static final String CONNECTED_EVENT = "connected";
+    static final String RESUMED = "resumed";
+    static final String RESET = "reset";
+
+    private final IContentChangeEventRepository eventRepository;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int batchSize;
+
+    // Vị trí cuối đã giao; -1 = chưa đọc từ DB. Chỉ truy cập trong synchronized (this)
+    private long cursor = -1;
+
+    public ContentChangeBroadcaster(IContentChangeEventRepository eventRepository,
+                                    @Value("${content.events.sse-timeout-ms:1800000}") long timeoutMillis,
+                                    @Value("${content.events.subscriber-buffer:1000}") int bufferSize,
+                                    @Value("${content.events.sender-threads:4}") int senderThreads,
+                                    @Value("${content.events.batch-size:200}") int batchSize) {
+        this.eventRepository = eventRepository;
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.batchSize = batchSize;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "content-events-sse-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Đăng ký subscriber mới; lastEventId là header Last-Event-ID của lần kết nối trước (null nếu không có).
+     */
+    public synchronized SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        long position = cursor();
+        boolean resumed = lastEventId != null && canResume(lastEventId, position);
+        if (resumed) {
+            // Phát lại (lastEventId, cursor]; phần sau cursor được giao như với mọi subscriber
+            subscriber.lastPosition = lastEventId;
+            replay(subscriber, lastEventId, position);
+        } else {
+            subscriber.lastPosition = position;
+        }
+        // Gửi sau phần phát lại: subscriber chỉ dùng lại cache khi đã áp dụng các sự kiện lỡ.
+        // Id là vị trí hiện tại để lần kết nối sau có Last-Event-ID ngay cả khi chưa nhận sự kiện nào
+        subscriber.enqueue(SseEmitter.event()
+                .id(String.valueOf(Math.max(position, subscriber.lastPosition)))
+                .name(CONNECTED_EVENT)
+                .data(resumed ? RESUMED : RESET));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Giao cho mọi subscriber các sự kiện đã có vị trí sau cursor. Trả về số sự kiện đã giao.
+     */
+    public synchronized int deliverPending() {
+        long position = cursor();
+        int delivered = 0;
+        List<ContentChangeEvent> events;
+        do {
+            events = eventRepository.findByStreamPositionGreaterThanOrderByStreamPositionAsc(position, Limit.of(batchSize));
+            for (ContentChangeEvent event : events) {
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.enqueue(event);
+                }
+                position = event.getStreamPosition();
+            }
+            cursor = position;
+            delivered += events.size();
+        } while (events.size() == batchSize);
+        return delivered;
+    }
+
+    public int subscribers() {
+        return subscribers.size();
+    }
+
+    private long cursor() {
+        if (cursor < 0) {
+            Long max = eventRepository.findMaxStreamPosition();
+            cursor = max != null ? max : 0;
+        }
+        return cursor;
+    }
+
+    /**
+     * Phát lại được khi các sự kiện sau lastEventId còn trong outbox (chưa bị xóa theo retention),
+     * vừa hàng đợi của subscriber, và lastEventId không vượt quá vị trí lớn nhất
+     * (outbox bị tạo lại thì vị trí bắt đầu lại từ đầu).
+     */
+    private boolean canResume(long lastEventId, long position) {
+        if (position - lastEventId >= bufferSize) {
+            return false;
+        }
+        Long min = eventRepository.findMinStreamPosition();
+        Long max = eventRepository.findMaxStreamPosition();
+        if (min == null || max == null) {
+            return lastEventId == 0;
+        }
+        return lastEventId >= min - 1 && lastEventId <= max;
+    }
+
+    private void replay(Subscriber subscriber, long from, long to) {
+        long position = from;
+        while (position < to) {
+            List<ContentChangeEvent> events = eventRepository
+                    .findByStreamPositionGreaterThanOrderByStreamPositionAsc(position, Limit.of(batchSize));
+            if (events.isEmpty()) {
+                return;
+            }
+            for (ContentChangeEvent event : events) {
+                if (event.getStreamPosition() > to) {
+                    return;
+                }
+                subscriber.enqueue(event);
+                position = event.getStreamPosition();
+            }
+        }
+    }
+
+    private static Map<String, Object> payload(ContentChangeEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", event.getId());
+        payload.put("position", event.getStreamPosition());
+        payload.put("aggregateType", event.getAggregateType().name());
+        payload.put("aggregateId", event.getAggregateId());
+        payload.put("courseId", event.getCourseId());
+        payload.put("chapterId", event.getChapterId());
+        payload.put("changeType", event.getChangeType().name());
+        payload.put("occurredAt", event.getOccurredAt().toString());
+        return payload;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Một kết nối SSE: sự kiện được xếp vào hàng đợi và gửi tuần tự trên thread pool sender,
+     * tối đa một task gửi cho mỗi subscriber tại một thời điểm.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Vị trí cuối đã xếp hàng; chỉ truy cập trong synchronized của broadcaster
+        private long lastPosition;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(ContentChangeEvent event) {
+            // Đã nhận qua phần phát lại (hoặc từ instance khác trước khi kết nối lại)
+            if (event.getStreamPosition() <= lastPosition) {
+                return;
+            }
+            lastPosition = event.getStreamPosition();
+            enqueue(SseEmitter.event()
+                    .id(String.valueOf(event.getStreamPosition()))
+                    .name(EVENT_NAME)
+                    .data(payload(event), MediaType.APPLICATION_JSON));
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                close(new IllegalStateException("subscriber fell " + bufferSize + " events behind"));
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+            } finally {
+                draining.set(false);
+            }
+            // Sự kiện được xếp sau lần poll cuối nhưng trước khi bỏ cờ draining
+            if (!closed.get() && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void close(Exception cause) {
+            if (closed.compareAndSet(false, true)) {
+                log.debug("Dropping content change subscriber: {}", cause.getMessage());
+                subscribers.remove(this);
+                queue.clear();
+                emitter.completeWithError(cause);
+            }
+        }
+    }
+}
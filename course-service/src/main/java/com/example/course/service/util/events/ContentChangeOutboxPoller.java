@@ -0,0 +1,79 @@
+package com.example.course.service.util.events;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.course.service.repository.IContentChangeEventRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Phát outbox content_change_events theo hai bước:
+ * 1. Gán streamPosition cho các sự kiện đã commit. Chỉ một instance gán tại một thời điểm
+ *    (pg_try_advisory_xact_lock), nên vị trí được commit theo thứ tự tăng dần.
+ * 2. Mỗi instance đọc các sự kiện sau cursor riêng của nó và giao cho subscriber của mình
+ *    (ContentChangeBroadcaster), ngoài transaction: subscriber chậm không giữ khóa hay connection DB.
+ * Mọi instance đều thấy mọi sự kiện; subscriber kết nối lại gửi Last-Event-ID để nhận lại phần đã lỡ.
+ */
+@Component
+@Slf4j
+public class ContentChangeOutboxPoller {
+
+    // Khóa advisory của bước gán vị trí ("outbox" dạng số)
+    static final long SEQUENCER_LOCK_KEY = 0x6f7574626f78L;
+
+    private final IContentChangeEventRepository eventRepository;
+    private final ContentChangeBroadcaster broadcaster;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public ContentChangeOutboxPoller(IContentChangeEventRepository eventRepository,
+                                     ContentChangeBroadcaster broadcaster,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${content.events.batch-size:200}") int batchSize,
+                                     @Value("${content.events.retention-hours:24}") long retentionHours) {
+        this.eventRepository = eventRepository;
+        this.broadcaster = broadcaster;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @Scheduled(fixedDelayString = "${content.events.poll-interval-ms:500}")
+    public void publishPending() {
+        try {
+            assignPositions();
+            int delivered = broadcaster.deliverPending();
+            if (delivered > 0) {
+                log.debug("Delivered {} content change events to {} subscribers", delivered, broadcaster.subscribers());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not publish content change events: {}", e.getMessage());
+        }
+    }
+
+    private void assignPositions() {
+        Integer assigned;
+        do {
+            // Instance khác đang gán thì bỏ qua lượt này, vẫn giao các sự kiện đã có vị trí
+            assigned = transactionTemplate.execute(status -> eventRepository.tryLockSequencer(SEQUENCER_LOCK_KEY)
+                    ? eventRepository.assignPositions(batchSize, Instant.now())
+                    : 0);
+        } while (assigned != null && assigned == batchSize);
+    }
+
+    // Sự kiện giữ lại retention-hours để subscriber kết nối lại còn nhận được (Last-Event-ID)
+    @Scheduled(fixedDelayString = "${content.events.cleanup-interval-ms:3600000}")
+    public void deletePublished() {
+        int deleted = eventRepository.deletePublishedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Deleted {} published content change events", deleted);
+        }
+    }
+}
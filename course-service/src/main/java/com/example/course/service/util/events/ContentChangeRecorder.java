@@ -0,0 +1,64 @@
+package com.example.course.service.util.events;
+
+import java.time.Instant;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.course.service.model.chapter.Chapter;
+import com.example.course.service.model.event.ContentAggregateType;
+import com.example.course.service.model.event.ContentChangeEvent;
+import com.example.course.service.model.event.ContentChangeType;
+import com.example.course.service.repository.IChapterRepository;
+import com.example.course.service.repository.IContentChangeEventRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Ghi sự kiện thay đổi vào outbox. Gọi trong transaction của thay đổi để sự kiện
+ * được commit (hoặc rollback) cùng dữ liệu; không gửi gì ra ngoài ở đây.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContentChangeRecorder {
+
+    private final IContentChangeEventRepository eventRepository;
+    private final IChapterRepository chapterRepository;
+
+    @Transactional
+    public void chapterChanged(String chapterId, String courseId, ContentChangeType changeType) {
+        save(ContentAggregateType.CHAPTER, chapterId, courseId, chapterId, changeType);
+    }
+
+    @Transactional
+    public void materialChanged(String materialId, String chapterId, ContentChangeType changeType) {
+        save(ContentAggregateType.MATERIAL, materialId, courseOf(chapterId), chapterId, changeType);
+    }
+
+    @Transactional
+    public void materialChanged(String materialId, String chapterId, String courseId, ContentChangeType changeType) {
+        save(ContentAggregateType.MATERIAL, materialId, courseId, chapterId, changeType);
+    }
+
+    @Transactional
+    public void contentChanged(String chapterId, ContentChangeType changeType) {
+        save(ContentAggregateType.CONTENT, chapterId, courseOf(chapterId), chapterId, changeType);
+    }
+
+    // Chapter nằm trong second-level cache nên tra course thường không tốn query
+    public String courseOf(String chapterId) {
+        return chapterId == null ? null : chapterRepository.findById(chapterId).map(Chapter::getCourseId).orElse(null);
+    }
+
+    private void save(ContentAggregateType aggregateType, String aggregateId, String courseId, String chapterId,
+                      ContentChangeType changeType) {
+        ContentChangeEvent event = new ContentChangeEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setCourseId(courseId);
+        event.setChapterId(chapterId);
+        event.setChangeType(changeType);
+        event.setOccurredAt(Instant.now());
+        eventRepository.save(event);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.course.service.util.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import com.example.course.service.dto.response.CursorPage;
+import com.example.course.service.exception.BadRequestException;
+
+/**
+ * Cursor cho phân trang keyset: giá trị các cột sắp xếp của phần tử cuối trang trước,
+ * nối bằng '\n' và mã hóa Base64 URL-safe để client coi như chuỗi mờ.
+ * Truy vấn trang sau dùng điều kiện (cột sắp xếp) > cursor trên index nên không phụ thuộc vào độ sâu trang như OFFSET.
+ */
+public final class KeysetCursor {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private static final String SEPARATOR = "\n";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Object... keys) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(keys[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Giải mã cursor, kiểm tra đúng số khóa.
+     */
+    public static String[] decode(String cursor, int keyCount) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = raw.split(SEPARATOR, -1);
+            if (keys.length != keyCount) {
+                throw new IllegalArgumentException("expected " + keyCount + " keys");
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static int clampSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Tạo trang từ kết quả truy vấn size + 1 phần tử: phần tử thừa chỉ dùng để biết còn trang sau.
+     */
+    public static <T, R> CursorPage<R> page(List<T> rows, int size, Function<T, String> cursorOf, Function<T, R> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return CursorPage.<R>builder()
+                .items(items.stream().map(mapper).toList())
+                .size(items.size())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+-- Bảng bổ sung cho course-service (Hibernate chạy ở chế độ validate nên cần tạo trước)
+
+CREATE TABLE IF NOT EXISTS extracted_contents (
+    bucket       VARCHAR(255) NOT NULL,
+    object_name  VARCHAR(1024) NOT NULL,
+    etag         VARCHAR(255) NOT NULL,
+    content_json TEXT         NOT NULL,
+    size_bytes   BIGINT       NOT NULL,
+    extracted_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (bucket, object_name)
+);
+
+-- Pipeline trích xuất bất đồng bộ: trạng thái và số lần thử
+ALTER TABLE extracted_contents ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED';
+ALTER TABLE extracted_contents ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE extracted_contents ADD COLUMN IF NOT EXISTS error TEXT;
+ALTER TABLE extracted_contents ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE extracted_contents ALTER COLUMN content_json DROP NOT NULL;
+ALTER TABLE extracted_contents ALTER COLUMN size_bytes DROP NOT NULL;
+ALTER TABLE extracted_contents ALTER COLUMN extracted_at DROP NOT NULL;
+
+-- Tìm kiếm full-text (tsvector + GIN). Cấu hình 'simple': không stem, dùng được cho cả tiếng Việt lẫn tiếng Anh.
+-- Nội dung TEXT material rất dài chỉ index 256K ký tự đầu để không vượt giới hạn kích thước tsvector.
+ALTER TABLE IF EXISTS materials ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', left(coalesce(content_body, ''), 262144)), 'B') ||
+        setweight(to_tsvector('simple', coalesce(transcript, '')), 'B')
+    ) STORED;
+CREATE INDEX IF NOT EXISTS idx_materials_search_vector ON materials USING GIN (search_vector);
+
+-- Text PDF/DOCX đã trích xuất, chia theo trang (PDF) hoặc đoạn ~4000 ký tự (DOCX, page = NULL)
+CREATE TABLE IF NOT EXISTS material_passages (
+    bucket        VARCHAR(255)  NOT NULL,
+    object_name   VARCHAR(1024) NOT NULL,
+    passage       INTEGER       NOT NULL,
+    etag          VARCHAR(255)  NOT NULL,
+    page          INTEGER,
+    content       TEXT          NOT NULL,
+    search_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple', content)) STORED,
+    PRIMARY KEY (bucket, object_name, passage)
+);
+CREATE INDEX IF NOT EXISTS idx_material_passages_search_vector ON material_passages USING GIN (search_vector);
+
+-- Phân trang keyset: chapter theo (order_index, id) trong course, material theo id trong chapter
+CREATE INDEX IF NOT EXISTS idx_chapter_course_order ON chapter (course_id, order_index, id);
+CREATE INDEX IF NOT EXISTS idx_materials_chapter_id ON materials (chapter_id, id);
+
+-- Outbox sự kiện thay đổi chapter / material / file, được poller phát qua SSE (GET /events/content)
+CREATE SEQUENCE IF NOT EXISTS content_change_events_seq INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS content_change_events (
+    id             BIGINT       PRIMARY KEY,
+    aggregate_type VARCHAR(20)  NOT NULL,
+    aggregate_id   VARCHAR(1024) NOT NULL,
+    course_id      VARCHAR(255),
+    chapter_id     VARCHAR(255),
+    change_type    VARCHAR(20)  NOT NULL,
+    occurred_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    published_at   TIMESTAMP WITH TIME ZONE,
+    stream_position BIGINT
+);
+CREATE INDEX IF NOT EXISTS idx_content_change_events_unpublished
+    ON content_change_events (id) WHERE published_at IS NULL;
+-- Thứ tự phát: gán sau khi thay đổi đã commit, bởi một instance tại một thời điểm (advisory lock),
+-- nên mọi instance đọc theo stream_position tăng dần không bỏ sót; dùng làm id SSE / Last-Event-ID
+ALTER TABLE content_change_events ADD COLUMN IF NOT EXISTS stream_position BIGINT;
+CREATE SEQUENCE IF NOT EXISTS content_change_positions;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_content_change_events_position ON content_change_events (stream_position);
+
+-- Lưu file theo nội dung: mỗi nội dung (SHA-256) chỉ có một object blobs/<sha256>.<ext> trên MinIO,
+-- ref_count = số chapter đang trỏ tới (kể cả upload đang dở); blob ref_count = 0 quá hạn bị dọn
+CREATE TABLE IF NOT EXISTS content_blobs (
+    sha256       VARCHAR(64)   PRIMARY KEY,
+    object_name  VARCHAR(1024) NOT NULL,
+    size_bytes   BIGINT        NOT NULL,
+    content_type VARCHAR(255),
+    ref_count    INTEGER       NOT NULL DEFAULT 0,
+    deleting     BOOLEAN       NOT NULL DEFAULT FALSE,
+    created_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at   TIMESTAMP WITH TIME ZONE NOT NULL
+);
+-- Tombstone: object đang bị xóa khỏi MinIO, pin phải chờ dòng bị xóa hẳn rồi upload lại
+ALTER TABLE content_blobs ADD COLUMN IF NOT EXISTS deleting BOOLEAN NOT NULL DEFAULT FALSE;
+CREATE INDEX IF NOT EXISTS idx_content_blobs_orphans ON content_blobs (updated_at) WHERE ref_count = 0;
+
+-- File hiện tại của từng chapter; chapter chưa có dòng ở đây dùng object cũ đặt tên theo chapterId
+CREATE TABLE IF NOT EXISTS content_refs (
+    chapter_id   VARCHAR(255)  PRIMARY KEY,
+    sha256       VARCHAR(64)   NOT NULL REFERENCES content_blobs (sha256),
+    object_name  VARCHAR(1024) NOT NULL,
+    file_name    VARCHAR(1024),
+    content_type VARCHAR(255),
+    updated_at   TIMESTAMP WITH TIME ZONE NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_content_refs_sha256 ON content_refs (sha256);
+CREATE INDEX IF NOT EXISTS idx_content_refs_object_name ON content_refs (object_name);
+
+-- Transcript SRT / VTT của VideoMaterial tách theo cue: tra theo mốc thời gian (B-tree) và từ khóa (GIN)
+CREATE TABLE IF NOT EXISTS transcript_segments (
+    material_id   VARCHAR(255) NOT NULL,
+    seq           INTEGER      NOT NULL,
+    start_ms      BIGINT       NOT NULL,
+    end_ms        BIGINT       NOT NULL,
+    content       TEXT         NOT NULL,
+    search_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple', content)) STORED,
+    PRIMARY KEY (material_id, seq)
+);
+CREATE INDEX IF NOT EXISTS idx_transcript_segments_time ON transcript_segments (material_id, start_ms, end_ms);
+CREATE INDEX IF NOT EXISTS idx_transcript_segments_search_vector ON transcript_segments USING GIN (search_vector);
@@ -0,0 +1,209 @@
+package com.example.course.service.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.course.service.config.JacksonConfig;
+import com.example.course.service.dto.ChapterDTO;
+import com.example.course.service.dto.MaterialFileDTO;
+import com.example.course.service.dto.MaterialSummary;
+import com.example.course.service.dto.response.CursorPage;
+import com.example.course.service.service.IChapterManagementService;
+import com.example.course.service.service.ICourseImportService;
+import com.example.course.service.service.IMaterialManagementService;
+import com.example.course.service.service.IMaterialSearchService;
+import com.example.course.service.service.ITranscriptSegmentService;
+import com.example.course.service.util.content.ContentRangeSelector;
+import com.example.course.service.util.content.ContentResponseWriter;
+import com.example.course.service.util.content.ExtractedDocument;
+import com.example.course.service.util.pagination.KeysetCursor;
+
+/**
+ * ETag của nội dung material: mỗi phần được chọn (và mỗi tên file) có ETag riêng,
+ * If-None-Match của phần khác không được trả 304. Lỗi tham số của request trả đúng mã lỗi.
+ */
+@WebMvcTest(CoreCourseController.class)
+@Import({ ContentResponseWriter.class, JacksonConfig.class })
+class CoreCourseControllerTest {
+
+    private static final String CONTENT_URL = "/course/course-1/chapters/{chapterId}/content";
+    private static final String CHAPTERS_URL = "/course/course-1/chapters";
+    private static final String FILE_URL = "/course/course-1/chapters/{chapterId}/file";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean(name = "chapterManagementServiceImpl")
+    private IChapterManagementService chapterManagementService;
+
+    @MockitoBean
+    private IMaterialManagementService materialService;
+
+    @MockitoBean
+    private IMaterialSearchService materialSearchService;
+
+    @MockitoBean
+    private ICourseImportService courseImportService;
+
+    @MockitoBean
+    private ITranscriptSegmentService transcriptSegmentService;
+
+    @BeforeEach
+    void setUp() {
+        // 3 trang, mỗi trang 5 ký tự
+        given(materialService.getContent(eq("chapter-1"), any(), any())).willAnswer(invocation ->
+                ContentRangeSelector.select(document("lesson.pdf"), invocation.getArgument(1), invocation.getArgument(2)));
+        given(materialService.getContent(eq("chapter-2"), any(), any())).willAnswer(invocation ->
+                ContentRangeSelector.select(document("copy-of-lesson.pdf"), invocation.getArgument(1), invocation.getArgument(2)));
+    }
+
+    @Test
+    void differentSelectionsNeverShareAnETag() throws Exception {
+        List<String> etags = List.of(
+                etag("chapter-1", null, null),
+                etag("chapter-1", "1", null),
+                etag("chapter-1", "2", null),
+                etag("chapter-1", "1-2", null),
+                etag("chapter-1", null, "0-5"),
+                etag("chapter-1", null, "0-4"),
+                etag("chapter-1", null, "5-10"),
+                // Cùng object nhưng tên file trong body khác
+                etag("chapter-2", null, null));
+
+        Set<String> distinct = new HashSet<>(etags);
+        assertThat(distinct).hasSameSizeAs(etags);
+        assertThat(etags).allMatch(tag -> tag.startsWith("\"v1-"));
+    }
+
+    @Test
+    void equivalentSelectionsShareAnETag() throws Exception {
+        // Trang được giới hạn theo số trang: 2-99 và 2- trả cùng nội dung
+        assertThat(etag("chapter-1", "2-99", null)).isEqualTo(etag("chapter-1", "2-", null));
+    }
+
+    @Test
+    void ifNoneMatchOfAnotherSelectionReturnsContent() throws Exception {
+        String pageOne = etag("chapter-1", "1", null);
+
+        mockMvc.perform(get(CONTENT_URL, "chapter-1").param("pages", "2").header(HttpHeaders.IF_NONE_MATCH, pageOne))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(CONTENT_URL, "chapter-2").param("pages", "1").header(HttpHeaders.IF_NONE_MATCH, pageOne))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(CONTENT_URL, "chapter-1").param("pages", "1").header(HttpHeaders.IF_NONE_MATCH, pageOne))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void malformedCursorIsAnswered400() throws Exception {
+        given(chapterManagementService.listChapters(eq("course-1"), any(), any())).willAnswer(invocation -> {
+            KeysetCursor.decode(invocation.getArgument(1), 2);
+            return null;
+        });
+
+        mockMvc.perform(get(CHAPTERS_URL).param("cursor", "not a cursor").param("size", "10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listsWithoutCursorOrSizeReturnTheFirstPage() throws Exception {
+        given(chapterManagementService.listChapters(eq("course-1"), any(), any()))
+                .willReturn(CursorPage.<ChapterDTO>builder().items(List.of()).size(0).hasMore(false).build());
+        given(materialService.listMaterialSummaries(eq("chapter-1"), any(), any()))
+                .willReturn(CursorPage.<MaterialSummary>builder().items(List.of()).size(0).hasMore(false).build());
+
+        mockMvc.perform(get(CHAPTERS_URL)).andExpect(status().isOk());
+        mockMvc.perform(get(CHAPTERS_URL + "/{chapterId}/materials", "chapter-1")).andExpect(status().isOk());
+
+        verify(chapterManagementService).listChapters("course-1", null, null);
+        verify(materialService).listMaterialSummaries("chapter-1", null, null);
+        verify(chapterManagementService, never()).listChapters("course-1");
+        verify(materialService, never()).listMaterialSummaries("chapter-1");
+    }
+
+    @Test
+    void unsatisfiableRangeIsAnswered416() throws Exception {
+        given(materialService.getFile("chapter-1")).willReturn(file(100));
+
+        for (String range : List.of("bytes=100-", "bytes=150-200", "items=0-1", "bytes=abc")) {
+            mockMvc.perform(get(FILE_URL, "chapter-1").header(HttpHeaders.RANGE, range))
+                    .andExpect(status().isRequestedRangeNotSatisfiable())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+        }
+    }
+
+    @Test
+    void rangeDownloadStreamsPartialContentWithItsOwnAsyncTimeout() throws Exception {
+        given(materialService.getFile("chapter-1")).willReturn(file(100));
+
+        MvcResult result = mockMvc.perform(get(FILE_URL, "chapter-1").header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Timeout của content.download.timeout-ms, không phải timeout async chung
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(1_800_000L);
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"));
+        verify(materialService).streamFile(eq("chapter-1"), eq("v1"), eq(10L), eq(10L), any());
+    }
+
+    private String etag(String chapterId, String pages, String range) throws Exception {
+        var request = get(CONTENT_URL, chapterId);
+        if (pages != null) {
+            request.param("pages", pages);
+        }
+        if (range != null) {
+            request.param("range", range);
+        }
+        String etag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+
+    private static MaterialFileDTO file(long size) {
+        return MaterialFileDTO.builder()
+                .objectName("blobs/abc.pdf")
+                .fileName("lesson.pdf")
+                .size(size)
+                .contentType("application/pdf")
+                .etag("v1")
+                .build();
+    }
+
+    private static ExtractedDocument document(String fileName) {
+        return ExtractedDocument.builder()
+                .fileName(fileName)
+                .status("COMPLETED")
+                .pages(3)
+                .pageOffsets(List.of(0, 5, 10))
+                .metadata(Map.of("etag", "v1"))
+                .content("aaaa bbbb cccc ")
+                .build();
+    }
+}
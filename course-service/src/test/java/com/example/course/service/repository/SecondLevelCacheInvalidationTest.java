@@ -0,0 +1,133 @@
+package com.example.course.service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.course.service.dto.ChapterDTO;
+import com.example.course.service.dto.MaterialSummary;
+import com.example.course.service.model.material.TextMaterial;
+import com.example.course.service.model.material.VideoMaterial;
+import com.example.course.service.service.impl.ChapterManagementServiceImpl;
+import com.example.course.service.util.events.ContentChangeRecorder;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Query cache của danh sách chapter / material phải bị vô hiệu khi có ghi qua Hibernate.
+ * Không chạy trong transaction của test: query cache chỉ được dùng sau khi các thay đổi đã commit.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ ChapterManagementServiceImpl.class, ContentChangeRecorder.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheInvalidationTest {
+
+    private static final String COURSE_ID = "cached-course";
+    private static final String CHAPTER_ID = "cached-chapter";
+
+    @Autowired
+    private ChapterManagementServiceImpl chapterService;
+
+    @Autowired
+    private IChapterRepository chapterRepository;
+
+    @Autowired
+    private IMaterialRepository materialRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        materialRepository.deleteAll();
+        chapterRepository.deleteAll();
+    }
+
+    @Test
+    void chapterListIsCachedUntilChaptersChange() {
+        chapterService.createChapter(COURSE_ID, new ChapterDTO(COURSE_ID, "Intro", 0, null, null));
+        assertThat(chapterService.listChapters(COURSE_ID)).hasSize(1);
+
+        statistics.clear();
+        assertThat(chapterService.listChapters(COURSE_ID)).hasSize(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        chapterService.createChapter(COURSE_ID, new ChapterDTO(COURSE_ID, "Patterns", 1, null, null));
+        List<ChapterDTO> chapters = chapterService.listChapters(COURSE_ID);
+        assertThat(chapters).extracting(ChapterDTO::getTitle).containsExactly("Intro", "Patterns");
+
+        chapterService.deleteChapter(chapters.get(0).getChapterId());
+        assertThat(chapterService.listChapters(COURSE_ID)).extracting(ChapterDTO::getTitle).containsExactly("Patterns");
+    }
+
+    @Test
+    void nativeMaterialListIsCachedUntilMaterialsChange() {
+        VideoMaterial lecture = saveVideo("Lecture");
+        assertThat(materialRepository.findSummariesByChapterId(CHAPTER_ID)).hasSize(1);
+
+        statistics.clear();
+        assertThat(materialRepository.findSummariesByChapterId(CHAPTER_ID)).hasSize(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        saveVideo("Demo");
+        assertThat(materialRepository.findSummariesByChapterId(CHAPTER_ID))
+                .extracting(MaterialSummary::getTitle).containsExactlyInAnyOrder("Lecture", "Demo");
+
+        lecture.setTitle("Lecture (updated)");
+        materialRepository.save(lecture);
+        assertThat(materialRepository.findSummariesByChapterId(CHAPTER_ID))
+                .extracting(MaterialSummary::getTitle).containsExactlyInAnyOrder("Lecture (updated)", "Demo");
+
+        materialRepository.deleteById(lecture.getId());
+        assertThat(materialRepository.findSummariesByChapterId(CHAPTER_ID))
+                .extracting(MaterialSummary::getTitle).containsExactly("Demo");
+    }
+
+    @Test
+    void detailListWithLessonBodiesIsNotCached() {
+        TextMaterial lesson = new TextMaterial();
+        lesson.setChapterId(CHAPTER_ID);
+        lesson.setTitle("Lesson");
+        lesson.setContentBody("x".repeat(10_000));
+        materialRepository.save(lesson);
+
+        statistics.clear();
+        assertThat(materialRepository.findDetailsByChapterId(CHAPTER_ID)).hasSize(1);
+        assertThat(materialRepository.findDetailPageAfter(CHAPTER_ID, "", 10)).hasSize(1);
+        assertThat(materialRepository.findDetailsByChapterId(CHAPTER_ID)).hasSize(1);
+        assertThat(statistics.getQueryCachePutCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    private VideoMaterial saveVideo(String title) {
+        VideoMaterial video = new VideoMaterial();
+        video.setChapterId(CHAPTER_ID);
+        video.setTitle(title);
+        return materialRepository.save(video);
+    }
+}
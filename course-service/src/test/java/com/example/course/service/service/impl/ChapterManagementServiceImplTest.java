@@ -0,0 +1,157 @@
+package com.example.course.service.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.course.service.dto.ChapterDTO;
+import com.example.course.service.dto.response.CursorPage;
+import com.example.course.service.exception.BadRequestException;
+import com.example.course.service.exception.ResourceNotFoundException;
+import com.example.course.service.model.chapter.Chapter;
+import com.example.course.service.model.event.ContentChangeEvent;
+import com.example.course.service.model.event.ContentChangeType;
+import com.example.course.service.repository.IChapterRepository;
+import com.example.course.service.repository.IContentChangeEventRepository;
+import com.example.course.service.util.events.ContentChangeRecorder;
+import com.example.course.service.util.pagination.KeysetCursor;
+
+/**
+ * Cập nhật chapter và bản ghi outbox phải được commit / rollback cùng nhau; phân trang keyset theo (orderIndex, id).
+ * Không chạy trong transaction của test để transaction của service là transaction thật.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({ ChapterManagementServiceImpl.class, ContentChangeRecorder.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChapterManagementServiceImplTest {
+
+    private static final String COURSE_ID = "course-1";
+
+    @Autowired
+    private ChapterManagementServiceImpl chapterService;
+
+    @Autowired
+    private IChapterRepository chapterRepository;
+
+    @Autowired
+    private IContentChangeEventRepository eventRepository;
+
+    @MockitoSpyBean
+    private ContentChangeRecorder changeRecorder;
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAll();
+        chapterRepository.deleteAll();
+    }
+
+    @Test
+    void updateModifiesExistingChapterAndRecordsUpdatedEvent() {
+        Chapter chapter = saveChapter("Intro");
+
+        ChapterDTO updated = chapterService.updateChapter(COURSE_ID,
+                new ChapterDTO(COURSE_ID, "Introduction", 3, null, chapter.getId()));
+
+        assertThat(updated.getChapterId()).isEqualTo(chapter.getId());
+        assertThat(chapterRepository.count()).isEqualTo(1);
+        Chapter stored = chapterRepository.findById(chapter.getId()).orElseThrow();
+        assertThat(stored.getTitle()).isEqualTo("Introduction");
+        assertThat(stored.getOrderIndex()).isEqualTo(3);
+        assertThat(eventRepository.findAll())
+                .extracting(ContentChangeEvent::getAggregateId, ContentChangeEvent::getChangeType)
+                .containsExactly(tuple(chapter.getId(), ContentChangeType.UPDATED));
+    }
+
+    @Test
+    void updateAndOutboxWriteRollBackTogether() {
+        Chapter chapter = saveChapter("Intro");
+        // Sự kiện được ghi rồi mới lỗi: cả chapter lẫn sự kiện phải bị rollback
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            throw new IllegalStateException("failure after outbox write");
+        }).when(changeRecorder).chapterChanged(eq(chapter.getId()), any(), eq(ContentChangeType.UPDATED));
+
+        assertThatThrownBy(() -> chapterService.updateChapter(COURSE_ID,
+                new ChapterDTO(COURSE_ID, "Introduction", 3, null, chapter.getId())))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(chapterRepository.findById(chapter.getId()).orElseThrow().getTitle()).isEqualTo("Intro");
+        assertThat(eventRepository.count()).isZero();
+    }
+
+    @Test
+    void updateOfChapterInAnotherCourseIsNotFound() {
+        Chapter chapter = saveChapter("Intro");
+
+        assertThatThrownBy(() -> chapterService.updateChapter("other-course",
+                new ChapterDTO("other-course", "Introduction", 0, null, chapter.getId())))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(eventRepository.count()).isZero();
+    }
+
+    @Test
+    void keysetPagesVisitEveryChapterOnceInOrder() {
+        // Trùng orderIndex: thứ tự trong cùng orderIndex theo id
+        for (int i = 0; i < 5; i++) {
+            saveChapter("Chapter " + i, i % 2);
+        }
+        saveChapter("Other course", 0, "other-course");
+
+        List<String> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ChapterDTO> page = chapterService.listChapters(COURSE_ID, cursor, 2);
+            assertThat(page.getSize()).isLessThanOrEqualTo(2);
+            page.getItems().forEach(chapter -> visited.add(chapter.getChapterId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(visited).containsExactlyElementsOf(chapterService.listChapters(COURSE_ID).stream()
+                .map(ChapterDTO::getChapterId)
+                .toList());
+        assertThat(visited).hasSize(5);
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() {
+        assertThatThrownBy(() -> chapterService.listChapters(COURSE_ID, "not a cursor", 2))
+                .isInstanceOf(BadRequestException.class);
+        // Đúng số khóa nhưng orderIndex không phải số
+        assertThatThrownBy(() -> chapterService.listChapters(COURSE_ID, KeysetCursor.encode("first", "id"), 2))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private Chapter saveChapter(String title) {
+        return saveChapter(title, 0);
+    }
+
+    private Chapter saveChapter(String title, int orderIndex) {
+        return saveChapter(title, orderIndex, COURSE_ID);
+    }
+
+    private Chapter saveChapter(String title, int orderIndex, String courseId) {
+        Chapter chapter = new Chapter();
+        chapter.setCourseId(courseId);
+        chapter.setTitle(title);
+        chapter.setOrderIndex(orderIndex);
+        return chapterRepository.save(chapter);
+    }
+}
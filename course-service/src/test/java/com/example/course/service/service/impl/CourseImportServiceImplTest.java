@@ -0,0 +1,205 @@
+package com.example.course.service.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.course.service.config.JacksonConfig;
+import com.example.course.service.dto.bulk.BulkImportResultDTO;
+import com.example.course.service.exception.BadRequestException;
+import com.example.course.service.mapper.MaterialMapper;
+import com.example.course.service.model.chapter.Chapter;
+import com.example.course.service.model.event.ContentChangeEvent;
+import com.example.course.service.model.event.ContentChangeType;
+import com.example.course.service.model.material.Material;
+import com.example.course.service.repository.IChapterRepository;
+import com.example.course.service.repository.IContentChangeEventRepository;
+import com.example.course.service.repository.IMaterialRepository;
+import com.example.course.service.service.IMaterialManagementService;
+import com.example.course.service.util.content.transcript.TranscriptSegmentIndexer;
+import com.example.course.service.util.events.ContentChangeRecorder;
+
+/**
+ * Import hàng loạt: dữ liệu được ghi theo lô (batch_size = 2 để có nhiều lần flush) trong một transaction,
+ * lỗi manifest rollback toàn bộ, file đính kèm upload sau khi commit và lỗi upload không làm mất dữ liệu.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=2",
+        "content.import.max-items=5"
+})
+@Import({ CourseImportServiceImpl.class, ContentChangeRecorder.class, MaterialMapper.class, JacksonConfig.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CourseImportServiceImplTest {
+
+    private static final String COURSE_ID = "course-1";
+
+    @Autowired
+    private CourseImportServiceImpl importService;
+
+    @Autowired
+    private IChapterRepository chapterRepository;
+
+    @Autowired
+    private IMaterialRepository materialRepository;
+
+    @Autowired
+    private IContentChangeEventRepository eventRepository;
+
+    @MockitoBean
+    private IMaterialManagementService materialService;
+
+    // Tách transcript dùng SQL riêng của Postgres; import chỉ có material TEXT
+    @MockitoBean
+    private TranscriptSegmentIndexer transcriptIndexer;
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAll();
+        materialRepository.deleteAll();
+        chapterRepository.deleteAll();
+    }
+
+    @Test
+    void ndjsonChaptersAndMaterialsAreImportedAcrossSeveralBatches() {
+        String manifest = """
+                {"title": "Intro", "orderIndex": 0, "materials": [{"title": "Welcome", "type": "TEXT", "contentOrUrl": "hi"}]}
+                {"title": "Loops", "orderIndex": 1, "file": "loops-pdf"}
+                {"title": "Recursion", "orderIndex": 2, "materials": [{"title": "Notes", "type": "text", "contentOrUrl": "f(n)"}]}
+                """;
+        given(materialService.uploadContent(any(), any())).willReturn(Map.of("etag", "etag-1"));
+
+        BulkImportResultDTO result = importService.importChapters(COURSE_ID, stream(manifest),
+                Map.of("loops-pdf", file()));
+
+        assertThat(result.getChapters()).isEqualTo(3);
+        assertThat(result.getMaterials()).isEqualTo(2);
+        List<Chapter> chapters = chapterRepository.findByCourseIdOrderByOrderIndexAscIdAsc(COURSE_ID);
+        assertThat(chapters).extracting(Chapter::getTitle).containsExactly("Intro", "Loops", "Recursion");
+        assertThat(result.getIds()).containsExactlyElementsOf(chapters.stream().map(Chapter::getId).toList());
+        assertThat(materialRepository.findAll()).extracting(Material::getTitle)
+                .containsExactlyInAnyOrder("Welcome", "Notes");
+
+        // Một sự kiện CREATED cho mỗi chapter và material, trong cùng transaction import
+        assertThat(eventRepository.findAll()).hasSize(5)
+                .extracting(ContentChangeEvent::getChangeType)
+                .containsOnly(ContentChangeType.CREATED);
+
+        String loopsId = chapters.get(1).getId();
+        verify(materialService).uploadContent(eq(loopsId), any());
+        assertThat(result.getUploadedFiles()).containsExactly(Map.entry(loopsId, "etag-1"));
+        assertThat(result.getFailedFiles()).isEmpty();
+    }
+
+    @Test
+    void jsonArrayManifestIsAccepted() {
+        BulkImportResultDTO result = importService.importChapters(COURSE_ID,
+                stream("[{\"title\": \"Intro\"}, {\"title\": \"Loops\", \"orderIndex\": 1}]"), null);
+
+        assertThat(result.getChapters()).isEqualTo(2);
+        assertThat(chapterRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void failedUploadIsReportedAndImportedDataIsKept() {
+        given(materialService.uploadContent(any(), any())).willThrow(new IllegalStateException("storage unavailable"));
+
+        BulkImportResultDTO result = importService.importChapters(COURSE_ID,
+                stream("{\"title\": \"Loops\", \"file\": \"loops-pdf\"}"), Map.of("loops-pdf", file()));
+
+        assertThat(result.getFailedFiles()).containsExactly(Map.entry("loops-pdf", "storage unavailable"));
+        assertThat(result.getUploadedFiles()).isEmpty();
+        assertThat(chapterRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void importOverTheItemLimitRollsBackEverything() {
+        // 6 chapter > content.import.max-items, vượt giới hạn sau vài lần flush
+        String manifest = "{\"title\": \"c\"}\n".repeat(6);
+
+        assertThatThrownBy(() -> importService.importChapters(COURSE_ID, stream(manifest), null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("exceeds 5");
+
+        assertThat(chapterRepository.count()).isZero();
+        assertThat(eventRepository.count()).isZero();
+    }
+
+    @Test
+    void missingFilePartRejectsTheImportBeforeAnyUpload() {
+        String manifest = """
+                {"title": "Intro"}
+                {"title": "Loops", "file": "loops-pdf"}
+                """;
+
+        assertThatThrownBy(() -> importService.importChapters(COURSE_ID, stream(manifest), Map.of()))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Chapter #2");
+
+        assertThat(chapterRepository.count()).isZero();
+        verify(materialService, never()).uploadContent(any(), any());
+    }
+
+    @Test
+    void malformedManifestOrMaterialIsBadRequest() {
+        assertThatThrownBy(() -> importService.importChapters(COURSE_ID, stream("{\"title\": "), null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Invalid import manifest");
+        assertThatThrownBy(() -> importService.importChapters(COURSE_ID,
+                stream("{\"title\": \"Intro\", \"materials\": [{\"title\": \"Quiz\", \"type\": \"AUDIO\"}]}"), null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Material #1");
+
+        assertThat(chapterRepository.count()).isZero();
+        assertThat(materialRepository.count()).isZero();
+    }
+
+    @Test
+    void materialsAreImportedIntoExistingChapter() {
+        Chapter chapter = new Chapter();
+        chapter.setCourseId(COURSE_ID);
+        chapter.setTitle("Intro");
+        chapter = chapterRepository.save(chapter);
+
+        String manifest = """
+                {"title": "A", "type": "TEXT", "contentOrUrl": "a"}
+                {"title": "B", "type": "INTERACTIVE", "contentOrUrl": "{}"}
+                {"title": "C", "type": "TEXT", "contentOrUrl": "c"}
+                """;
+        BulkImportResultDTO result = importService.importMaterials(chapter.getId(), stream(manifest));
+
+        assertThat(result.getMaterials()).isEqualTo(3);
+        assertThat(materialRepository.findAll()).extracting(Material::getChapterId).containsOnly(chapter.getId());
+        assertThat(eventRepository.findAll()).extracting(ContentChangeEvent::getCourseId).containsOnly(COURSE_ID);
+    }
+
+    private static InputStream stream(String manifest) {
+        return new ByteArrayInputStream(manifest.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MultipartFile file() {
+        return new MockMultipartFile("loops-pdf", "loops.pdf", "application/pdf", new byte[] { 1, 2, 3 });
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.course.service.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.example.course.service.dto.CourseTreeDTO;
+import com.example.course.service.model.chapter.Chapter;
+import com.example.course.service.model.material.TextMaterial;
+import com.example.course.service.repository.IChapterRepository;
+import com.example.course.service.util.events.ContentChangeRecorder;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Số câu SQL khi duyệt cây chapter -> materials không được tăng theo số chapter.
+ * Chạy trên H2 nhúng; schema.sql (cú pháp riêng của Postgres) không được chạy, bảng do Hibernate tạo.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ ChapterManagementServiceImpl.class, ContentChangeRecorder.class })
+class CourseTreeQueryCountTest {
+
+    private static final String COURSE_ID = "course-1";
+    private static final int CHAPTERS = 12;
+    private static final int MATERIALS_PER_CHAPTER = 3;
+
+    @Autowired
+    private ChapterManagementServiceImpl chapterService;
+
+    @Autowired
+    private IChapterRepository chapterRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int c = 0; c < CHAPTERS; c++) {
+            Chapter chapter = new Chapter();
+            chapter.setCourseId(COURSE_ID);
+            chapter.setTitle("Chapter " + c);
+            chapter.setOrderIndex(c);
+            entityManager.persist(chapter);
+            for (int m = 0; m < MATERIALS_PER_CHAPTER; m++) {
+                TextMaterial material = new TextMaterial();
+                material.setChapterId(chapter.getId());
+                material.setTitle("Material " + c + "." + m);
+                material.setContentBody("body " + c + "." + m);
+                entityManager.persist(material);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void courseTreeLoadsInSingleQuery() {
+        CourseTreeDTO tree = chapterService.getCourseTree(COURSE_ID);
+
+        assertThat(tree.getChapters()).hasSize(CHAPTERS);
+        assertThat(tree.getChapters()).allSatisfy(chapter ->
+                assertThat(chapter.getMaterials()).hasSize(MATERIALS_PER_CHAPTER));
+        assertThat(tree.getChapters().get(0).getMaterials().get(0).getType()).isEqualTo("TEXT");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void lazyTraversalBatchesMaterials() {
+        List<Chapter> chapters = chapterRepository.findByCourseIdOrderByOrderIndexAscIdAsc(COURSE_ID);
+        int materials = chapters.stream().mapToInt(chapter -> chapter.getMaterials().size()).sum();
+
+        assertThat(materials).isEqualTo(CHAPTERS * MATERIALS_PER_CHAPTER);
+        // 1 query chapter + 1 query materials cho cả 12 chapter (@BatchSize 50), thay vì 1 + 12
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.course.service.util.content;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.course.service.exception.BadRequestException;
+
+/**
+ * Parse pages / range: giới hạn theo số trang và độ dài text, định dạng sai trả 400.
+ */
+class ContentRangeSelectorTest {
+
+    // 3 trang, mỗi trang 5 ký tự
+    private static final String TEXT = "aaaa bbbb cccc ";
+
+    @Test
+    void noSelectionReturnsWholeContent() {
+        ContentSelection selection = ContentRangeSelector.select(document(), null, " ");
+
+        assertThat(text(selection)).isEqualTo(TEXT);
+        assertThat(selection.selectionTag()).isEqualTo("all");
+    }
+
+    @Test
+    void singlePageAndPageRange() {
+        ContentSelection page = ContentRangeSelector.select(document(), "2", null);
+        assertThat(text(page)).isEqualTo("bbbb ");
+        assertThat(page.document().getPageRange()).isEqualTo("2-2");
+        assertThat(page.document().getPageOffsets()).containsExactly(0);
+        assertThat(page.document().getContentOffset()).isEqualTo(5);
+
+        ContentSelection pages = ContentRangeSelector.select(document(), " 2 - 3 ", null);
+        assertThat(text(pages)).isEqualTo("bbbb cccc ");
+        assertThat(pages.document().getPageOffsets()).containsExactly(0, 5);
+    }
+
+    @Test
+    void pageRangeIsClampedToPageCount() {
+        ContentSelection openEnded = ContentRangeSelector.select(document(), "2-", null);
+        ContentSelection pastEnd = ContentRangeSelector.select(document(), "2-99", null);
+
+        assertThat(text(openEnded)).isEqualTo(text(pastEnd)).isEqualTo("bbbb cccc ");
+        assertThat(openEnded.selectionTag()).isEqualTo(pastEnd.selectionTag()).isEqualTo("p2-3");
+    }
+
+    @Test
+    void characterRangeIsClampedToTextLength() {
+        ContentSelection range = ContentRangeSelector.select(document(), null, "3-7");
+        assertThat(text(range)).isEqualTo("a bb");
+        assertThat(range.document().getPageOffsets()).isNull();
+        assertThat(range.document().getContentLength()).isEqualTo(TEXT.length());
+
+        assertThat(text(ContentRangeSelector.select(document(), null, "10-"))).isEqualTo("cccc ");
+        assertThat(text(ContentRangeSelector.select(document(), null, "10-1000"))).isEqualTo("cccc ");
+        // Khoảng rỗng ở cuối text vẫn hợp lệ
+        assertThat(ContentRangeSelector.select(document(), null, "15-").length()).isZero();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "0", "4", "3-2", "-1", "1-x", "abc", "1-2-3", "2147483648" })
+    void invalidPagesAreRejected(String pages) {
+        assertThatThrownBy(() -> ContentRangeSelector.select(document(), pages, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "16-", "7-3", "-5", "x-", "" + Long.MAX_VALUE })
+    void invalidRangesAreRejected(String range) {
+        assertThatThrownBy(() -> ContentRangeSelector.select(document(), null, range))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void pagesAndRangeTogetherAreRejected() {
+        assertThatThrownBy(() -> ContentRangeSelector.select(document(), "1", "0-5"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("either pages or range");
+    }
+
+    @Test
+    void pagesOfDocumentWithoutPageOffsetsAreRejected() {
+        ExtractedDocument docx = document().toBuilder().pageOffsets(null).build();
+
+        assertThatThrownBy(() -> ContentRangeSelector.select(docx, "1", null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void unfinishedExtractionIsReturnedAsIsForAnySelection() {
+        ExtractedDocument pending = ExtractedDocument.builder().fileName("lesson.pdf").status("PENDING").build();
+
+        ContentSelection selection = ContentRangeSelector.select(pending, "99", null);
+
+        assertThat(selection.hasText()).isFalse();
+        assertThat(selection.document().getStatus()).isEqualTo("PENDING");
+    }
+
+    private static String text(ContentSelection selection) {
+        return selection.text().substring(selection.start(), selection.end());
+    }
+
+    private static ExtractedDocument document() {
+        return ExtractedDocument.builder()
+                .fileName("lesson.pdf")
+                .status("COMPLETED")
+                .pages(3)
+                .pageOffsets(List.of(0, 5, 10))
+                .content(TEXT)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.course.service.util.content;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.course.service.util.content.strategy.DocxReader;
+import com.example.course.service.util.content.strategy.PdfReader;
+import com.example.course.service.util.content.strategy.StreamingDocxReader;
+
+/**
+ * Reader được chọn theo content type đã lưu, rồi tới phần mở rộng của tên file chapter.
+ */
+class ContentReaderTest {
+
+    private ContentReader contentReader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PdfReader pdfReader = mock(PdfReader.class);
+        given(pdfReader.read(any(), anyString())).willReturn(ExtractedDocument.builder().content("pdf").build());
+        StreamingDocxReader docxReader = mock(StreamingDocxReader.class);
+        given(docxReader.read(any(), anyString())).willReturn(ExtractedDocument.builder().content("docx").build());
+        contentReader = new ContentReader(pdfReader, mock(DocxReader.class), docxReader, "streaming");
+    }
+
+    @Test
+    void contentTypeWinsOverFileName() {
+        // Object dùng chung mang tên của lần upload đầu tiên, không có phần mở rộng
+        assertThat(read("lesson", "application/pdf").getContent()).isEqualTo("pdf");
+        assertThat(read("lesson.pdf", "application/vnd.openxmlformats-officedocument.wordprocessingml.document")
+                .getContent()).isEqualTo("docx");
+        assertThat(read("lesson", "application/pdf; charset=binary").getContent()).isEqualTo("pdf");
+    }
+
+    @Test
+    void fileNameIsUsedWhenContentTypeIsMissingOrGeneric() {
+        assertThat(read("Lesson.PDF", "application/octet-stream").getContent()).isEqualTo("pdf");
+        assertThat(read("notes.docx", null).getContent()).isEqualTo("docx");
+    }
+
+    @Test
+    void unsupportedTypeFails() {
+        ExtractedDocument document = read("slides.pptx", "application/octet-stream");
+
+        assertThat(document.isFailed()).isTrue();
+        assertThat(document.getError()).contains("slides.pptx");
+    }
+
+    private ExtractedDocument read(String fileName, String contentType) {
+        InputStream is = new ByteArrayInputStream(new byte[0]);
+        return contentReader.readContent(is, fileName, contentType);
+    }
+}
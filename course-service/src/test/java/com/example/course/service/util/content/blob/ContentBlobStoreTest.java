@@ -0,0 +1,260 @@
+package com.example.course.service.util.content.blob;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.course.service.model.content.ContentBlob;
+import com.example.course.service.model.content.ContentRef;
+import com.example.course.service.repository.IContentBlobRepository;
+import com.example.course.service.repository.IContentRefRepository;
+
+import io.minio.MinioClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+
+/**
+ * Đếm tham chiếu của blob dùng chung: blob còn được pin không bị dọn, blob hết tham chiếu bị dọn sau khi
+ * tombstone đã commit, upload trùng nội dung với blob đang bị xóa thì chờ rồi upload lại.
+ * content_blobs / content_refs được giả lập trong bộ nhớ (pin dùng upsert ON CONFLICT của Postgres).
+ */
+class ContentBlobStoreTest {
+
+    private final Map<String, ContentBlob> blobs = new ConcurrentHashMap<>();
+    private final Map<String, ContentRef> refs = new ConcurrentHashMap<>();
+    private final Set<String> objects = ConcurrentHashMap.newKeySet();
+
+    private MinioClient minioClient;
+    private IContentBlobRepository blobRepository;
+    private PlatformTransactionManager transactionManager;
+    private ContentBlobStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        minioClient = mock(MinioClient.class);
+        blobRepository = mock(IContentBlobRepository.class);
+        IContentRefRepository refRepository = mock(IContentRefRepository.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        given(transactionManager.getTransaction(any())).willAnswer(invocation -> new SimpleTransactionStatus());
+
+        fakeBlobTable();
+        given(refRepository.lockByChapterId(anyString()))
+                .willAnswer(invocation -> Optional.ofNullable(refs.get(invocation.<String>getArgument(0))));
+        given(refRepository.save(any(ContentRef.class))).willAnswer(invocation -> {
+            ContentRef ref = invocation.getArgument(0);
+            refs.put(ref.getChapterId(), ref);
+            return ref;
+        });
+        fakeMinio();
+
+        // Grace 0: blob hết tham chiếu bị dọn ngay ở lần dọn kế tiếp
+        store = new ContentBlobStore(minioClient, blobRepository, refRepository, jdbcTemplate,
+                new TransactionTemplate(transactionManager), "materials", 0);
+    }
+
+    @Test
+    void blobPinnedTwiceAndReleasedOnceIsKept() throws Exception {
+        ContentBlobStore.Registration first = store.register("chapter-1", file("lesson.pdf", "lesson"));
+        ContentBlobStore.Registration second = store.register("chapter-2", file("copy.pdf", "lesson"));
+        assertThat(first.stored()).isTrue();
+        assertThat(second.stored()).isFalse();
+        assertThat(second.objectName()).isEqualTo(first.objectName());
+        assertThat(blobs.get(first.sha256()).getRefCount()).isEqualTo(2);
+
+        // chapter-2 đổi sang nội dung khác: blob cũ còn một tham chiếu
+        store.register("chapter-2", file("copy.pdf", "edited lesson"));
+        assertThat(blobs.get(first.sha256()).getRefCount()).isEqualTo(1);
+
+        store.deleteOrphans();
+
+        assertThat(blobs).containsKey(first.sha256());
+        assertThat(objects).contains(first.objectName());
+        verify(minioClient, never()).removeObject(any());
+    }
+
+    @Test
+    void unreferencedBlobIsTombstonedAndCommittedBeforeItsObjectIsRemoved() throws Exception {
+        ContentBlobStore.Registration old = store.register("chapter-1", file("lesson.pdf", "lesson"));
+        ContentBlobStore.Registration current = store.register("chapter-1", file("lesson.pdf", "edited lesson"));
+
+        store.deleteOrphans();
+
+        assertThat(blobs).doesNotContainKey(old.sha256()).containsKey(current.sha256());
+        assertThat(objects).doesNotContain(old.objectName()).contains(current.objectName());
+
+        InOrder order = inOrder(blobRepository, transactionManager, minioClient);
+        order.verify(blobRepository).markDeleting(List.of(old.sha256()), true);
+        order.verify(transactionManager).commit(any());
+        order.verify(minioClient).removeObject(any(RemoveObjectArgs.class));
+        order.verify(blobRepository).deleteAllByIdInBatch(List.of(old.sha256()));
+    }
+
+    @Test
+    void failedRemovalClearsTheTombstone() throws Exception {
+        ContentBlobStore.Registration old = store.register("chapter-1", file("lesson.pdf", "lesson"));
+        store.register("chapter-1", file("lesson.pdf", "edited lesson"));
+        willAnswer(invocation -> {
+            throw new IllegalStateException("minio unavailable");
+        }).given(minioClient).removeObject(any(RemoveObjectArgs.class));
+
+        store.deleteOrphans();
+
+        assertThat(blobs.get(old.sha256()).isDeleting()).isFalse();
+        assertThat(objects).contains(old.objectName());
+        // Upload lại đúng nội dung đó dùng lại object còn trên MinIO
+        assertThat(store.register("chapter-2", file("lesson.pdf", "lesson")).stored()).isFalse();
+    }
+
+    @Test
+    void uploadOfTombstonedContentWaitsAndUploadsAgain() throws Exception {
+        ContentBlobStore.Registration old = store.register("chapter-1", file("lesson.pdf", "lesson"));
+        store.register("chapter-1", file("lesson.pdf", "edited lesson"));
+        // Lần dọn đã commit tombstone nhưng chưa xóa object
+        blobs.get(old.sha256()).setDeleting(true);
+
+        CompletableFuture<ContentBlobStore.Registration> upload = CompletableFuture.supplyAsync(() -> {
+            try {
+                return store.register("chapter-2", file("lesson.pdf", "lesson"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        verify(blobRepository, timeout(5_000).atLeast(3))
+                .pin(eq(old.sha256()), anyString(), anyLong(), anyString(), any());
+        assertThat(upload).isNotDone();
+
+        // Lần dọn xóa object rồi xóa dòng blob
+        objects.remove(old.objectName());
+        blobs.remove(old.sha256());
+
+        ContentBlobStore.Registration registered = upload.get(5, TimeUnit.SECONDS);
+        assertThat(registered.stored()).isTrue();
+        assertThat(objects).contains(registered.objectName());
+        assertThat(blobs.get(old.sha256()).getRefCount()).isEqualTo(1);
+        verify(minioClient, times(3)).putObject(any(PutObjectArgs.class));
+    }
+
+    private static MockMultipartFile file(String fileName, String content) {
+        return new MockMultipartFile("file", fileName, "application/pdf", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void fakeBlobTable() {
+        given(blobRepository.pin(anyString(), anyString(), anyLong(), anyString(), any())).willAnswer(invocation -> {
+            String sha256 = invocation.getArgument(0);
+            Instant now = invocation.getArgument(4);
+            ContentBlob existing = blobs.get(sha256);
+            if (existing != null) {
+                if (existing.isDeleting()) {
+                    return 0;
+                }
+                existing.setRefCount(existing.getRefCount() + 1);
+                existing.setUpdatedAt(now);
+                return 1;
+            }
+            ContentBlob blob = new ContentBlob();
+            blob.setSha256(sha256);
+            blob.setObjectName(invocation.getArgument(1));
+            blob.setSizeBytes(invocation.<Long>getArgument(2));
+            blob.setContentType(invocation.getArgument(3));
+            blob.setRefCount(1);
+            blob.setCreatedAt(now);
+            blob.setUpdatedAt(now);
+            blobs.put(sha256, blob);
+            return 1;
+        });
+        given(blobRepository.release(anyString(), any())).willAnswer(invocation -> {
+            ContentBlob blob = blobs.get(invocation.<String>getArgument(0));
+            if (blob == null || blob.getRefCount() == 0) {
+                return 0;
+            }
+            blob.setRefCount(blob.getRefCount() - 1);
+            blob.setUpdatedAt(invocation.getArgument(1));
+            return 1;
+        });
+        given(blobRepository.findById(anyString()))
+                .willAnswer(invocation -> Optional.ofNullable(blobs.get(invocation.<String>getArgument(0))));
+        given(blobRepository.lockOrphans(any(), anyInt())).willAnswer(invocation -> {
+            Instant before = invocation.getArgument(0);
+            return blobs.values().stream()
+                    .filter(blob -> blob.getRefCount() == 0 && !blob.getUpdatedAt().isAfter(before))
+                    .limit(invocation.<Integer>getArgument(1))
+                    .toList();
+        });
+        given(blobRepository.markDeleting(anyCollection(), anyBoolean())).willAnswer(invocation -> {
+            Collection<String> sha256s = invocation.getArgument(0);
+            sha256s.forEach(sha256 -> blobs.get(sha256).setDeleting(invocation.<Boolean>getArgument(1)));
+            return sha256s.size();
+        });
+        willAnswer(invocation -> {
+            invocation.<Collection<String>>getArgument(0).forEach(blobs::remove);
+            return null;
+        }).given(blobRepository).deleteAllByIdInBatch(any());
+    }
+
+    private void fakeMinio() throws Exception {
+        ErrorResponse noSuchKey = mock(ErrorResponse.class);
+        given(noSuchKey.code()).willReturn("NoSuchKey");
+        ErrorResponseException notFound = mock(ErrorResponseException.class);
+        given(notFound.errorResponse()).willReturn(noSuchKey);
+
+        given(minioClient.statObject(any(StatObjectArgs.class))).willAnswer(invocation -> {
+            String object = invocation.<StatObjectArgs>getArgument(0).object();
+            if (!objects.contains(object)) {
+                throw notFound;
+            }
+            StatObjectResponse stat = mock(StatObjectResponse.class);
+            given(stat.etag()).willReturn("etag-" + object);
+            return stat;
+        });
+        given(minioClient.putObject(any(PutObjectArgs.class))).willAnswer(invocation -> {
+            String object = invocation.<PutObjectArgs>getArgument(0).object();
+            objects.add(object);
+            ObjectWriteResponse response = mock(ObjectWriteResponse.class);
+            given(response.etag()).willReturn("etag-" + object);
+            return response;
+        });
+        willAnswer(invocation -> {
+            objects.remove(invocation.<RemoveObjectArgs>getArgument(0).object());
+            return null;
+        }).given(minioClient).removeObject(any(RemoveObjectArgs.class));
+    }
+}
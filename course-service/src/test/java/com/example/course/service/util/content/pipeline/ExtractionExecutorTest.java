@@ -0,0 +1,197 @@
+package com.example.course.service.util.content.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.example.course.service.dto.response.ResponseObject;
+import com.example.course.service.exception.ExtractionRejectedException;
+import com.example.course.service.exception.handler.GlobalHandlerException;
+import com.example.course.service.util.content.ExtractedDocument;
+import com.example.course.service.util.content.ExtractionCpuSlots;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Bulkhead trích xuất: hàng đợi đầy và quá deadline bị từ chối (503 + Retry-After),
+ * request trùng phiên bản object dùng chung một job, mỗi job giữ một slot CPU.
+ */
+class ExtractionExecutorTest {
+
+    private static final long RETRY_AFTER_SECONDS = 7;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExtractionCpuSlots cpuSlots;
+    private ExtractionExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+    // Thread riêng cho các request giả lập: chúng chặn tới khi job xong
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Một thread, hàng đợi một chỗ
+        cpuSlots = new ExtractionCpuSlots(1);
+        executor = new ExtractionExecutor(cpuSlots, 1, 5_000, RETRY_AFTER_SECONDS, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        executor.shutdown();
+    }
+
+    @Test
+    void fullQueueIsRejectedWithRetryAfter() throws Exception {
+        CompletableFuture<ExtractedDocument> running = runAsync("a", blocked("a.pdf"));
+        await(() -> gauge("content.extraction.active") == 1);
+        CompletableFuture<ExtractedDocument> queued = runAsync("b", blocked("b.pdf"));
+        await(() -> gauge("content.extraction.queue.depth") == 1);
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThatThrownBy(() -> executor.run("c", "c.pdf", 1, 5_000, counting(calls, "c.pdf")))
+                .isInstanceOfSatisfying(ExtractionRejectedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(RETRY_AFTER_SECONDS));
+        assertThat(calls).hasValue(0);
+        assertThat(meterRegistry.counter("content.extraction.rejected", "reason", "queue_full").count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("a.pdf");
+        assertThat(queued.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("b.pdf");
+        // Có chỗ trở lại
+        assertThat(executor.run("c", "c.pdf", 1, 5_000, counting(calls, "c.pdf")).getContent()).isEqualTo("c.pdf");
+    }
+
+    @Test
+    void deadlineRejectsButKeepsJobRunningForTheRetry() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Callable<ExtractedDocument> slow = () -> {
+            calls.incrementAndGet();
+            release.await();
+            return document("a.pdf");
+        };
+
+        assertThatThrownBy(() -> executor.run("a", "a.pdf", 1, 50, slow))
+                .isInstanceOf(ExtractionRejectedException.class);
+        assertThat(meterRegistry.counter("content.extraction.rejected", "reason", "deadline").count()).isEqualTo(1);
+
+        // Lần thử lại của cùng phiên bản dùng chung job đang chạy, không chạy lại extraction
+        CompletableFuture<ExtractedDocument> retry = runAsync("a", slow);
+        release.countDown();
+        assertThat(retry.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("a.pdf");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void concurrentRequestsForSameVersionShareOneExtraction() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Callable<ExtractedDocument> extraction = () -> {
+            calls.incrementAndGet();
+            release.await();
+            return document("a.pdf");
+        };
+
+        CompletableFuture<ExtractedDocument> first = runAsync("a", extraction);
+        await(() -> calls.get() == 1);
+        CompletableFuture<ExtractedDocument> second = runAsync("a", extraction);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(second.get(5, TimeUnit.SECONDS));
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.get("content.extraction.duration")
+                .tags("type", "pdf", "size", "lt_1mb", "outcome", "success").timer().count()).isEqualTo(1);
+
+        // Job xong thì được gỡ khỏi danh sách đang chạy: lần sau chạy extraction mới
+        executor.run("a", "a.pdf", 1, 5_000, extraction);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void runningJobHoldsItsCpuSlotAndBorrowedSlotDelaysTheNextJob() throws Exception {
+        CompletableFuture<ExtractedDocument> running = runAsync("a", blocked("a.pdf"));
+        await(() -> cpuSlots.available() == 0);
+        // PdfReader không mượn được slot của job đang parse
+        try (ExtractionCpuSlots.Lease lease = cpuSlots.tryAcquireUpTo(1)) {
+            assertThat(lease.count()).isZero();
+        }
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        await(() -> cpuSlots.available() == 1);
+
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<ExtractedDocument> next;
+        try (ExtractionCpuSlots.Lease borrowed = cpuSlots.tryAcquireUpTo(2)) {
+            assertThat(borrowed.count()).isEqualTo(1);
+            next = runAsync("b", counting(calls, "b.pdf"));
+            Thread.sleep(100);
+            assertThat(calls).hasValue(0);
+        }
+        assertThat(next.get(5, TimeUnit.SECONDS).getContent()).isEqualTo("b.pdf");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void rejectionIsAnswered503WithRetryAfter() {
+        ResponseEntity<ResponseObject> response = new GlobalHandlerException()
+                .handleExtractionRejectedException(new ExtractionRejectedException("busy", RETRY_AFTER_SECONDS));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("7");
+    }
+
+    private CompletableFuture<ExtractedDocument> runAsync(String key, Callable<ExtractedDocument> extraction) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return executor.run(key, key + ".pdf", 1, 5_000, extraction);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, callers);
+    }
+
+    private Callable<ExtractedDocument> blocked(String fileName) {
+        return () -> {
+            release.await();
+            return document(fileName);
+        };
+    }
+
+    private static Callable<ExtractedDocument> counting(AtomicInteger calls, String fileName) {
+        return () -> {
+            calls.incrementAndGet();
+            return document(fileName);
+        };
+    }
+
+    private static ExtractedDocument document(String fileName) {
+        return ExtractedDocument.builder().fileName(fileName).content(fileName).build();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5 s").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.course.service.util.content.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.course.service.util.content.ExtractedDocument;
+
+/**
+ * Ghi rồi đọc lại text theo ETag, dựng lại index từ segment sau khi khởi động lại,
+ * bỏ qua bản ghi ghi dở (chưa có magic) và thu hồi segment cũ khi vượt max-bytes.
+ */
+class ExtractedTextStoreTest {
+
+    private static final String BUCKET = "materials";
+    private static final int SEGMENT_BYTES = 1024;
+    // Mỗi bản ghi ~300 ký tự chiếm một segment riêng (ước lượng 3 byte / ký tự)
+    private static final String PAGE = "x".repeat(150);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void putThenFindReturnsTextAndPagesOfThatEtag() throws IOException {
+        ExtractedTextStore store = open(Long.MAX_VALUE);
+        ExtractedDocument document = document("Trang một. ", "Page two ü");
+
+        store.put(BUCKET, "lesson.pdf", "etag-1", document);
+
+        StoredText stored = store.find(BUCKET, "lesson.pdf", "etag-1").orElseThrow();
+        assertThat(stored.pageCount()).isEqualTo(2);
+        assertThat(text(stored.slice(null))).isEqualTo("Trang một. Page two ü");
+        assertThat(text(stored.slice("2"))).isEqualTo("Page two ü");
+        assertThat(stored.slice("2").pageRange()).isEqualTo("2-2");
+        assertThat(store.find(BUCKET, "lesson.pdf", "etag-2")).isEmpty();
+        assertThat(store.find(BUCKET, "other.pdf", "etag-1")).isEmpty();
+    }
+
+    @Test
+    void restartRebuildsIndexFromSegments() throws IOException {
+        ExtractedTextStore store = open(Long.MAX_VALUE);
+        store.put(BUCKET, "a.pdf", "etag-1", document("old a"));
+        store.put(BUCKET, "b.pdf", "etag-1", document("b"));
+        store.put(BUCKET, "a.pdf", "etag-2", document("new a"));
+
+        ExtractedTextStore restarted = open(Long.MAX_VALUE);
+
+        assertThat(restarted.find(BUCKET, "a.pdf", "etag-1")).isEmpty();
+        assertThat(text(restarted.find(BUCKET, "a.pdf", "etag-2").orElseThrow().slice(null))).isEqualTo("new a");
+        assertThat(text(restarted.find(BUCKET, "b.pdf", "etag-1").orElseThrow().slice(null))).isEqualTo("b");
+    }
+
+    @Test
+    void halfWrittenRecordIsSkippedAndOverwritten() throws IOException {
+        ExtractedTextStore store = open(Long.MAX_VALUE);
+        store.put(BUCKET, "a.pdf", "etag-1", document("complete"));
+        store.put(BUCKET, "b.pdf", "etag-1", document("interrupted"));
+        // Magic được ghi sau cùng: xóa magic của bản ghi thứ hai giống service dừng giữa lúc ghi
+        Path segment = segmentFiles().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        int second = indexOf(bytes, "TXT1".getBytes(StandardCharsets.US_ASCII), 1);
+        Files.write(segment, ByteBuffer.wrap(bytes).putInt(second, 0).array());
+
+        ExtractedTextStore restarted = open(Long.MAX_VALUE);
+        assertThat(restarted.find(BUCKET, "a.pdf", "etag-1")).isPresent();
+        assertThat(restarted.find(BUCKET, "b.pdf", "etag-1")).isEmpty();
+
+        // Bản ghi mới được ghi đè lên vùng ghi dở, không nối sau nó
+        restarted.put(BUCKET, "c.pdf", "etag-1", document("after restart"));
+        ExtractedTextStore again = open(Long.MAX_VALUE);
+        assertThat(text(again.find(BUCKET, "a.pdf", "etag-1").orElseThrow().slice(null))).isEqualTo("complete");
+        assertThat(text(again.find(BUCKET, "c.pdf", "etag-1").orElseThrow().slice(null))).isEqualTo("after restart");
+        assertThat(again.find(BUCKET, "b.pdf", "etag-1")).isEmpty();
+    }
+
+    @Test
+    void oldestSegmentsAreEvictedOverMaxBytes() throws IOException {
+        ExtractedTextStore store = open(3L * SEGMENT_BYTES);
+        for (int i = 0; i < 5; i++) {
+            store.put(BUCKET, "file-" + i + ".pdf", "etag", document(PAGE, PAGE));
+        }
+
+        assertThat(segmentFiles()).hasSize(3);
+        assertThat(store.find(BUCKET, "file-0.pdf", "etag")).isEmpty();
+        assertThat(store.find(BUCKET, "file-1.pdf", "etag")).isEmpty();
+        for (int i = 2; i < 5; i++) {
+            assertThat(store.find(BUCKET, "file-" + i + ".pdf", "etag")).isPresent();
+        }
+
+        ExtractedTextStore restarted = open(3L * SEGMENT_BYTES);
+        assertThat(restarted.find(BUCKET, "file-0.pdf", "etag")).isEmpty();
+        assertThat(restarted.find(BUCKET, "file-4.pdf", "etag")).isPresent();
+    }
+
+    @Test
+    void segmentsWithOnlySupersededRecordsAreDeletedUnderTheCap() throws IOException {
+        ExtractedTextStore store = open(Long.MAX_VALUE);
+        store.put(BUCKET, "a.pdf", "etag-1", document(PAGE, PAGE));
+        store.put(BUCKET, "a.pdf", "etag-2", document(PAGE, PAGE));
+        store.put(BUCKET, "b.pdf", "etag-1", document(PAGE, PAGE));
+
+        // Segment 1 chỉ còn phiên bản etag-1 của a.pdf
+        assertThat(segmentFiles()).extracting(file -> file.getFileName().toString())
+                .containsExactly("segment-00000002.seg", "segment-00000003.seg");
+        assertThat(store.find(BUCKET, "a.pdf", "etag-2")).isPresent();
+        assertThat(store.find(BUCKET, "b.pdf", "etag-1")).isPresent();
+    }
+
+    @Test
+    void restartWithALowerCapEvictsOldSegments() throws IOException {
+        ExtractedTextStore store = open(Long.MAX_VALUE);
+        for (int i = 0; i < 4; i++) {
+            store.put(BUCKET, "file-" + i + ".pdf", "etag", document(PAGE, PAGE));
+        }
+
+        ExtractedTextStore restarted = open(2L * SEGMENT_BYTES);
+
+        assertThat(segmentFiles()).hasSize(2);
+        assertThat(restarted.find(BUCKET, "file-1.pdf", "etag")).isEmpty();
+        assertThat(restarted.find(BUCKET, "file-2.pdf", "etag")).isPresent();
+        assertThat(restarted.find(BUCKET, "file-3.pdf", "etag")).isPresent();
+    }
+
+    private ExtractedTextStore open(long maxBytes) throws IOException {
+        ExtractedTextStore store = new ExtractedTextStore(directory.toString(), SEGMENT_BYTES, maxBytes);
+        store.load();
+        return store;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static ExtractedDocument document(String... pages) {
+        StringBuilder content = new StringBuilder();
+        List<Integer> offsets = new ArrayList<>();
+        for (String page : pages) {
+            offsets.add(content.length());
+            content.append(page);
+        }
+        return ExtractedDocument.builder()
+                .fileName("lesson.pdf")
+                .pages(pages.length)
+                .pageOffsets(offsets)
+                .content(content.toString())
+                .build();
+    }
+
+    private static String text(StoredText.Slice slice) {
+        return StandardCharsets.UTF_8.decode(slice.bytes()).toString();
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern, int occurrence) {
+        int found = -1;
+        for (int i = 0; i + pattern.length <= bytes.length; i++) {
+            int j = 0;
+            while (j < pattern.length && bytes[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length && ++found == occurrence) {
+                return i;
+            }
+        }
+        throw new AssertionError("record " + occurrence + " not found");
+    }
+}
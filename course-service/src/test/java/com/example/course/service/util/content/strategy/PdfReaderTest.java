@@ -0,0 +1,168 @@
+package com.example.course.service.util.content.strategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.course.service.exception.ExtractionRejectedException;
+import com.example.course.service.util.content.ContentReader;
+import com.example.course.service.util.content.ExtractedDocument;
+import com.example.course.service.util.content.ExtractionCpuSlots;
+import com.example.course.service.util.content.ExtractionMemoryBudget;
+
+/**
+ * Hết ngân sách bộ nhớ thì bị từ chối ngay và lỗi tới được caller (503 / thử lại), không thành tài liệu FAILED.
+ * Trích xuất song song chia trang cho nhiều task lá nhưng giữ nguyên thứ tự text và page offset.
+ */
+class PdfReaderTest {
+
+    private static final long BUDGET_BYTES = 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private PdfReader reader;
+
+    @AfterEach
+    void tearDown() {
+        if (reader != null) {
+            reader.shutdown();
+        }
+    }
+
+    @Test
+    void exhaustedMemoryBudgetReachesTheCaller() throws Exception {
+        ExtractionMemoryBudget budget = new ExtractionMemoryBudget(BUDGET_BYTES);
+        reader = reader(budget);
+        byte[] pdf = generatePdf(2);
+
+        try (ExtractionMemoryBudget.Reservation ignored = budget.reserve(BUDGET_BYTES)) {
+            assertThatThrownBy(() -> reader.read(new ByteArrayInputStream(pdf), "lesson.pdf"))
+                    .isInstanceOf(ExtractionRejectedException.class)
+                    .hasMessageContaining("memory budget");
+            ContentReader contentReader = new ContentReader(reader, new DocxReader(), new StreamingDocxReader(), "streaming");
+            assertThatThrownBy(() -> contentReader.readContent(new ByteArrayInputStream(pdf), "lesson.pdf", "application/pdf"))
+                    .isInstanceOf(ExtractionRejectedException.class);
+        }
+
+        // File tạm đã được xóa, và khi có ngân sách trở lại thì đọc bình thường
+        assertThat(isEmpty(tempDir)).isTrue();
+        ExtractedDocument document = reader.read(new ByteArrayInputStream(pdf), "lesson.pdf");
+        assertThat(document.isFailed()).isFalse();
+        assertThat(document.getPages()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectionDoesNotWaitForTheBudget() throws Exception {
+        ExtractionMemoryBudget budget = new ExtractionMemoryBudget(BUDGET_BYTES);
+        reader = reader(budget);
+        byte[] pdf = generatePdf(1);
+
+        try (ExtractionMemoryBudget.Reservation ignored = budget.reserve(BUDGET_BYTES)) {
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> reader.read(new ByteArrayInputStream(pdf), "lesson.pdf"))
+                    .isInstanceOf(ExtractionRejectedException.class);
+            // Thread bulkhead không bị giữ lại chờ ngân sách
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+        }
+    }
+
+    @Test
+    void pagesSplitAcrossLeafTasksComeBackInOrder() throws Exception {
+        Path file = tempDir.resolve("lesson.pdf");
+        Files.write(file, generatePdf(10));
+        StreamCacheCreateFunction streamCache = MemoryUsageSetting.setupMainMemoryOnly().streamCache;
+
+        PdfReader.PageText sequential;
+        try (PDDocument document = Loader.loadPDF(file.toFile())) {
+            sequential = PdfReader.extract(document, 1, 10);
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        PdfReader.PageText parallel;
+        try {
+            // 3 task lá: trang 1-3, 4-6, 7-10
+            parallel = pool.invoke(new PdfReader.ExtractPagesTask(file.toFile(), streamCache, 1, 10, 3));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(parallel.text()).isEqualTo(sequential.text());
+        assertThat(parallel.pageOffsets()).isEqualTo(sequential.pageOffsets()).hasSize(10);
+        assertPagesInOrder(parallel.text(), parallel.pageOffsets());
+    }
+
+    @Test
+    void readerBorrowsIdleSlotsAndReturnsThem() throws Exception {
+        ExtractionCpuSlots cpuSlots = new ExtractionCpuSlots(4);
+        reader = new PdfReader(0, 1, 2, 16L * 1024 * 1024, tempDir.toString(),
+                new ExtractionMemoryBudget(64L * 1024 * 1024), cpuSlots);
+
+        ExtractedDocument document;
+        try (ExtractionCpuSlots.Lease job = cpuSlots.acquire()) {
+            document = reader.read(new ByteArrayInputStream(generatePdf(10)), "lesson.pdf");
+        }
+
+        assertThat(document.isFailed()).isFalse();
+        assertThat(document.getPageOffsets()).hasSize(10);
+        assertPagesInOrder(document.getContent(), document.getPageOffsets());
+        assertThat(cpuSlots.available()).isEqualTo(4);
+    }
+
+    private static void assertPagesInOrder(String text, List<Integer> pageOffsets) {
+        assertThat(pageOffsets).isSorted();
+        for (int i = 0; i < pageOffsets.size(); i++) {
+            int end = i + 1 < pageOffsets.size() ? pageOffsets.get(i + 1) : text.length();
+            assertThat(text.substring(pageOffsets.get(i), end).strip()).isEqualTo("Page " + (i + 1));
+        }
+    }
+
+    private PdfReader reader(ExtractionMemoryBudget budget) {
+        return new PdfReader(1, 64, 16, 16L * 1024 * 1024, tempDir.toString(), budget, new ExtractionCpuSlots(1));
+    }
+
+    private static boolean isEmpty(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findAny().isEmpty();
+        }
+    }
+
+    static byte[] generatePdf(int pages) throws IOException {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int p = 1; p <= pages; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                    stream.beginText();
+                    stream.setFont(font, 12);
+                    stream.newLineAtOffset(50, 750);
+                    stream.showText("Page " + p);
+                    stream.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
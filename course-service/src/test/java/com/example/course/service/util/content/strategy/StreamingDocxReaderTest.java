@@ -0,0 +1,129 @@
+package com.example.course.service.util.content.strategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.course.service.util.content.ExtractedDocument;
+
+/**
+ * Đọc DOCX bằng StAX: bảng (ô cách nhau bởi tab, hàng theo dòng), header/footer không lặp,
+ * footnote phân cách bị bỏ qua, thiếu word/document.xml thì lỗi.
+ * Fixture là các part XML tối thiểu của WordprocessingML, đóng gói thành zip trong test.
+ */
+class StreamingDocxReaderTest {
+
+    private static final String W = "xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"";
+
+    private final StreamingDocxReader reader = new StreamingDocxReader();
+
+    @Test
+    void tableCellsAreSeparatedByTabsAndRowsByNewlines() throws Exception {
+        String document = body("""
+                <w:p><w:r><w:t>Patterns</w:t></w:r></w:p>
+                <w:tbl>
+                  <w:tr>
+                    <w:tc><w:p><w:r><w:t>Layered</w:t></w:r></w:p></w:tc>
+                    <w:tc><w:p><w:r><w:t>Separation</w:t></w:r></w:p></w:tc>
+                  </w:tr>
+                  <w:tr>
+                    <w:tc><w:p><w:r><w:t>Pipes</w:t></w:r></w:p></w:tc>
+                    <w:tc><w:p><w:r><w:t>Filters</w:t></w:r><w:r><w:tab/><w:t>Streams</w:t></w:r></w:p></w:tc>
+                  </w:tr>
+                </w:tbl>
+                <w:p><w:r><w:t>After</w:t></w:r></w:p>
+                """);
+
+        ExtractedDocument result = read(Map.of("word/document.xml", document));
+
+        assertThat(result.isFailed()).isFalse();
+        assertThat(result.getContent())
+                .isEqualTo("Patterns\nLayered\tSeparation\nPipes\tFilters\tStreams\nAfter\n");
+        assertThat(result.getTables()).isEqualTo(1);
+        assertThat(result.getParagraphs()).isEqualTo(6);
+    }
+
+    @Test
+    void separatorFootnotesAreSkipped() throws Exception {
+        String footnotes = """
+                <w:footnotes %s>
+                  <w:footnote w:type="separator" w:id="-1"><w:p><w:r><w:separator/><w:t>SEPARATOR</w:t></w:r></w:p></w:footnote>
+                  <w:footnote w:type="continuationSeparator" w:id="0"><w:p><w:r><w:t>CONTINUATION</w:t></w:r></w:p></w:footnote>
+                  <w:footnote w:id="1"><w:p><w:r><w:t>See chapter 2.</w:t></w:r></w:p></w:footnote>
+                </w:footnotes>
+                """.formatted(W);
+
+        ExtractedDocument result = read(Map.of(
+                "word/document.xml", body("<w:p><w:r><w:t>Body</w:t></w:r></w:p>"),
+                "word/footnotes.xml", footnotes));
+
+        assertThat(result.getContent()).isEqualTo("Body\n\nSee chapter 2.\n");
+        assertThat(result.getContent()).doesNotContain("SEPARATOR", "CONTINUATION");
+    }
+
+    @Test
+    void duplicateHeadersAndFootersAppearOnce() throws Exception {
+        Map<String, String> parts = new LinkedHashMap<>();
+        // Thứ tự entry trong zip khác thứ tự tên: kết quả vẫn theo header1, header2, header3
+        parts.put("word/header3.xml", part("hdr", "First page header"));
+        parts.put("word/header1.xml", part("hdr", "Course Handbook"));
+        parts.put("word/header2.xml", part("hdr", "Course Handbook"));
+        parts.put("word/document.xml", body("<w:p><w:r><w:t>Body</w:t></w:r></w:p>"));
+        parts.put("word/footer1.xml", part("ftr", "Page footer"));
+        parts.put("word/footer2.xml", part("ftr", "Page footer"));
+
+        ExtractedDocument result = read(parts);
+
+        assertThat(result.getContent())
+                .isEqualTo("Course Handbook\n\nFirst page header\n\nBody\nPage footer\n\n");
+    }
+
+    @Test
+    void docxWithoutMainDocumentFails() throws Exception {
+        ExtractedDocument result = read(Map.of("word/header1.xml", part("hdr", "Only a header")));
+
+        assertThat(result.isFailed()).isTrue();
+        assertThat(result.getError()).contains("word/document.xml").contains("lesson.docx");
+    }
+
+    @Test
+    void nonDocxFileNameFails() throws Exception {
+        ExtractedDocument result = reader.read(new ByteArrayInputStream(new byte[0]), "lesson.doc");
+
+        assertThat(result.isFailed()).isTrue();
+    }
+
+    private ExtractedDocument read(Map<String, String> parts) throws Exception {
+        return reader.read(new ByteArrayInputStream(zip(parts)), "lesson.docx");
+    }
+
+    private static String body(String content) {
+        return "<w:document " + W + "><w:body>" + content + "</w:body></w:document>";
+    }
+
+    private static String part(String root, String text) {
+        return "<w:" + root + " " + W + "><w:p><w:r><w:t>" + text + "</w:t></w:r></w:p></w:" + root + ">";
+    }
+
+    private static byte[] zip(Map<String, String> parts) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("[Content_Types].xml"));
+            zip.write("<Types/>".getBytes(StandardCharsets.UTF_8));
+            for (Map.Entry<String, String> part : parts.entrySet()) {
+                zip.putNextEntry(new ZipEntry(part.getKey()));
+                zip.write(part.getValue().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return out.toByteArray();
+    }
+}
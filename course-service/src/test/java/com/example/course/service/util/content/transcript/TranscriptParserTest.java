@@ -0,0 +1,53 @@
+package com.example.course.service.util.content.transcript;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TranscriptParserTest {
+
+    @Test
+    void parsesSrt() {
+        String srt = """
+                1
+                00:00:01,000 --> 00:00:04,250
+                Xin chào các bạn.
+
+                2
+                00:01:05,500 --> 00:01:09,000
+                Hôm nay ta học về
+                <i>đệ quy</i>.
+                """;
+
+        List<TranscriptParser.Cue> cues = TranscriptParser.parse(srt);
+
+        assertThat(cues).containsExactly(
+                new TranscriptParser.Cue(1_000, 4_250, "Xin chào các bạn."),
+                new TranscriptParser.Cue(65_500, 69_000, "Hôm nay ta học về đệ quy."));
+    }
+
+    @Test
+    void parsesVttWithoutHoursAndSkipsHeaderNotesAndTags() {
+        String vtt = "\uFEFFWEBVTT\r\n\r\n"
+                + "NOTE generated by the recorder\r\n\r\n"
+                + "intro\r\n"
+                + "00:02.5 --> 00:05.000 align:start position:10%\r\n"
+                + "<v Giảng viên>Stack &amp; queue</v>\r\n\r\n"
+                + "1:00:00.000 --> 1:00:02.000\r\n"
+                + "<c.highlight>Kết thúc</c>\r\n";
+
+        List<TranscriptParser.Cue> cues = TranscriptParser.parse(vtt);
+
+        assertThat(cues).containsExactly(
+                new TranscriptParser.Cue(2_500, 5_000, "Stack & queue"),
+                new TranscriptParser.Cue(3_600_000, 3_602_000, "Kết thúc"));
+    }
+
+    @Test
+    void plainTranscriptHasNoCues() {
+        assertThat(TranscriptParser.parse("Toàn bộ transcript không có mốc thời gian")).isEmpty();
+        assertThat(TranscriptParser.parse(null)).isEmpty();
+    }
+}
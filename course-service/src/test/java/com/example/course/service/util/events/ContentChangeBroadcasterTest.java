@@ -0,0 +1,131 @@
+package com.example.course.service.util.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.course.service.controller.ContentEventController;
+import com.example.course.service.model.event.ContentAggregateType;
+import com.example.course.service.model.event.ContentChangeEvent;
+import com.example.course.service.model.event.ContentChangeType;
+import com.example.course.service.repository.IContentChangeEventRepository;
+
+/**
+ * Phát lại theo Last-Event-ID, "reset" khi không phát lại được và giao sự kiện mới theo cursor của instance.
+ * Vị trí được gán thẳng trong test (bước gán bằng advisory lock là cú pháp riêng của Postgres).
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ContentChangeBroadcasterTest {
+
+    @Autowired
+    private IContentChangeEventRepository eventRepository;
+
+    private ContentChangeBroadcaster broadcaster;
+    private MockMvc mockMvc;
+
+    // Mỗi test một broadcaster: cursor là trạng thái của instance, không được giữ qua các test
+    @BeforeEach
+    void setUp() {
+        broadcaster = new ContentChangeBroadcaster(eventRepository, 60_000, 100, 1, 50);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ContentEventController(broadcaster)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void reconnectReplaysEventsAfterLastEventIdBeforeConnected() throws Exception {
+        saveEvent("material-1", 1);
+        saveEvent("material-2", 2);
+        saveEvent("material-3", 3);
+
+        MockHttpServletResponse response = subscribe("1");
+
+        String body = awaitContent(response, "event:connected");
+        assertThat(body).doesNotContain("material-1");
+        assertThat(body.indexOf("material-2")).isPositive()
+                .isLessThan(body.indexOf("material-3"));
+        assertThat(body.indexOf("material-3")).isLessThan(body.indexOf("event:connected"));
+        assertThat(body).contains("data:resumed");
+    }
+
+    @Test
+    void connectWithoutLastEventIdAsksForReset() throws Exception {
+        saveEvent("material-1", 1);
+
+        String body = awaitContent(subscribe(null), "event:connected");
+
+        assertThat(body).contains("id:1", "data:reset").doesNotContain("material-1");
+    }
+
+    @Test
+    void lastEventIdOlderThanRetainedEventsAsksForReset() throws Exception {
+        // Các vị trí 1..9 đã bị xóa theo retention
+        saveEvent("material-10", 10);
+
+        String body = awaitContent(subscribe("2"), "event:connected");
+
+        assertThat(body).contains("data:reset").doesNotContain("material-10");
+    }
+
+    @Test
+    void newEventsAreDeliveredToConnectedSubscribers() throws Exception {
+        saveEvent("material-1", 1);
+        MockHttpServletResponse response = subscribe(null);
+        awaitContent(response, "event:connected");
+
+        saveEvent("material-2", 2);
+        assertThat(broadcaster.deliverPending()).isEqualTo(1);
+
+        assertThat(awaitContent(response, "material-2")).contains("id:2", "event:content-change");
+        assertThat(broadcaster.deliverPending()).isZero();
+    }
+
+    private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+        var request = get("/events/content");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    // Sự kiện được gửi trên thread pool của broadcaster
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String body = response.getContentAsString();
+        while (!body.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = response.getContentAsString();
+        }
+        assertThat(body).contains(expected);
+        return body;
+    }
+
+    private void saveEvent(String materialId, long position) {
+        ContentChangeEvent event = new ContentChangeEvent();
+        event.setAggregateType(ContentAggregateType.MATERIAL);
+        event.setAggregateId(materialId);
+        event.setChapterId("chapter-1");
+        event.setChangeType(ContentChangeType.UPDATED);
+        event.setOccurredAt(Instant.now());
+        event.setPublishedAt(Instant.now());
+        event.setStreamPosition(position);
+        eventRepository.saveAndFlush(event);
+    }
+}
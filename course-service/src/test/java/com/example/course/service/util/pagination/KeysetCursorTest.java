@@ -0,0 +1,72 @@
+package com.example.course.service.util.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.course.service.dto.response.CursorPage;
+import com.example.course.service.exception.BadRequestException;
+
+/**
+ * Mã hóa / giải mã cursor keyset và tạo trang từ kết quả size + 1 phần tử.
+ */
+class KeysetCursorTest {
+
+    @Test
+    void encodedKeysDecodeToTheSameValues() {
+        String cursor = KeysetCursor.encode(-3, "chương-1/ä?&=");
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        assertThat(KeysetCursor.decode(cursor, 2)).containsExactly("-3", "chương-1/ä?&=");
+    }
+
+    @Test
+    void emptyKeysAreKept() {
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(1, ""), 2)).containsExactly("1", "");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "not base64!", "%%%", "YQ=x" })
+    void malformedCursorIsBadRequest(String cursor) {
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, 1))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void cursorWithWrongKeyCountIsBadRequest() {
+        String oneKey = KeysetCursor.encode("material-1");
+        String threeKeys = Base64.getUrlEncoder().encodeToString("1\na\nb".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(oneKey, 2)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(threeKeys, 2)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void sizeIsClamped() {
+        assertThat(KeysetCursor.clampSize(null)).isEqualTo(KeysetCursor.DEFAULT_SIZE);
+        assertThat(KeysetCursor.clampSize(0)).isEqualTo(1);
+        assertThat(KeysetCursor.clampSize(-5)).isEqualTo(1);
+        assertThat(KeysetCursor.clampSize(1_000)).isEqualTo(KeysetCursor.MAX_SIZE);
+    }
+
+    @Test
+    void extraRowOnlySignalsNextPage() {
+        CursorPage<String> page = KeysetCursor.page(List.of("a", "b", "c"), 2, KeysetCursor::encode, String::toUpperCase);
+
+        assertThat(page.getItems()).containsExactly("A", "B");
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(KeysetCursor.decode(page.getNextCursor(), 1)).containsExactly("b");
+
+        CursorPage<String> last = KeysetCursor.page(List.of("c"), 2, KeysetCursor::encode, String::toUpperCase);
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+}